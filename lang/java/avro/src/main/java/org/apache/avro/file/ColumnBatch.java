@@ -0,0 +1,428 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.avro.file;
+
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.List;
+
+import org.apache.avro.AvroRuntimeException;
+import org.apache.avro.InvalidNumberEncodingException;
+import org.apache.avro.Schema;
+import org.apache.avro.Schema.Field;
+import org.apache.avro.util.Utf8;
+
+/**
+ * The values of selected fields of the records of a block, decoded into one
+ * column vector per field rather than into record objects.
+ * <p/>
+ * Numeric, boolean and enum fields are decoded into primitive arrays. Strings,
+ * bytes and fixed values are not copied: their columns hold the offset and
+ * length of each value in the decompressed block, see {@link #getBuffer()}.
+ * Fields that are unions of null and one of these types also have a null
+ * bitmap. Fields that were not selected are skipped without being decoded.
+ * <p/>
+ * Batches are filled by {@link DataFileStream#nextBatch(ColumnBatch)} and are
+ * valid until it is called again. They are not thread-safe.
+ */
+public class ColumnBatch {
+  private final Schema schema;
+  private final Column[] columns;
+  // for each field of the schema, its column or null if it is skipped
+  private final Column[] fieldColumns;
+  private final Schema[] fieldSchemas;
+  private ByteBuffer buffer;
+  private int size;
+  private int pos;
+
+  /**
+   * Creates a batch for records of <i>schema</i>, the schema of the file, with
+   * a column for each of the named fields.
+   *
+   * @throws IllegalArgumentException if a field does not exist or its type has
+   *                                  no column representation
+   */
+  public ColumnBatch(Schema schema, String... fieldNames) {
+    if (schema.getType() != Schema.Type.RECORD)
+      throw new IllegalArgumentException("Not a record schema: " + schema);
+    this.schema = schema;
+    this.columns = new Column[fieldNames.length];
+    this.fieldColumns = new Column[schema.getFields().size()];
+    this.fieldSchemas = new Schema[fieldColumns.length];
+    for (Field field : schema.getFields()) {
+      fieldSchemas[field.pos()] = field.schema();
+    }
+    for (int i = 0; i < fieldNames.length; i++) {
+      Field field = schema.getField(fieldNames[i]);
+      if (field == null)
+        throw new IllegalArgumentException("No field named " + fieldNames[i] + " in " + schema.getFullName());
+      columns[i] = new Column(this, field);
+      fieldColumns[field.pos()] = columns[i];
+    }
+  }
+
+  public Schema getSchema() {
+    return schema;
+  }
+
+  /** Returns the number of records in this batch. */
+  public int size() {
+    return size;
+  }
+
+  /** Returns the column of the <i>i</i>th field named at construction. */
+  public Column getColumn(int i) {
+    return columns[i];
+  }
+
+  /** Returns the column of the named field, or null if it was not selected. */
+  public Column getColumn(String fieldName) {
+    Field field = schema.getField(fieldName);
+    return field == null ? null : fieldColumns[field.pos()];
+  }
+
+  /**
+   * Returns the decompressed block that string, bytes and fixed values are
+   * located in. Offsets are indexes of this buffer.
+   */
+  public ByteBuffer getBuffer() {
+    return buffer;
+  }
+
+  /** Decodes the <i>count</i> records of a block. */
+  void decode(ByteBuffer block, int count) throws IOException {
+    this.buffer = block;
+    this.size = 0;
+    for (Column column : columns) {
+      column.ensureCapacity(count);
+    }
+    ByteBuffer in = block.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+    pos = in.position();
+    try {
+      for (int row = 0; row < count; row++) {
+        for (int i = 0; i < fieldColumns.length; i++) {
+          Column column = fieldColumns[i];
+          if (column == null) {
+            skip(in, fieldSchemas[i]);
+          } else {
+            read(in, column, row);
+          }
+        }
+      }
+    } catch (IndexOutOfBoundsException e) {
+      throw new IOException("Block ended before all of its " + count + " records were read", e);
+    }
+    if (pos != in.limit())
+      throw new IOException("Block read partially, the data may be corrupt");
+    this.size = count;
+  }
+
+  private void read(ByteBuffer in, Column column, int row) throws IOException {
+    if (column.nullBranch >= 0) {
+      int branch = readInt(in);
+      if (branch == column.nullBranch) {
+        column.nulls[row >>> 6] |= 1L << row;
+        return;
+      }
+      column.nulls[row >>> 6] &= ~(1L << row);
+    }
+    switch (column.type) {
+    case INT:
+    case ENUM:
+      column.ints[row] = readInt(in);
+      break;
+    case LONG:
+      column.longs[row] = readLong(in);
+      break;
+    case FLOAT:
+      column.floats[row] = in.getFloat(pos);
+      pos += 4;
+      break;
+    case DOUBLE:
+      column.doubles[row] = in.getDouble(pos);
+      pos += 8;
+      break;
+    case BOOLEAN:
+      column.booleans[row] = in.get(pos++) == 1;
+      break;
+    case FIXED:
+      column.offsets[row] = pos;
+      column.lengths[row] = column.fixedSize;
+      pos += column.fixedSize;
+      break;
+    default: // STRING, BYTES
+      int length = readLength(in);
+      column.offsets[row] = pos;
+      column.lengths[row] = length;
+      pos += length;
+    }
+  }
+
+  private void skip(ByteBuffer in, Schema schema) throws IOException {
+    switch (schema.getType()) {
+    case NULL:
+      break;
+    case BOOLEAN:
+      pos++;
+      break;
+    case INT:
+    case LONG:
+    case ENUM:
+      readLong(in);
+      break;
+    case FLOAT:
+      pos += 4;
+      break;
+    case DOUBLE:
+      pos += 8;
+      break;
+    case STRING:
+    case BYTES:
+      pos += readLength(in);
+      break;
+    case FIXED:
+      pos += schema.getFixedSize();
+      break;
+    case UNION:
+      skip(in, schema.getTypes().get(readInt(in)));
+      break;
+    case RECORD:
+      for (Field field : schema.getFields()) {
+        skip(in, field.schema());
+      }
+      break;
+    case ARRAY:
+    case MAP:
+      for (long count = readLong(in); count != 0; count = readLong(in)) {
+        if (count < 0) {
+          // the block has its size in bytes
+          pos += (int) readLong(in);
+          continue;
+        }
+        for (long i = 0; i < count; i++) {
+          if (schema.getType() == Schema.Type.MAP) {
+            pos += readLength(in);
+            skip(in, schema.getValueType());
+          } else {
+            skip(in, schema.getElementType());
+          }
+        }
+      }
+      break;
+    default:
+      throw new AvroRuntimeException("Unknown type: " + schema);
+    }
+  }
+
+  private int readLength(ByteBuffer in) throws IOException {
+    long length = readLong(in);
+    if (length < 0 || length > in.limit() - pos)
+      throw new IOException("Malformed data. Invalid length: " + length);
+    return (int) length;
+  }
+
+  private int readInt(ByteBuffer in) throws IOException {
+    int n = 0;
+    for (int shift = 0; shift < 32; shift += 7) {
+      int b = in.get(pos++);
+      n |= (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        return (n >>> 1) ^ -(n & 1); // back to two's-complement
+      }
+    }
+    throw new InvalidNumberEncodingException("Invalid int encoding");
+  }
+
+  private long readLong(ByteBuffer in) throws IOException {
+    long n = 0;
+    for (int shift = 0; shift < 64; shift += 7) {
+      int b = in.get(pos++);
+      n |= (b & 0x7FL) << shift;
+      if ((b & 0x80) == 0) {
+        return (n >>> 1) ^ -(n & 1); // back to two's-complement
+      }
+    }
+    throw new InvalidNumberEncodingException("Invalid long encoding");
+  }
+
+  /**
+   * The values of one field in a batch. Only the arrays for the type of the
+   * field are allocated, and only their first {@link ColumnBatch#size()}
+   * elements are valid.
+   */
+  public static final class Column {
+    private final ColumnBatch batch;
+    private final Field field;
+    private final Schema.Type type;
+    private final int nullBranch;
+    private final int fixedSize;
+    private int[] ints;
+    private long[] longs;
+    private float[] floats;
+    private double[] doubles;
+    private boolean[] booleans;
+    private int[] offsets;
+    private int[] lengths;
+    private long[] nulls;
+
+    Column(ColumnBatch batch, Field field) {
+      this.batch = batch;
+      this.field = field;
+      Schema valueSchema = field.schema();
+      int nullBranch = -1;
+      if (valueSchema.getType() == Schema.Type.UNION) {
+        List<Schema> types = valueSchema.getTypes();
+        Integer index = valueSchema.getIndexNamed(Schema.Type.NULL.getName());
+        if (types.size() != 2 || index == null)
+          throw new IllegalArgumentException("Field " + field.name() + " is a union other than of null and one type");
+        nullBranch = index;
+        valueSchema = types.get(1 - nullBranch);
+      }
+      this.nullBranch = nullBranch;
+      this.type = valueSchema.getType();
+      this.fixedSize = type == Schema.Type.FIXED ? valueSchema.getFixedSize() : 0;
+      switch (type) {
+      case INT:
+      case LONG:
+      case FLOAT:
+      case DOUBLE:
+      case BOOLEAN:
+      case ENUM:
+      case STRING:
+      case BYTES:
+      case FIXED:
+        break;
+      default:
+        throw new IllegalArgumentException("Field " + field.name() + " of type " + type + " has no column form");
+      }
+    }
+
+    void ensureCapacity(int count) {
+      if (nullBranch >= 0 && (nulls == null || nulls.length * 64 < count)) {
+        nulls = new long[(count + 63) >>> 6];
+      }
+      switch (type) {
+      case INT:
+      case ENUM:
+        if (ints == null || ints.length < count)
+          ints = new int[count];
+        break;
+      case LONG:
+        if (longs == null || longs.length < count)
+          longs = new long[count];
+        break;
+      case FLOAT:
+        if (floats == null || floats.length < count)
+          floats = new float[count];
+        break;
+      case DOUBLE:
+        if (doubles == null || doubles.length < count)
+          doubles = new double[count];
+        break;
+      case BOOLEAN:
+        if (booleans == null || booleans.length < count)
+          booleans = new boolean[count];
+        break;
+      default:
+        if (offsets == null || offsets.length < count) {
+          offsets = new int[count];
+          lengths = new int[count];
+        }
+      }
+    }
+
+    public Field getField() {
+      return field;
+    }
+
+    /** Returns the type of the values, or of the non-null branch of a union. */
+    public Schema.Type getType() {
+      return type;
+    }
+
+    /** True if the field is a union with null. */
+    public boolean isNullable() {
+      return nullBranch >= 0;
+    }
+
+    public boolean isNull(int row) {
+      return nullBranch >= 0 && (nulls[row >>> 6] & (1L << row)) != 0;
+    }
+
+    /**
+     * Returns the null bitmap: the bit <code>row % 64</code> of element
+     * <code>row / 64</code> is set if the value of <i>row</i> is null. Null if the
+     * field is not nullable.
+     */
+    public long[] getNulls() {
+      return nulls;
+    }
+
+    /** Returns the values of an int field, or the ordinals of an enum field. */
+    public int[] getInts() {
+      return ints;
+    }
+
+    public long[] getLongs() {
+      return longs;
+    }
+
+    public float[] getFloats() {
+      return floats;
+    }
+
+    public double[] getDoubles() {
+      return doubles;
+    }
+
+    public boolean[] getBooleans() {
+      return booleans;
+    }
+
+    /**
+     * Returns the offsets of string, bytes or fixed values in
+     * {@link ColumnBatch#getBuffer()}.
+     */
+    public int[] getOffsets() {
+      return offsets;
+    }
+
+    /** Returns the lengths of string, bytes or fixed values. */
+    public int[] getLengths() {
+      return lengths;
+    }
+
+    /**
+     * Copies the string value of <i>row</i> into <i>reuse</i>, if not null, and
+     * returns it. Returns null if the value is null.
+     */
+    public Utf8 getUtf8(int row, Utf8 reuse) {
+      if (isNull(row))
+        return null;
+      Utf8 result = reuse != null ? reuse : new Utf8();
+      int length = lengths[row];
+      result.setByteLength(length);
+      ByteBuffer source = batch.getBuffer().duplicate();
+      ((Buffer) source).position(offsets[row]);
+      source.get(result.getBytes(), 0, length);
+      return result;
+    }
+  }
+}
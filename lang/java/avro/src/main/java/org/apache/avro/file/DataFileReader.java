@@ -21,6 +21,7 @@ import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.File;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 
 import org.apache.avro.InvalidAvroMagicException;
@@ -162,6 +163,7 @@ public class DataFileReader<D> extends DataFileStream<D> implements FileReader<D
    * not saved while writing a file, use {@link #sync(long)} instead.
    */
   public void seek(long position) throws IOException {
+    discardPendingBlocks();
     sin.seek(position);
     vin = DecoderFactory.get().binaryDecoder(this.sin, vin);
     datumIn = null;
@@ -238,7 +240,21 @@ public class DataFileReader<D> extends DataFileStream<D> implements FileReader<D
 
   @Override
   protected void blockFinished() throws IOException {
-    blockStart = sin.tell() - vin.inputStream().available();
+    // when decoding in parallel the input is already past blocks read ahead
+    blockStart = isDecodingInParallel() ? decodedBlockEnd : inputPosition();
+  }
+
+  @Override
+  long inputPosition() throws IOException {
+    return sin.tell() - vin.inputStream().available();
+  }
+
+  @Override
+  ByteBuffer viewInput(int length) throws IOException {
+    if (sin.in instanceof SeekableMappedFileInput) {
+      return ((SeekableMappedFileInput) sin.in).view(inputPosition(), length);
+    }
+    return null;
   }
 
   /** Return the last synchronization point before our current position. */
@@ -252,6 +268,10 @@ public class DataFileReader<D> extends DataFileStream<D> implements FileReader<D
     return ((blockStart >= position + SYNC_SIZE) || (blockStart >= sin.length()));
   }
 
+  /**
+   * {@inheritDoc} When decoding in parallel this is past the blocks that have
+   * been read ahead.
+   */
   @Override
   public long tell() throws IOException {
     return sin.tell();
@@ -308,10 +328,10 @@ public class DataFileReader<D> extends DataFileStream<D> implements FileReader<D
       long length = in.length();
       long remaining = length - position;
       if (remaining > skip) {
-        in.seek(skip);
+        in.seek(position + skip);
         return in.tell() - position;
       } else {
-        in.seek(remaining);
+        in.seek(length);
         return in.tell() - position;
       }
     }
@@ -20,9 +20,11 @@ package org.apache.avro.file;
 import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.io.Closeable;
 import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
 import java.util.Arrays;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -31,6 +33,13 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 
 import org.apache.avro.AvroRuntimeException;
 import org.apache.avro.InvalidAvroMagicException;
@@ -80,6 +89,17 @@ public class DataFileStream<D> implements Iterator<D>, Iterable<D>, Closeable {
   byte[] syncBuffer = new byte[DataFileConstants.SYNC_SIZE];
   private Codec codec;
 
+  /** Worker pool for parallel decoding; null unless enabled. */
+  private ExecutorService decodePool;
+  private ThreadLocal<BlockDecoder<D>> blockDecoders;
+  private int readAhead;
+  /** Blocks handed to the worker pool, in file order. */
+  private final ArrayDeque<PendingBlock<D>> pendingBlocks = new ArrayDeque<>();
+  /** Records of the current block when decoding in parallel. */
+  private Iterator<D> decoded;
+  /** Input position just past the current block when decoding in parallel. */
+  long decodedBlockEnd = -1;
+
   /**
    * Construct a reader for an input stream. For file-based input, use
    * {@link DataFileReader}. This will buffer, wrapping with a
@@ -149,6 +169,38 @@ public class DataFileStream<D> implements Iterator<D>, Iterable<D>, Closeable {
     }
   }
 
+  /**
+   * Decompress and decode blocks on a pool of worker threads instead of the
+   * calling thread. Up to {@code 2 * threads} blocks are read ahead using the
+   * sync markers and decoded concurrently; records are still returned in file
+   * order. Since workers run concurrently, each uses its own
+   * {@link DatumReader}, obtained from the given supplier, and its own
+   * {@link Codec}. The reuse argument of {@link #next(Object)} is ignored in
+   * this mode and {@link #nextBlock()} is not supported. The pool is shut down
+   * by {@link #close()}. Must be called before records are read.
+   *
+   * @param threads number of worker threads. Values less than 2 leave decoding
+   *                on the calling thread.
+   * @param readers supplies a datum reader per worker thread, e.g.
+   *                {@code () -> new GenericDatumReader<>(readerSchema)}.
+   */
+  public void setParallelism(int threads, Supplier<DatumReader<D>> readers) {
+    if (decodePool != null)
+      throw new IllegalStateException("Parallel decoding already enabled.");
+    if (blockRemaining != 0 && !availableBlock)
+      throw new IllegalStateException("Not at block start.");
+    if (threads < 2)
+      return;
+    final Schema schema = header.schema;
+    this.blockDecoders = ThreadLocal.withInitial(() -> {
+      DatumReader<D> r = readers.get();
+      r.setSchema(schema);
+      return new BlockDecoder<>(r, resolveCodec());
+    });
+    this.readAhead = 2 * threads;
+    this.decodePool = Executors.newFixedThreadPool(threads, new BlockThreadFactory("block-decoder"));
+  }
+
   /**
    * A handle that can be used to reopen this stream without rereading the head.
    */
@@ -201,6 +253,9 @@ public class DataFileStream<D> implements Iterator<D>, Iterable<D>, Closeable {
   @Override
   public boolean hasNext() {
     try {
+      if (decodePool != null) {
+        return hasNextDecoded();
+      }
       if (blockRemaining == 0) {
         // check that the previous block was finished
         if (null != datumIn) {
@@ -210,11 +265,16 @@ public class DataFileStream<D> implements Iterator<D>, Iterable<D>, Closeable {
           }
         }
         if (hasNextBlock()) {
-          block = nextRawBlock(block);
-          block.decompressUsing(codec);
-          blockBuffer = block.getAsByteBuffer();
-          datumIn = DecoderFactory.get().binaryDecoder(blockBuffer.array(),
-              blockBuffer.arrayOffset() + blockBuffer.position(), blockBuffer.remaining(), datumIn);
+          ByteBuffer view = codec instanceof NullCodec ? nextBlockView() : null;
+          if (view != null) {
+            // uncompressed and directly addressable: decode in place
+            blockBuffer = view;
+          } else {
+            block = nextRawBlock(block);
+            block.decompressUsing(codec);
+            blockBuffer = block.getAsByteBuffer();
+          }
+          datumIn = DecoderFactory.get().binaryDecoder(blockBuffer, datumIn);
         }
       }
       return blockRemaining != 0;
@@ -248,15 +308,21 @@ public class DataFileStream<D> implements Iterator<D>, Iterable<D>, Closeable {
   public D next(D reuse) throws IOException {
     if (!hasNext())
       throw new NoSuchElementException();
-    D result = reader.read(reuse, datumIn);
+    D result = decodePool != null ? decoded.next() : reader.read(reuse, datumIn);
     if (0 == --blockRemaining) {
       blockFinished();
     }
     return result;
   }
 
-  /** Expert: Return the next block in the file, as binary-encoded data. */
+  /**
+   * Expert: Return the next block in the file, as binary-encoded data. The
+   * buffer is not backed by an array when reading uncompressed blocks from a
+   * {@link SeekableMappedFileInput}.
+   */
   public ByteBuffer nextBlock() throws IOException {
+    if (decodePool != null)
+      throw new UnsupportedOperationException("Not supported when decoding in parallel.");
     if (!hasNext())
       throw new NoSuchElementException();
     if (blockRemaining != blockCount)
@@ -266,6 +332,24 @@ public class DataFileStream<D> implements Iterator<D>, Iterable<D>, Closeable {
     return blockBuffer;
   }
 
+  /**
+   * Decodes the records of the next block into the columns of <i>batch</i>,
+   * without creating record objects. Must be called at the start of a block,
+   * i.e. before any record of the block was read with {@link #next()}. Batches
+   * cannot be read while decoding in parallel.
+   *
+   * @return false if no more blocks remain in the file
+   * @see ColumnBatch
+   */
+  public boolean nextBatch(ColumnBatch batch) throws IOException {
+    if (!hasNext())
+      return false;
+    long count = blockCount;
+    batch.decode(nextBlock(), (int) count);
+    blockFinished();
+    return true;
+  }
+
   /** Expert: Return the count of items in the current block. */
   public long getBlockCount() {
     return blockCount;
@@ -320,6 +404,76 @@ public class DataFileStream<D> implements Iterator<D>, Iterable<D>, Closeable {
     return reuse;
   }
 
+  /**
+   * Returns the data of the next block as a view of the input, without copying
+   * it, or null if the input does not support this. Consumes the block and its
+   * sync marker when a view is returned.
+   */
+  private ByteBuffer nextBlockView() throws IOException {
+    ByteBuffer view = viewInput((int) blockSize);
+    if (view != null) {
+      vin.skipFixed((int) blockSize);
+      vin.readFixed(syncBuffer);
+      availableBlock = false;
+      if (!Arrays.equals(syncBuffer, header.sync))
+        throw new IOException("Invalid sync!");
+    }
+    return view;
+  }
+
+  /**
+   * Returns a view of the next <i>length</i> bytes of input without consuming
+   * them, or null if the input cannot provide one.
+   */
+  ByteBuffer viewInput(int length) throws IOException {
+    return null;
+  }
+
+  /**
+   * Position of the underlying input just past the last raw block read, or -1
+   * if not known.
+   */
+  long inputPosition() throws IOException {
+    return -1;
+  }
+
+  /** Read and decode blocks in parallel, switching to the next when exhausted. */
+  private boolean hasNextDecoded() throws IOException {
+    if (blockRemaining == 0) {
+      // top up the pipeline before the counts of the next block are taken, as
+      // hasNextBlock() overwrites them
+      while (pendingBlocks.size() < readAhead && hasNextBlock()) {
+        final DataBlock raw = nextRawBlock(null);
+        final ThreadLocal<BlockDecoder<D>> decoders = blockDecoders;
+        Future<List<D>> records = decodePool.submit(() -> decoders.get().decode(raw));
+        pendingBlocks.add(new PendingBlock<>(records, raw.getNumEntries(), raw.getBlockSize(), inputPosition()));
+      }
+      PendingBlock<D> block = pendingBlocks.poll();
+      if (block == null) {
+        return false;
+      }
+      decoded = block.await().iterator();
+      blockCount = blockRemaining = block.numEntries;
+      blockSize = block.blockSize;
+      decodedBlockEnd = block.end;
+    }
+    return blockRemaining != 0;
+  }
+
+  /** Cancel blocks read ahead, e.g. before repositioning the input. */
+  void discardPendingBlocks() {
+    for (PendingBlock<D> block : pendingBlocks) {
+      block.records.cancel(true);
+    }
+    pendingBlocks.clear();
+    decoded = null;
+    decodedBlockEnd = -1;
+  }
+
+  boolean isDecodingInParallel() {
+    return decodePool != null;
+  }
+
   /** Not supported. */
   @Override
   public void remove() {
@@ -329,9 +483,89 @@ public class DataFileStream<D> implements Iterator<D>, Iterable<D>, Closeable {
   /** Close this reader. */
   @Override
   public void close() throws IOException {
+    if (decodePool != null) {
+      discardPendingBlocks();
+      decodePool.shutdownNow();
+    }
     vin.inputStream().close();
   }
 
+  /** Per-thread state of a worker decoding blocks. */
+  private static class BlockDecoder<D> {
+    private final DatumReader<D> reader;
+    private final Codec codec;
+    private BinaryDecoder in;
+
+    BlockDecoder(DatumReader<D> reader, Codec codec) {
+      this.reader = reader;
+      this.codec = codec;
+    }
+
+    List<D> decode(DataBlock block) throws IOException {
+      block.decompressUsing(codec);
+      ByteBuffer buffer = block.getAsByteBuffer();
+      in = DecoderFactory.get().binaryDecoder(buffer.array(), buffer.arrayOffset() + buffer.position(),
+          buffer.remaining(), in);
+      List<D> records = new ArrayList<>((int) block.getNumEntries());
+      for (long i = 0; i < block.getNumEntries(); i++) {
+        records.add(reader.read(null, in));
+      }
+      if (!in.isEnd()) {
+        throw new IOException("Block read partially, the data may be corrupt");
+      }
+      return records;
+    }
+  }
+
+  /** A block read ahead and submitted for decoding. */
+  private static class PendingBlock<D> {
+    private final Future<List<D>> records;
+    private final long numEntries;
+    private final int blockSize;
+    private final long end;
+
+    PendingBlock(Future<List<D>> records, long numEntries, int blockSize, long end) {
+      this.records = records;
+      this.numEntries = numEntries;
+      this.blockSize = blockSize;
+      this.end = end;
+    }
+
+    List<D> await() throws IOException {
+      try {
+        return records.get();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException("Interrupted while decoding block");
+      } catch (ExecutionException e) {
+        Throwable cause = e.getCause();
+        if (cause instanceof IOException)
+          throw (IOException) cause;
+        if (cause instanceof RuntimeException)
+          throw (RuntimeException) cause;
+        throw new AvroRuntimeException(cause);
+      }
+    }
+  }
+
+  /** Creates the daemon threads of the block decoding and compression pools. */
+  static class BlockThreadFactory implements ThreadFactory {
+    private static final AtomicInteger POOL_NUMBER = new AtomicInteger();
+    private final String prefix;
+    private final AtomicInteger threadNumber = new AtomicInteger();
+
+    BlockThreadFactory(String name) {
+      this.prefix = "avro-" + name + "-" + POOL_NUMBER.incrementAndGet() + "-";
+    }
+
+    @Override
+    public Thread newThread(Runnable r) {
+      Thread t = new Thread(r, prefix + threadNumber.incrementAndGet());
+      t.setDaemon(true);
+      return t;
+    }
+  }
+
   static class DataBlock {
     private byte[] data;
     private long numEntries;
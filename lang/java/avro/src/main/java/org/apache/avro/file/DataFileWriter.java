@@ -26,17 +26,24 @@ import java.io.File;
 import java.io.FilterOutputStream;
 import java.io.Flushable;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.apache.avro.AvroRuntimeException;
 import org.apache.avro.Schema;
+import org.apache.avro.file.DataFileStream.BlockThreadFactory;
 import org.apache.avro.file.DataFileStream.DataBlock;
 import org.apache.avro.generic.GenericDatumReader;
 import org.apache.avro.io.BinaryEncoder;
@@ -75,9 +82,19 @@ public class DataFileWriter<D> implements Closeable, Flushable {
 
   private boolean isOpen;
   private Codec codec;
+  private CodecFactory codecFactory;
 
   private boolean flushOnEveryBlock = true;
 
+  private int parallelism = 1;
+  /** Worker pool for parallel compression; null unless enabled. */
+  private ExecutorService compressPool;
+  private ThreadLocal<Codec> compressors;
+  /** Blocks handed to the worker pool, in file order. */
+  private final ArrayDeque<PendingBlock> pendingBlocks = new ArrayDeque<>();
+  /** Block buffers no longer referenced by a pending block. */
+  private final ArrayDeque<NonCopyingByteArrayOutputStream> freeBuffers = new ArrayDeque<>();
+
   /** Construct a writer, not yet open. */
   public DataFileWriter(DatumWriter<D> dout) {
     this.dout = dout;
@@ -99,11 +116,31 @@ public class DataFileWriter<D> implements Closeable, Flushable {
    */
   public DataFileWriter<D> setCodec(CodecFactory c) {
     assertNotOpen();
+    this.codecFactory = c;
     this.codec = c.createInstance();
     setMetaInternal(DataFileConstants.CODEC, codec.getName());
     return this;
   }
 
+  /**
+   * Compress blocks on a pool of worker threads instead of the thread calling
+   * {@link #append(Object)}. Full blocks are queued for compression, each worker
+   * using its own {@link Codec}, and are written to the output in order. At most
+   * {@code 2 * threads} blocks are queued before appending waits for the oldest
+   * one to be written. {@link #sync()}, {@link #flush()}, {@link #fSync()} and
+   * {@link #close()} first write all queued blocks. May not be reset after writes
+   * have begun.
+   *
+   * @param threads number of worker threads. Values less than 2 compress on the
+   *                calling thread, which is the default.
+   * @return this DataFileWriter
+   */
+  public DataFileWriter<D> setParallelism(int threads) {
+    assertNotOpen();
+    this.parallelism = threads;
+    return this;
+  }
+
   /**
    * Set the synchronization interval for this file, in bytes. Valid values range
    * from 32 to 2^30 Suggested values are between 2K and 2M
@@ -224,10 +261,11 @@ public class DataFileWriter<D> implements Closeable, Flushable {
     byte[] codecBytes = this.meta.get(DataFileConstants.CODEC);
     if (codecBytes != null) {
       String strCodec = new String(codecBytes, StandardCharsets.UTF_8);
-      this.codec = CodecFactory.fromString(strCodec).createInstance();
+      this.codecFactory = CodecFactory.fromString(strCodec);
     } else {
-      this.codec = CodecFactory.nullCodec().createInstance();
+      this.codecFactory = CodecFactory.nullCodec();
     }
+    this.codec = codecFactory.createInstance();
 
     init(out);
 
@@ -240,14 +278,24 @@ public class DataFileWriter<D> implements Closeable, Flushable {
     EncoderFactory efactory = new EncoderFactory();
     this.vout = efactory.directBinaryEncoder(out, null);
     dout.setSchema(schema);
-    buffer = new NonCopyingByteArrayOutputStream(Math.min((int) (syncInterval * 1.25), Integer.MAX_VALUE / 2 - 1));
+    buffer = newBlockBuffer();
     this.bufOut = efactory.directBinaryEncoder(buffer, null);
     if (this.codec == null) {
-      this.codec = CodecFactory.nullCodec().createInstance();
+      this.codecFactory = CodecFactory.nullCodec();
+      this.codec = codecFactory.createInstance();
+    }
+    if (parallelism > 1) {
+      final CodecFactory factory = codecFactory;
+      this.compressors = ThreadLocal.withInitial(factory::createInstance);
+      this.compressPool = Executors.newFixedThreadPool(parallelism, new BlockThreadFactory("block-compressor"));
     }
     this.isOpen = true;
   }
 
+  private NonCopyingByteArrayOutputStream newBlockBuffer() {
+    return new NonCopyingByteArrayOutputStream(Math.min((int) (syncInterval * 1.25), Integer.MAX_VALUE / 2 - 1));
+  }
+
   private static byte[] generateSync() {
     try {
       MessageDigest digester = MessageDigest.getInstance("MD5");
@@ -379,6 +427,7 @@ public class DataFileWriter<D> implements Closeable, Flushable {
     }
     // flush anything written so far
     writeBlock();
+    writePendingBlocks(0);
     Codec otherCodec = otherFile.resolveCodec();
     DataBlock nextBlockRaw = null;
     if (codec.equals(otherCodec) && !recompress) {
@@ -398,6 +447,10 @@ public class DataFileWriter<D> implements Closeable, Flushable {
   }
 
   private void writeBlock() throws IOException {
+    if (compressPool != null) {
+      queueBlock();
+      return;
+    }
     if (blockCount > 0) {
       try {
         bufOut.flush();
@@ -413,6 +466,42 @@ public class DataFileWriter<D> implements Closeable, Flushable {
     }
   }
 
+  /** Hand the current block to the compression pool and start a new one. */
+  private void queueBlock() throws IOException {
+    if (blockCount > 0) {
+      bufOut.flush();
+      final DataBlock block = new DataBlock(buffer.getByteArrayAsByteBuffer(), blockCount);
+      block.setFlushOnWrite(flushOnEveryBlock);
+      final ThreadLocal<Codec> codecs = compressors;
+      Future<DataBlock> compressed = compressPool.submit(() -> {
+        block.compressUsing(codecs.get());
+        return block;
+      });
+      // the block may still reference the buffer, e.g. with the null codec
+      pendingBlocks.add(new PendingBlock(compressed, buffer));
+      buffer = freeBuffers.isEmpty() ? newBlockBuffer() : freeBuffers.poll();
+      bufOut = EncoderFactory.get().directBinaryEncoder(buffer, bufOut);
+      blockCount = 0;
+      writePendingBlocks(2 * parallelism);
+    }
+  }
+
+  /**
+   * Write queued blocks in order until no more than {@code limit} remain, also
+   * writing any further blocks whose compression has already completed.
+   */
+  private void writePendingBlocks(int limit) throws IOException {
+    while (!pendingBlocks.isEmpty() && (pendingBlocks.size() > limit || pendingBlocks.peek().block.isDone())) {
+      PendingBlock pending = pendingBlocks.poll();
+      try {
+        pending.await().writeBlockTo(vout, sync);
+      } finally {
+        pending.buffer.reset();
+        freeBuffers.add(pending.buffer);
+      }
+    }
+  }
+
   /**
    * Return the current position as a value that may be passed to
    * {@link DataFileReader#seek(long)}. Forces the end of the current block,
@@ -426,6 +515,7 @@ public class DataFileWriter<D> implements Closeable, Flushable {
   public long sync() throws IOException {
     assertOpen();
     writeBlock();
+    writePendingBlocks(0);
     return out.tell();
   }
 
@@ -457,12 +547,50 @@ public class DataFileWriter<D> implements Closeable, Flushable {
   @Override
   public void close() throws IOException {
     if (isOpen) {
-      flush();
-      out.close();
+      try {
+        flush();
+        out.close();
+      } finally {
+        if (compressPool != null) {
+          for (PendingBlock pending : pendingBlocks) {
+            pending.block.cancel(true);
+          }
+          pendingBlocks.clear();
+          compressPool.shutdownNow();
+          compressPool = null;
+        }
+      }
       isOpen = false;
     }
   }
 
+  /** A block submitted for compression, with the buffer holding its data. */
+  private static class PendingBlock {
+    private final Future<DataBlock> block;
+    private final NonCopyingByteArrayOutputStream buffer;
+
+    PendingBlock(Future<DataBlock> block, NonCopyingByteArrayOutputStream buffer) {
+      this.block = block;
+      this.buffer = buffer;
+    }
+
+    DataBlock await() throws IOException {
+      try {
+        return block.get();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException("Interrupted while compressing block");
+      } catch (ExecutionException e) {
+        Throwable cause = e.getCause();
+        if (cause instanceof IOException)
+          throw (IOException) cause;
+        if (cause instanceof RuntimeException)
+          throw (RuntimeException) cause;
+        throw new AvroRuntimeException(cause);
+      }
+    }
+  }
+
   private class BufferedFileOutputStream extends BufferedOutputStream {
     private long position; // start of buffer
 
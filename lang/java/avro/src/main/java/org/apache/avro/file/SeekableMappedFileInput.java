@@ -0,0 +1,148 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.avro.file;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A {@link SeekableInput} backed by a memory-mapped file. Files larger than
+ * 2GB are mapped in several chunks.
+ * <p/>
+ * Reads are copies out of the mapping and need no system calls.
+ * {@link DataFileReader} additionally decodes blocks written without
+ * compression straight from the mapping, see {@link #view(long, int)}.
+ * <p/>
+ * The mapping stays valid after {@link #close()} until it is garbage
+ * collected, so buffers returned by {@link #view(long, int)} remain readable.
+ * Mapped files should not be truncated while in use.
+ */
+public class SeekableMappedFileInput extends InputStream implements SeekableInput {
+  private static final int DEFAULT_CHUNK_SIZE = Integer.MAX_VALUE;
+
+  private final int chunkSize;
+  private final long length;
+  private MappedByteBuffer[] chunks;
+  private long position;
+
+  public SeekableMappedFileInput(File file) throws IOException {
+    this(file, DEFAULT_CHUNK_SIZE);
+  }
+
+  SeekableMappedFileInput(File file, int chunkSize) throws IOException {
+    this.chunkSize = chunkSize;
+    try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+      this.length = channel.size();
+      int count = (int) ((length + chunkSize - 1) / chunkSize);
+      this.chunks = new MappedByteBuffer[count];
+      for (int i = 0; i < count; i++) {
+        long start = (long) i * chunkSize;
+        chunks[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(chunkSize, length - start));
+      }
+    }
+  }
+
+  /**
+   * Returns a read-only view of <i>len</i> bytes of the file starting at
+   * <i>position</i>, without copying them, or null if the range spans two
+   * chunks. The position of this input is not changed.
+   */
+  public ByteBuffer view(long position, int len) throws IOException {
+    if (position < 0 || len < 0 || position + len > length)
+      throw new IOException("Range outside of file: " + position + "+" + len);
+    int chunk = (int) (position / chunkSize);
+    int offset = (int) (position % chunkSize);
+    ByteBuffer mapped = chunks()[chunk];
+    if (offset + len > mapped.capacity())
+      return null;
+    ByteBuffer view = mapped.asReadOnlyBuffer();
+    ((Buffer) view).position(offset).limit(offset + len);
+    return view.slice();
+  }
+
+  @Override
+  public void seek(long p) throws IOException {
+    if (p < 0)
+      throw new IOException("Illegal seek: " + p);
+    position = p;
+  }
+
+  @Override
+  public long tell() throws IOException {
+    return position;
+  }
+
+  @Override
+  public long length() throws IOException {
+    return length;
+  }
+
+  @Override
+  public int read() throws IOException {
+    if (position >= length)
+      return -1;
+    int b = chunks()[(int) (position / chunkSize)].get((int) (position % chunkSize)) & 0xff;
+    position++;
+    return b;
+  }
+
+  @Override
+  public int read(byte[] b, int off, int len) throws IOException {
+    if (len == 0)
+      return 0;
+    if (position >= length)
+      return -1;
+    ByteBuffer mapped = chunks()[(int) (position / chunkSize)].duplicate();
+    int offset = (int) (position % chunkSize);
+    int n = Math.min(len, mapped.capacity() - offset);
+    ((Buffer) mapped).position(offset);
+    mapped.get(b, off, n);
+    position += n;
+    return n;
+  }
+
+  @Override
+  public long skip(long n) throws IOException {
+    long skipped = Math.max(0, Math.min(n, length - position));
+    position += skipped;
+    return skipped;
+  }
+
+  @Override
+  public int available() throws IOException {
+    long remaining = length - position;
+    return (remaining > Integer.MAX_VALUE) ? Integer.MAX_VALUE : (int) remaining;
+  }
+
+  @Override
+  public void close() throws IOException {
+    chunks = null;
+  }
+
+  private MappedByteBuffer[] chunks() throws IOException {
+    if (chunks == null)
+      throw new IOException("Stream closed");
+    return chunks;
+  }
+}
@@ -0,0 +1,228 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.avro.generic;
+
+import java.lang.ref.WeakReference;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.avro.AvroRuntimeException;
+import org.apache.avro.LogicalType;
+import org.apache.avro.Schema;
+import org.apache.avro.Schema.Field;
+import org.apache.avro.UnresolvedUnionException;
+import org.apache.avro.specific.SpecificData;
+import org.apache.avro.util.Utf8;
+
+/**
+ * Compares datums of a schema as {@link GenericData#compare(Object, Object,
+ * Schema)} does, following a plan computed once for the schema: fields with
+ * {@link Field.Order#IGNORE} are dropped and the comparison of each type and
+ * sort order is resolved when the comparator is built.
+ * <p/>
+ * Values are accessed through the data model, so the comparator is only built
+ * for {@link GenericData} and {@link org.apache.avro.specific.SpecificData},
+ * which do not otherwise change how values are compared.
+ * <p/>
+ * The comparator keeps no strong reference to its schema, which may be
+ * recursive, so that it can be cached by the schema, see
+ * {@link GenericData#getComparator(Schema)}.
+ */
+final class GenericComparator implements Comparator<Object> {
+  private final Step step;
+
+  GenericComparator(GenericData data, Schema schema) {
+    this.step = compile(data, schema, new IdentityHashMap<>());
+  }
+
+  @Override
+  public int compare(Object o1, Object o2) {
+    return step.compare(o1, o2);
+  }
+
+  /** Compares two values of a schema. */
+  private interface Step {
+    int compare(Object o1, Object o2);
+  }
+
+  /** Compares the fields of a record, in order; may be recursive. */
+  private static class RecordStep implements Step {
+    private final GenericData data;
+    private String[] names;
+    private int[] positions;
+    private Step[] fields;
+    private boolean[] descending;
+
+    RecordStep(GenericData data) {
+      this.data = data;
+    }
+
+    @Override
+    public int compare(Object o1, Object o2) {
+      if (o1 == o2)
+        return 0;
+      for (int i = 0; i < fields.length; i++) {
+        int c = fields[i].compare(data.getField(o1, names[i], positions[i]), data.getField(o2, names[i], positions[i]));
+        if (c != 0)
+          return descending[i] ? -c : c;
+      }
+      return 0;
+    }
+  }
+
+  @SuppressWarnings({ "unchecked", "rawtypes" })
+  private static Step compile(GenericData data, Schema schema, Map<Schema, RecordStep> records) {
+    switch (schema.getType()) {
+    case RECORD: {
+      RecordStep record = records.get(schema);
+      if (record == null) {
+        record = new RecordStep(data);
+        records.put(schema, record);
+        int count = 0;
+        for (Field field : schema.getFields()) {
+          if (field.order() != Field.Order.IGNORE)
+            count++;
+        }
+        String[] names = new String[count];
+        int[] positions = new int[count];
+        Step[] fields = new Step[count];
+        boolean[] descending = new boolean[count];
+        int i = 0;
+        for (Field field : schema.getFields()) {
+          if (field.order() == Field.Order.IGNORE)
+            continue; // ignore this field
+          names[i] = field.name();
+          positions[i] = field.pos();
+          fields[i] = compile(data, field.schema(), records);
+          descending[i] = field.order() == Field.Order.DESCENDING;
+          i++;
+        }
+        record.names = names;
+        record.positions = positions;
+        record.fields = fields;
+        record.descending = descending;
+      }
+      return record;
+    }
+    case ENUM: {
+      // as the data model: specific enums by ordinal, others by symbol
+      boolean specific = data instanceof SpecificData;
+      Map<String, Integer> ordinals = new HashMap<>();
+      for (String symbol : schema.getEnumSymbols()) {
+        ordinals.put(symbol, schema.getEnumOrdinal(symbol));
+      }
+      return (o1, o2) -> {
+        if (o1 == o2)
+          return 0;
+        if (specific && o1 instanceof Enum)
+          return ((Enum) o1).ordinal() - ((Enum) o2).ordinal();
+        return ordinals.get(o1.toString()) - ordinals.get(o2.toString());
+      };
+    }
+    case ARRAY: {
+      Step element = compile(data, schema.getElementType(), records);
+      return (o1, o2) -> {
+        if (o1 == o2)
+          return 0;
+        Iterator e1 = ((Collection) o1).iterator();
+        Iterator e2 = ((Collection) o2).iterator();
+        while (e1.hasNext() && e2.hasNext()) {
+          int c = element.compare(e1.next(), e2.next());
+          if (c != 0)
+            return c;
+        }
+        return e1.hasNext() ? 1 : (e2.hasNext() ? -1 : 0);
+      };
+    }
+    case MAP:
+      return (o1, o2) -> {
+        if (o1 == o2)
+          return 0;
+        throw new AvroRuntimeException("Can't compare maps!");
+      };
+    case UNION: {
+      List<Schema> types = schema.getTypes();
+      Step[] branches = new Step[types.size()];
+      for (int i = 0; i < branches.length; i++) {
+        branches[i] = compile(data, types.get(i), records);
+      }
+      UnionResolver resolver = new UnionResolver(data, schema);
+      return (o1, o2) -> {
+        if (o1 == o2)
+          return 0;
+        int i1 = resolver.resolve(o1);
+        int i2 = resolver.resolve(o2);
+        return (i1 == i2) ? branches[i1].compare(o1, o2) : Integer.compare(i1, i2);
+      };
+    }
+    case NULL:
+      return (o1, o2) -> 0;
+    case STRING:
+      return (o1, o2) -> {
+        if (o1 == o2)
+          return 0;
+        Utf8 u1 = o1 instanceof Utf8 ? (Utf8) o1 : new Utf8(o1.toString());
+        Utf8 u2 = o2 instanceof Utf8 ? (Utf8) o2 : new Utf8(o2.toString());
+        return u1.compareTo(u2);
+      };
+    default:
+      return (o1, o2) -> o1 == o2 ? 0 : ((Comparable) o1).compareTo(o2);
+    }
+  }
+
+  /**
+   * Resolves the branches of a union as
+   * {@link GenericData#resolveUnion(Schema, Object)}, from the branch names and
+   * logical types rather than the union schema.
+   */
+  private static class UnionResolver {
+    private final GenericData data;
+    private final LogicalType[] logicalTypes;
+    private final Map<String, Integer> indexByName = new HashMap<>();
+    private final WeakReference<Schema> union; // only to report failures
+
+    UnionResolver(GenericData data, Schema union) {
+      this.data = data;
+      List<Schema> types = union.getTypes();
+      this.logicalTypes = new LogicalType[types.size()];
+      for (int i = 0; i < logicalTypes.length; i++) {
+        logicalTypes[i] = types.get(i).getLogicalType();
+        indexByName.put(types.get(i).getFullName(), i);
+      }
+      this.union = new WeakReference<>(union);
+    }
+
+    int resolve(Object datum) {
+      if (datum != null) {
+        for (int i = 0; i < logicalTypes.length; i++) {
+          if (logicalTypes[i] != null && data.getConversionByClass(datum.getClass(), logicalTypes[i]) != null)
+            return i;
+        }
+      }
+      Integer i = indexByName.get(data.getSchemaName(datum));
+      if (i != null)
+        return i;
+      throw new UnresolvedUnionException(union.get(), datum);
+    }
+  }
+}
@@ -27,6 +27,7 @@ import java.util.AbstractList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.IdentityHashMap;
 import java.util.Iterator;
@@ -54,7 +55,10 @@ import org.apache.avro.io.DatumWriter;
 import org.apache.avro.io.DecoderFactory;
 import org.apache.avro.io.EncoderFactory;
 import org.apache.avro.io.FastReaderBuilder;
+import org.apache.avro.io.FastWriterBuilder;
+import org.apache.avro.util.StringDictionary;
 import org.apache.avro.util.Utf8;
+import org.apache.avro.util.WeakIdentityHashMap;
 import org.apache.avro.util.internal.Accessor;
 
 import com.fasterxml.jackson.databind.JsonNode;
@@ -195,11 +199,157 @@ public class GenericData {
 
   public FastReaderBuilder getFastReaderBuilder() {
     if (fastReaderBuilder == null) {
-      fastReaderBuilder = new FastReaderBuilder(this);
+      fastReaderBuilder = new FastReaderBuilder(this).withCompiledRecordsEnabled(compiledRecordsEnabled);
     }
     return this.fastReaderBuilder;
   }
 
+  public static final String FAST_WRITER_PROP = "org.apache.avro.fastwrite";
+  private boolean fastWriterEnabled = "true".equalsIgnoreCase(System.getProperty(FAST_WRITER_PROP));
+  private FastWriterBuilder fastWriterBuilder = null;
+
+  /**
+   * Enables writing through {@link FastWriterBuilder}, the counterpart of the
+   * fast reader, which resolves the way each value is written once per schema.
+   */
+  public GenericData setFastWriterEnabled(boolean flag) {
+    this.fastWriterEnabled = flag;
+    return this;
+  }
+
+  public boolean isFastWriterEnabled() {
+    return fastWriterEnabled && FastWriterBuilder.isSupportedData(this);
+  }
+
+  public FastWriterBuilder getFastWriterBuilder() {
+    if (fastWriterBuilder == null) {
+      fastWriterBuilder = new FastWriterBuilder(this);
+    }
+    return this.fastWriterBuilder;
+  }
+
+  public static final String COMPILED_RECORDS_PROP = "org.apache.avro.compiledrecords";
+  private boolean compiledRecordsEnabled = "true".equalsIgnoreCase(System.getProperty(COMPILED_RECORDS_PROP));
+
+  /**
+   * Enables compiled records. Records are then read and written following a
+   * flat program computed once per schema, or pair of schemas when reading,
+   * which handles fields of primitive types inline. Reading uses the fast reader
+   * (see {@link #setFastReaderEnabled(boolean)}), extended with
+   * {@link FastReaderBuilder#withCompiledRecordsEnabled(boolean)}.
+   * <p/>
+   * Only supported by {@link GenericData} and
+   * {@link org.apache.avro.specific.SpecificData}. Primitive fields are written
+   * without calling
+   * {@link GenericDatumWriter#write(Schema, Object, org.apache.avro.io.Encoder)},
+   * so subclasses of {@link GenericDatumWriter} that override how primitive
+   * values are written should not be used with compiled records.
+   */
+  public GenericData setCompiledRecordsEnabled(boolean flag) {
+    this.compiledRecordsEnabled = flag;
+    if (fastReaderBuilder != null) {
+      fastReaderBuilder.withCompiledRecordsEnabled(flag);
+    }
+    return this;
+  }
+
+  public boolean isCompiledRecordsEnabled() {
+    return compiledRecordsEnabled && FastReaderBuilder.isSupportedData(this);
+  }
+
+  public static final String COMPILED_COMPARE_PROP = "org.apache.avro.compiledcompare";
+  private boolean compiledCompareEnabled = "true".equalsIgnoreCase(System.getProperty(COMPILED_COMPARE_PROP));
+  private final WeakIdentityHashMap<Schema, Comparator<Object>> comparatorCache = new WeakIdentityHashMap<>();
+
+  /**
+   * Makes {@link #compare(Object, Object, Schema)} use the comparator of the
+   * schema returned by {@link #getComparator(Schema)}, which follows a plan
+   * computed once per schema rather than interpreting the schema on each call.
+   * The same property also enables compiled comparison in
+   * {@link BinaryData#compare(byte[], int, int, byte[], int, int, Schema)}.
+   */
+  public GenericData setCompiledCompareEnabled(boolean flag) {
+    this.compiledCompareEnabled = flag;
+    return this;
+  }
+
+  public boolean isCompiledCompareEnabled() {
+    return compiledCompareEnabled && FastReaderBuilder.isSupportedData(this);
+  }
+
+  /**
+   * Returns a comparator of datums of a schema, ordering them as
+   * {@link #compare(Object, Object, Schema)}, e.g. to sort records in memory.
+   * Comparators are cached by schema identity. Unless this is a
+   * {@link GenericData} or {@link org.apache.avro.specific.SpecificData}, the
+   * comparator calls {@link #compare(Object, Object, Schema)} and is not cached.
+   */
+  public Comparator<Object> getComparator(Schema schema) {
+    if (!FastReaderBuilder.isSupportedData(this)) {
+      // nothing to compile, and a cached comparator would hold its key
+      return (o1, o2) -> compare(o1, o2, schema);
+    }
+    return comparatorCache.computeIfAbsent(schema, s -> new GenericComparator(this, s));
+  }
+
+  /**
+   * The property of string schemas that, when "true", makes readers return the
+   * canonical instances of a {@link StringDictionary} for their values.
+   */
+  public static final String STRING_INTERN_PROP = "avro.java.string.intern";
+  private boolean stringInterningEnabled = false;
+  private volatile StringDictionary stringDictionary = null;
+
+  /**
+   * Makes readers return canonical instances, from
+   * {@link #getStringDictionary()}, for the values of all string schemas, rather
+   * than only for those with {@link #STRING_INTERN_PROP}. Readers then never
+   * reuse the {@link Utf8} instances passed to them.
+   */
+  public GenericData setStringInterningEnabled(boolean flag) {
+    this.stringInterningEnabled = flag;
+    clearFastReaders();
+    return this;
+  }
+
+  public boolean isStringInterningEnabled() {
+    return stringInterningEnabled;
+  }
+
+  /** True if the values of a string schema are read through the dictionary. */
+  public boolean isStringInterned(Schema schema) {
+    return stringInterningEnabled || "true".equals(schema.getProp(STRING_INTERN_PROP));
+  }
+
+  /** Returns the dictionary strings are interned in, creating it if needed. */
+  public StringDictionary getStringDictionary() {
+    StringDictionary dictionary = stringDictionary;
+    if (dictionary == null) {
+      synchronized (this) {
+        dictionary = stringDictionary;
+        if (dictionary == null) {
+          dictionary = stringDictionary = new StringDictionary();
+        }
+      }
+    }
+    return dictionary;
+  }
+
+  /** Replaces the dictionary strings are interned in, e.g. to size it. */
+  public synchronized GenericData setStringDictionary(StringDictionary dictionary) {
+    this.stringDictionary = dictionary;
+    clearFastReaders();
+    return this;
+  }
+
+  // readers built before capture how strings were read, but the builder's
+  // settings must be kept
+  private void clearFastReaders() {
+    if (fastReaderBuilder != null) {
+      fastReaderBuilder.clearCache();
+    }
+  }
+
   /**
    * Default implementation of {@link GenericRecord}. Note that this
    * implementation does not fill in default values for fields if they are not
@@ -1111,6 +1261,8 @@ public class GenericData {
    * of {@link BinaryData#compare(byte[], int, byte[], int, Schema)}.
    */
   public int compare(Object o1, Object o2, Schema s) {
+    if (isCompiledCompareEnabled())
+      return getComparator(s).compare(o1, o2);
     return compare(o1, o2, s, false);
   }
 
@@ -1372,7 +1524,8 @@ public class GenericData {
   /*
    * Called to create new array instances. Subclasses may override to use a
    * different array implementation. By default, this returns a {@link
-   * GenericData.Array}.
+   * GenericData.Array}, or one of the unboxed {@link PrimitivesArrays} for arrays
+   * of int, long, float or double.
    */
   public Object newArray(Object old, int size, Schema schema) {
     if (old instanceof GenericArray) {
@@ -1381,8 +1534,10 @@ public class GenericData {
     } else if (old instanceof Collection) {
       ((Collection<?>) old).clear();
       return old;
-    } else
-      return new GenericData.Array<Object>(size, schema);
+    } else {
+      Object primitives = PrimitivesArrays.newArray(size, schema);
+      return primitives != null ? primitives : new GenericData.Array<Object>(size, schema);
+    }
   }
 
   /**
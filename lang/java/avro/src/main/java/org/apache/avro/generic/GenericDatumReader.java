@@ -34,7 +34,7 @@ import org.apache.avro.Schema;
 import org.apache.avro.Schema.Field;
 import org.apache.avro.io.DatumReader;
 import org.apache.avro.io.Decoder;
-import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.io.ResolverCache;
 import org.apache.avro.io.ResolvingDecoder;
 import org.apache.avro.util.Utf8;
 import org.apache.avro.util.WeakIdentityHashMap;
@@ -110,8 +110,9 @@ public class GenericDatumReader<D> implements DatumReader<D> {
 
   /**
    * Gets a resolving decoder for use by this GenericDatumReader. Unstable API.
-   * Currently uses a thread local cache to prevent constructing the resolvers too
-   * often, because that is very expensive.
+   * Currently uses a thread local cache of decoders, which share the resolvers
+   * cached by {@link ResolverCache#get()}, because constructing resolvers is very
+   * expensive.
    */
   protected final ResolvingDecoder getResolver(Schema actual, Schema expected) throws IOException {
     Thread currThread = Thread.currentThread();
@@ -127,7 +128,7 @@ public class GenericDatumReader<D> implements DatumReader<D> {
     }
     resolver = cache.get(expected);
     if (resolver == null) {
-      resolver = DecoderFactory.get().resolvingDecoder(Schema.applyAliases(actual, expected), expected, null);
+      resolver = ResolverCache.get().resolvingDecoder(actual, expected, null);
       cache.put(expected, resolver);
     }
 
@@ -141,7 +142,7 @@ public class GenericDatumReader<D> implements DatumReader<D> {
   @Override
   @SuppressWarnings("unchecked")
   public D read(D reuse, Decoder in) throws IOException {
-    if (data.isFastReaderEnabled()) {
+    if (data.isFastReaderEnabled() || data.isCompiledRecordsEnabled()) {
       if (this.fastDatumReader == null) {
         this.fastDatumReader = data.getFastReaderBuilder().createDatumReader(actual, expected);
       }
@@ -287,6 +288,10 @@ public class GenericDatumReader<D> implements DatumReader<D> {
       LogicalType logicalType = expectedType.getLogicalType();
       Conversion<?> conversion = getData().getConversionFor(logicalType);
       Object array = newArray(old, (int) l, expected);
+      if (array instanceof PrimitivesArrays.PrimitiveArray && conversion == null
+          && readPrimitiveArray((PrimitivesArrays.PrimitiveArray<?>) array, expectedType, l, in)) {
+        return array;
+      }
       do {
         if (logicalType != null && conversion != null) {
           for (long i = 0; i < l; i++) {
@@ -306,6 +311,46 @@ public class GenericDatumReader<D> implements DatumReader<D> {
     }
   }
 
+  /**
+   * Reads the items of an array of int, long, float or double into its unboxed
+   * representation, starting with a block of <i>l</i> items. Returns false
+   * without reading anything if the array does not match the item type.
+   */
+  private boolean readPrimitiveArray(PrimitivesArrays.PrimitiveArray<?> array, Schema expectedType, long l,
+      ResolvingDecoder in) throws IOException {
+    Schema.Type type = expectedType.getType();
+    if (type == Schema.Type.LONG && array instanceof PrimitivesArrays.LongArray) {
+      PrimitivesArrays.LongArray longs = (PrimitivesArrays.LongArray) array;
+      do {
+        longs.addLongs(in, (int) l);
+      } while ((l = in.arrayNext()) > 0);
+    } else if (type == Schema.Type.DOUBLE && array instanceof PrimitivesArrays.DoubleArray) {
+      PrimitivesArrays.DoubleArray doubles = (PrimitivesArrays.DoubleArray) array;
+      do {
+        doubles.ensureCapacity((int) l);
+        for (long i = 0; i < l; i++) {
+          doubles.addDouble(in.readDouble());
+        }
+      } while ((l = in.arrayNext()) > 0);
+    } else if (type == Schema.Type.INT && array instanceof PrimitivesArrays.IntArray) {
+      PrimitivesArrays.IntArray ints = (PrimitivesArrays.IntArray) array;
+      do {
+        ints.addInts(in, (int) l);
+      } while ((l = in.arrayNext()) > 0);
+    } else if (type == Schema.Type.FLOAT && array instanceof PrimitivesArrays.FloatArray) {
+      PrimitivesArrays.FloatArray floats = (PrimitivesArrays.FloatArray) array;
+      do {
+        floats.ensureCapacity((int) l);
+        for (long i = 0; i < l; i++) {
+          floats.addFloat(in.readFloat());
+        }
+      } while ((l = in.arrayNext()) > 0);
+    } else {
+      return false;
+    }
+    return true;
+  }
+
   private Object pruneArray(Object object) {
     if (object instanceof GenericArray<?>) {
       ((GenericArray<?>) object).prune();
@@ -453,10 +498,10 @@ public class GenericDatumReader<D> implements DatumReader<D> {
   protected Object readString(Object old, Schema expected, Decoder in) throws IOException {
     Class stringClass = getStringClass(expected);
     if (stringClass == String.class) {
-      return in.readString();
+      return data.isStringInterned(expected) ? data.getStringDictionary().readString(in) : in.readString();
     }
     if (stringClass == CharSequence.class) {
-      return readString(old, in);
+      return data.isStringInterned(expected) ? data.getStringDictionary().readUtf8(in) : readString(old, in);
     }
     return newInstanceFromString(stringClass, in.readString());
   }
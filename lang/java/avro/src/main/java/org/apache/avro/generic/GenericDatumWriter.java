@@ -19,7 +19,9 @@ package org.apache.avro.generic;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.Collections;
 import java.util.ConcurrentModificationException;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Objects;
@@ -40,6 +42,9 @@ import org.apache.avro.io.Encoder;
 public class GenericDatumWriter<D> implements DatumWriter<D> {
   private final GenericData data;
   private Schema root;
+  // copied on write, so that writers may be shared between threads
+  private volatile Map<Schema, RecordProgram> programs = Collections.emptyMap();
+  private DatumWriter<D> fastDatumWriter = null;
 
   public GenericDatumWriter() {
     this(GenericData.get());
@@ -66,10 +71,20 @@ public class GenericDatumWriter<D> implements DatumWriter<D> {
 
   public void setSchema(Schema root) {
     this.root = root;
+    this.fastDatumWriter = null;
   }
 
   public void write(D datum, Encoder out) throws IOException {
     Objects.requireNonNull(out, "Encoder cannot be null");
+    if (data.isFastWriterEnabled()) {
+      DatumWriter<D> writer = fastDatumWriter;
+      if (writer == null) {
+        writer = data.getFastWriterBuilder().createDatumWriter(root);
+        fastDatumWriter = writer;
+      }
+      writer.write(datum, out);
+      return;
+    }
     write(root, datum, out);
   }
 
@@ -205,12 +220,119 @@ public class GenericDatumWriter<D> implements DatumWriter<D> {
    * representations.
    */
   protected void writeRecord(Schema schema, Object datum, Encoder out) throws IOException {
+    if (data.isCompiledRecordsEnabled()) {
+      writeCompiledRecord(getRecordProgram(schema), datum, out);
+      return;
+    }
     Object state = data.getRecordState(datum, schema);
     for (Field f : schema.getFields()) {
       writeField(datum, f, out, state);
     }
   }
 
+  private RecordProgram getRecordProgram(Schema schema) {
+    RecordProgram program = programs.get(schema);
+    if (program == null) {
+      program = new RecordProgram(schema);
+      Map<Schema, RecordProgram> updated = new IdentityHashMap<>(programs);
+      updated.put(schema, program);
+      programs = updated;
+    }
+    return program;
+  }
+
+  /**
+   * Writes a record following its program, see
+   * {@link GenericData#setCompiledRecordsEnabled(boolean)}. Fields of primitive
+   * types are written inline, others by {@link #writeField}.
+   */
+  private void writeCompiledRecord(RecordProgram program, Object datum, Encoder out) throws IOException {
+    Object state = data.getRecordState(datum, program.schema);
+    Field[] fields = program.fields;
+    byte[] ops = program.ops;
+    for (int i = 0; i < fields.length; i++) {
+      Field f = fields[i];
+      if (ops[i] == RecordProgram.FIELD) {
+        writeField(datum, f, out, state);
+        continue;
+      }
+      Object value = data.getField(datum, f.name(), f.pos(), state);
+      try {
+        switch (ops[i]) {
+        case RecordProgram.INT:
+          out.writeInt(((Number) value).intValue());
+          break;
+        case RecordProgram.LONG:
+          out.writeLong(((Number) value).longValue());
+          break;
+        case RecordProgram.FLOAT:
+          out.writeFloat(((Number) value).floatValue());
+          break;
+        case RecordProgram.DOUBLE:
+          out.writeDouble(((Number) value).doubleValue());
+          break;
+        case RecordProgram.BOOLEAN:
+          out.writeBoolean((Boolean) value);
+          break;
+        default:
+          writeString(f.schema(), value, out);
+        }
+      } catch (NullPointerException e) {
+        throw npe(e, " in field " + f.name());
+      } catch (ClassCastException cce) {
+        throw addClassCastMsg(cce, " in field " + f.name());
+      } catch (AvroTypeException ate) {
+        throw addAvroTypeMsg(ate, " in field " + f.name());
+      }
+    }
+  }
+
+  /** The fields of a record schema, with how each is written. */
+  private static final class RecordProgram {
+    static final byte FIELD = 0;
+    static final byte INT = 1;
+    static final byte LONG = 2;
+    static final byte FLOAT = 3;
+    static final byte DOUBLE = 4;
+    static final byte BOOLEAN = 5;
+    static final byte STRING = 6;
+
+    final Schema schema;
+    final Field[] fields;
+    final byte[] ops;
+
+    RecordProgram(Schema schema) {
+      this.schema = schema;
+      this.fields = schema.getFields().toArray(new Field[0]);
+      this.ops = new byte[fields.length];
+      for (int i = 0; i < fields.length; i++) {
+        Schema fieldSchema = fields[i].schema();
+        if (fieldSchema.getLogicalType() == null) {
+          ops[i] = op(fieldSchema.getType());
+        }
+      }
+    }
+
+    private static byte op(Schema.Type type) {
+      switch (type) {
+      case INT:
+        return INT;
+      case LONG:
+        return LONG;
+      case FLOAT:
+        return FLOAT;
+      case DOUBLE:
+        return DOUBLE;
+      case BOOLEAN:
+        return BOOLEAN;
+      case STRING:
+        return STRING;
+      default:
+        return FIELD;
+      }
+    }
+  }
+
   /**
    * Called to write a single field of a record. May be overridden for more
    * efficient or alternate implementations.
@@ -248,6 +370,10 @@ public class GenericDatumWriter<D> implements DatumWriter<D> {
    */
   protected void writeArray(Schema schema, Object datum, Encoder out) throws IOException {
     Schema element = schema.getElementType();
+    if (datum instanceof PrimitivesArrays.PrimitiveArray && element.getLogicalType() == null
+        && writePrimitiveArray(element, (PrimitivesArrays.PrimitiveArray<?>) datum, out)) {
+      return;
+    }
     long size = getArraySize(datum);
     long actualSize = 0;
     out.writeArrayStart();
@@ -264,6 +390,26 @@ public class GenericDatumWriter<D> implements DatumWriter<D> {
     }
   }
 
+  /**
+   * Writes the items of an unboxed array of int, long, float or double. Returns
+   * false without writing anything if the array does not match the item type.
+   */
+  private boolean writePrimitiveArray(Schema element, PrimitivesArrays.PrimitiveArray<?> array, Encoder out)
+      throws IOException {
+    Schema.Type type = element.getType();
+    if (!(type == Schema.Type.LONG && array instanceof PrimitivesArrays.LongArray
+        || type == Schema.Type.DOUBLE && array instanceof PrimitivesArrays.DoubleArray
+        || type == Schema.Type.INT && array instanceof PrimitivesArrays.IntArray
+        || type == Schema.Type.FLOAT && array instanceof PrimitivesArrays.FloatArray)) {
+      return false;
+    }
+    out.writeArrayStart();
+    out.setItemCount(array.size());
+    array.writeItems(out);
+    out.writeArrayEnd();
+    return true;
+  }
+
   /**
    * Called to find the index for a datum within a union. By default calls
    * {@link GenericData#resolveUnion(Schema,Object)}.
@@ -0,0 +1,547 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.avro.generic;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import org.apache.avro.Schema;
+import org.apache.avro.io.Decoder;
+import org.apache.avro.io.Encoder;
+
+/**
+ * Implementations of {@link GenericArray} that store the elements of arrays of
+ * <tt>int</tt>, <tt>long</tt>, <tt>float</tt> and <tt>double</tt> in a
+ * primitive Java array, so that they are not boxed. The {@link java.util.List}
+ * methods box and unbox elements; the typed accessors such as
+ * {@link LongArray#getLong(int)} and {@link LongArray#addLong(long)} do not.
+ * <p/>
+ * {@link GenericData#newArray(Object, int, Schema)} returns these for arrays
+ * whose items are of one of these types and have no logical type or other
+ * properties.
+ */
+public final class PrimitivesArrays {
+
+  private PrimitivesArrays() {
+  }
+
+  /**
+   * Returns a new primitive array for the given array schema, or null if its
+   * element type is not one of the supported primitives, or has a logical type
+   * or other properties that may map it to a different Java type.
+   */
+  static GenericData.Array<?> newArray(int capacity, Schema schema) {
+    Schema element = schema.getElementType();
+    if (element.getLogicalType() != null || !element.getObjectProps().isEmpty()) {
+      return null;
+    }
+    switch (element.getType()) {
+    case INT:
+      return new IntArray(capacity, schema);
+    case LONG:
+      return new LongArray(capacity, schema);
+    case FLOAT:
+      return new FloatArray(capacity, schema);
+    case DOUBLE:
+      return new DoubleArray(capacity, schema);
+    default:
+      return null;
+    }
+  }
+
+  /**
+   * Common base of the primitive arrays. Extends {@link GenericData.Array} for
+   * compatibility, without using its object storage.
+   */
+  public abstract static class PrimitiveArray<T> extends GenericData.Array<T> {
+    protected int size;
+
+    PrimitiveArray(Schema schema) {
+      super(0, schema);
+    }
+
+    /** Length of the backing primitive array. */
+    abstract int capacity();
+
+    /** Resize the backing primitive array. */
+    abstract void resize(int capacity);
+
+    /** Move the elements after <i>from</i> to <i>to</i>. */
+    abstract void shift(int from, int to);
+
+    abstract void swap(int i, int j);
+
+    /**
+     * Writes the elements as the items of an array, see
+     * {@link Encoder#writeInts(int[], int, int)}.
+     */
+    public abstract void writeItems(Encoder out) throws IOException;
+
+    @Override
+    public int size() {
+      return size;
+    }
+
+    @Override
+    public void clear() {
+      size = 0;
+    }
+
+    @Override
+    public void reset() {
+      size = 0;
+    }
+
+    @Override
+    public void prune() {
+    }
+
+    /** Primitive elements are not reused, this returns null. */
+    @Override
+    public T peek() {
+      return null;
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+      return new Iterator<T>() {
+        private int position = 0;
+
+        @Override
+        public boolean hasNext() {
+          return position < size;
+        }
+
+        @Override
+        public T next() {
+          if (position >= size)
+            throw new NoSuchElementException();
+          return get(position++);
+        }
+      };
+    }
+
+    @Override
+    public void reverse() {
+      for (int left = 0, right = size - 1; left < right; left++, right--) {
+        swap(left, right);
+      }
+    }
+
+    /** Make room for an element at <i>location</i>. */
+    void insertAt(int location) {
+      if (location > size || location < 0) {
+        throw new IndexOutOfBoundsException("Index " + location + " out of bounds.");
+      }
+      if (size == capacity()) {
+        // Increase size by 1.5x + 1
+        resize(size + (size >> 1) + 1);
+      }
+      shift(location, location + 1);
+      size++;
+    }
+
+    /** Ensure <i>extra</i> more elements can be added without resizing. */
+    void ensureCapacity(int extra) {
+      if (size + extra > capacity()) {
+        resize(Math.max(size + extra, size + (size >> 1) + 1));
+      }
+    }
+
+    void checkIndex(int i) {
+      if (i >= size)
+        throw new IndexOutOfBoundsException("Index " + i + " out of bounds.");
+    }
+
+    void removeAt(int i) {
+      checkIndex(i);
+      shift(i + 1, i);
+      --size;
+    }
+  }
+
+  /** An array of <tt>int</tt>. */
+  public static class IntArray extends PrimitiveArray<Integer> {
+    private static final int[] EMPTY = new int[0];
+    private int[] elements = EMPTY;
+
+    @Override
+    public void writeItems(Encoder out) throws IOException {
+      out.writeInts(elements, 0, size);
+    }
+
+    public IntArray(int capacity, Schema schema) {
+      super(schema);
+      if (capacity > 0)
+        elements = new int[capacity];
+    }
+
+    public int getInt(int i) {
+      checkIndex(i);
+      return elements[i];
+    }
+
+    public void addInt(int value) {
+      if (size == elements.length)
+        ensureCapacity(1);
+      elements[size++] = value;
+    }
+
+    /**
+     * Reads <i>count</i> ints from <i>in</i> and appends them, see
+     * {@link Decoder#readInts(int[], int, int)}.
+     */
+    public void addInts(Decoder in, int count) throws IOException {
+      ensureCapacity(count);
+      in.readInts(elements, size, count);
+      size += count;
+    }
+
+    public int setInt(int i, int value) {
+      checkIndex(i);
+      int response = elements[i];
+      elements[i] = value;
+      return response;
+    }
+
+    @Override
+    public Integer get(int i) {
+      return getInt(i);
+    }
+
+    @Override
+    public void add(int location, Integer o) {
+      int value = o; // unboxed first, so null leaves the array unchanged
+      insertAt(location);
+      elements[location] = value;
+    }
+
+    @Override
+    public boolean add(Integer o) {
+      addInt(o);
+      return true;
+    }
+
+    @Override
+    public Integer set(int i, Integer o) {
+      return setInt(i, o);
+    }
+
+    @Override
+    public Integer remove(int i) {
+      int result = getInt(i);
+      removeAt(i);
+      return result;
+    }
+
+    @Override
+    int capacity() {
+      return elements.length;
+    }
+
+    @Override
+    void resize(int capacity) {
+      elements = Arrays.copyOf(elements, capacity);
+    }
+
+    @Override
+    void shift(int from, int to) {
+      System.arraycopy(elements, from, elements, to, size - from);
+    }
+
+    @Override
+    void swap(int i, int j) {
+      int tmp = elements[i];
+      elements[i] = elements[j];
+      elements[j] = tmp;
+    }
+  }
+
+  /** An array of <tt>long</tt>. */
+  public static class LongArray extends PrimitiveArray<Long> {
+    private static final long[] EMPTY = new long[0];
+    private long[] elements = EMPTY;
+
+    @Override
+    public void writeItems(Encoder out) throws IOException {
+      out.writeLongs(elements, 0, size);
+    }
+
+    public LongArray(int capacity, Schema schema) {
+      super(schema);
+      if (capacity > 0)
+        elements = new long[capacity];
+    }
+
+    public long getLong(int i) {
+      checkIndex(i);
+      return elements[i];
+    }
+
+    public void addLong(long value) {
+      if (size == elements.length)
+        ensureCapacity(1);
+      elements[size++] = value;
+    }
+
+    /**
+     * Reads <i>count</i> longs from <i>in</i> and appends them, see
+     * {@link Decoder#readLongs(long[], int, int)}.
+     */
+    public void addLongs(Decoder in, int count) throws IOException {
+      ensureCapacity(count);
+      in.readLongs(elements, size, count);
+      size += count;
+    }
+
+    public long setLong(int i, long value) {
+      checkIndex(i);
+      long response = elements[i];
+      elements[i] = value;
+      return response;
+    }
+
+    @Override
+    public Long get(int i) {
+      return getLong(i);
+    }
+
+    @Override
+    public void add(int location, Long o) {
+      long value = o; // unboxed first, so null leaves the array unchanged
+      insertAt(location);
+      elements[location] = value;
+    }
+
+    @Override
+    public boolean add(Long o) {
+      addLong(o);
+      return true;
+    }
+
+    @Override
+    public Long set(int i, Long o) {
+      return setLong(i, o);
+    }
+
+    @Override
+    public Long remove(int i) {
+      long result = getLong(i);
+      removeAt(i);
+      return result;
+    }
+
+    @Override
+    int capacity() {
+      return elements.length;
+    }
+
+    @Override
+    void resize(int capacity) {
+      elements = Arrays.copyOf(elements, capacity);
+    }
+
+    @Override
+    void shift(int from, int to) {
+      System.arraycopy(elements, from, elements, to, size - from);
+    }
+
+    @Override
+    void swap(int i, int j) {
+      long tmp = elements[i];
+      elements[i] = elements[j];
+      elements[j] = tmp;
+    }
+  }
+
+  /** An array of <tt>float</tt>. */
+  public static class FloatArray extends PrimitiveArray<Float> {
+    private static final float[] EMPTY = new float[0];
+    private float[] elements = EMPTY;
+
+    @Override
+    public void writeItems(Encoder out) throws IOException {
+      out.writeFloats(elements, 0, size);
+    }
+
+    public FloatArray(int capacity, Schema schema) {
+      super(schema);
+      if (capacity > 0)
+        elements = new float[capacity];
+    }
+
+    public float getFloat(int i) {
+      checkIndex(i);
+      return elements[i];
+    }
+
+    public void addFloat(float value) {
+      if (size == elements.length)
+        ensureCapacity(1);
+      elements[size++] = value;
+    }
+
+    public float setFloat(int i, float value) {
+      checkIndex(i);
+      float response = elements[i];
+      elements[i] = value;
+      return response;
+    }
+
+    @Override
+    public Float get(int i) {
+      return getFloat(i);
+    }
+
+    @Override
+    public void add(int location, Float o) {
+      float value = o; // unboxed first, so null leaves the array unchanged
+      insertAt(location);
+      elements[location] = value;
+    }
+
+    @Override
+    public boolean add(Float o) {
+      addFloat(o);
+      return true;
+    }
+
+    @Override
+    public Float set(int i, Float o) {
+      return setFloat(i, o);
+    }
+
+    @Override
+    public Float remove(int i) {
+      float result = getFloat(i);
+      removeAt(i);
+      return result;
+    }
+
+    @Override
+    int capacity() {
+      return elements.length;
+    }
+
+    @Override
+    void resize(int capacity) {
+      elements = Arrays.copyOf(elements, capacity);
+    }
+
+    @Override
+    void shift(int from, int to) {
+      System.arraycopy(elements, from, elements, to, size - from);
+    }
+
+    @Override
+    void swap(int i, int j) {
+      float tmp = elements[i];
+      elements[i] = elements[j];
+      elements[j] = tmp;
+    }
+  }
+
+  /** An array of <tt>double</tt>. */
+  public static class DoubleArray extends PrimitiveArray<Double> {
+    private static final double[] EMPTY = new double[0];
+    private double[] elements = EMPTY;
+
+    @Override
+    public void writeItems(Encoder out) throws IOException {
+      out.writeDoubles(elements, 0, size);
+    }
+
+    public DoubleArray(int capacity, Schema schema) {
+      super(schema);
+      if (capacity > 0)
+        elements = new double[capacity];
+    }
+
+    public double getDouble(int i) {
+      checkIndex(i);
+      return elements[i];
+    }
+
+    public void addDouble(double value) {
+      if (size == elements.length)
+        ensureCapacity(1);
+      elements[size++] = value;
+    }
+
+    public double setDouble(int i, double value) {
+      checkIndex(i);
+      double response = elements[i];
+      elements[i] = value;
+      return response;
+    }
+
+    @Override
+    public Double get(int i) {
+      return getDouble(i);
+    }
+
+    @Override
+    public void add(int location, Double o) {
+      double value = o; // unboxed first, so null leaves the array unchanged
+      insertAt(location);
+      elements[location] = value;
+    }
+
+    @Override
+    public boolean add(Double o) {
+      addDouble(o);
+      return true;
+    }
+
+    @Override
+    public Double set(int i, Double o) {
+      return setDouble(i, o);
+    }
+
+    @Override
+    public Double remove(int i) {
+      double result = getDouble(i);
+      removeAt(i);
+      return result;
+    }
+
+    @Override
+    int capacity() {
+      return elements.length;
+    }
+
+    @Override
+    void resize(int capacity) {
+      elements = Arrays.copyOf(elements, capacity);
+    }
+
+    @Override
+    void shift(int from, int to) {
+      System.arraycopy(elements, from, elements, to, size - from);
+    }
+
+    @Override
+    void swap(int i, int j) {
+      double tmp = elements[i];
+      elements[i] = elements[j];
+      elements[j] = tmp;
+    }
+  }
+}
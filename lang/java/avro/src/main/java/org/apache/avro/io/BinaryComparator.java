@@ -0,0 +1,317 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.avro.io;
+
+import java.io.IOException;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.avro.AvroRuntimeException;
+import org.apache.avro.Schema;
+import org.apache.avro.Schema.Field;
+import org.apache.avro.util.WeakIdentityHashMap;
+
+/**
+ * Compares binary encoded data of a schema as
+ * {@link BinaryData#compare(byte[], int, int, byte[], int, int, Schema)}, but
+ * following a plan computed once for the schema: the type switches, the sort
+ * orders and the fields to skip are resolved when the comparator is built
+ * rather than on each comparison.
+ * <p/>
+ * Comparators are cached by schema identity, see {@link #get(Schema)}. They are
+ * thread-safe. A comparator holds no reference to its schema, so that the cache
+ * entry is released once the schema is no longer used.
+ */
+public class BinaryComparator {
+  private static final WeakIdentityHashMap<Schema, BinaryComparator> CACHE = new WeakIdentityHashMap<>();
+
+  private static final ThreadLocal<BinaryDecoder[]> DECODERS = ThreadLocal
+      .withInitial(() -> new BinaryDecoder[] { new BinaryDecoder(new byte[0], 0, 0), new BinaryDecoder(new byte[0], 0, 0) });
+
+  private final Step step;
+
+  private BinaryComparator(Schema schema) {
+    this.step = compile(schema, new IdentityHashMap<>(), new IdentityHashMap<>());
+  }
+
+  /** Returns the comparator of a schema, building it on first use. */
+  public static BinaryComparator get(Schema schema) {
+    return CACHE.computeIfAbsent(schema, BinaryComparator::new);
+  }
+
+  /**
+   * Compare binary encoded data. If equal, return zero. If greater-than, return a
+   * positive value, if less than return a negative value.
+   */
+  public int compare(byte[] b1, int s1, int l1, byte[] b2, int s2, int l2) {
+    BinaryDecoder[] decoders = DECODERS.get();
+    BinaryDecoder d1 = decoders[0];
+    BinaryDecoder d2 = decoders[1];
+    d1.setBuf(b1, s1, l1);
+    d2.setBuf(b2, s2, l2);
+    try {
+      return step.compare(d1, d2);
+    } catch (IOException e) {
+      throw new AvroRuntimeException(e);
+    } finally {
+      d1.clearBuf();
+      d2.clearBuf();
+    }
+  }
+
+  /** Compares the next values of two decoders. */
+  private interface Step {
+    int compare(BinaryDecoder d1, BinaryDecoder d2) throws IOException;
+  }
+
+  /** Skips the next value of a decoder. */
+  private interface Skip {
+    void skip(BinaryDecoder d) throws IOException;
+  }
+
+  /** Compares the fields of a record, in order; may be recursive. */
+  private static class RecordStep implements Step {
+    private Step[] fields;
+
+    @Override
+    public int compare(BinaryDecoder d1, BinaryDecoder d2) throws IOException {
+      for (Step field : fields) {
+        int c = field.compare(d1, d2);
+        if (c != 0) {
+          return c;
+        }
+      }
+      return 0;
+    }
+  }
+
+  /** Skips the fields of a record, in order; may be recursive. */
+  private static class RecordSkip implements Skip {
+    private Skip[] fields;
+
+    @Override
+    public void skip(BinaryDecoder d) throws IOException {
+      for (Skip field : fields) {
+        field.skip(d);
+      }
+    }
+  }
+
+  private static Step compile(Schema schema, Map<Schema, RecordStep> records, Map<Schema, RecordSkip> skips) {
+    switch (schema.getType()) {
+    case RECORD: {
+      RecordStep record = records.get(schema);
+      if (record == null) {
+        record = new RecordStep();
+        records.put(schema, record);
+        List<Field> fields = schema.getFields();
+        Step[] steps = new Step[fields.size()];
+        for (int i = 0; i < steps.length; i++) {
+          Field field = fields.get(i);
+          Schema fieldSchema = field.schema();
+          switch (field.order()) {
+          case IGNORE: {
+            Skip skip = compileSkip(fieldSchema, skips);
+            steps[i] = (d1, d2) -> {
+              skip.skip(d1);
+              skip.skip(d2);
+              return 0;
+            };
+            break;
+          }
+          case DESCENDING: {
+            Step step = compile(fieldSchema, records, skips);
+            steps[i] = (d1, d2) -> -step.compare(d1, d2);
+            break;
+          }
+          default:
+            steps[i] = compile(fieldSchema, records, skips);
+          }
+        }
+        record.fields = steps;
+      }
+      return record;
+    }
+    case ENUM:
+    case INT:
+      return (d1, d2) -> Integer.compare(d1.readInt(), d2.readInt());
+    case LONG:
+      return (d1, d2) -> Long.compare(d1.readLong(), d2.readLong());
+    case FLOAT:
+      return (d1, d2) -> Float.compare(d1.readFloat(), d2.readFloat());
+    case DOUBLE:
+      return (d1, d2) -> Double.compare(d1.readDouble(), d2.readDouble());
+    case BOOLEAN:
+      return (d1, d2) -> Boolean.compare(d1.readBoolean(), d2.readBoolean());
+    case ARRAY:
+      return arrayStep(compile(schema.getElementType(), records, skips));
+    case MAP:
+      return (d1, d2) -> {
+        throw new AvroRuntimeException("Can't compare maps!");
+      };
+    case UNION: {
+      List<Schema> types = schema.getTypes();
+      Step[] branches = new Step[types.size()];
+      for (int i = 0; i < branches.length; i++) {
+        branches[i] = compile(types.get(i), records, skips);
+      }
+      return (d1, d2) -> {
+        int i1 = d1.readInt();
+        int i2 = d2.readInt();
+        int c = Integer.compare(i1, i2);
+        return c == 0 ? branches[i1].compare(d1, d2) : c;
+      };
+    }
+    case FIXED: {
+      int size = schema.getFixedSize();
+      return (d1, d2) -> {
+        int c = BinaryData.compareBytes(d1.getBuf(), d1.getPos(), size, d2.getBuf(), d2.getPos(), size);
+        d1.skipFixed(size);
+        d2.skipFixed(size);
+        return c;
+      };
+    }
+    case STRING:
+    case BYTES:
+      return (d1, d2) -> {
+        int l1 = d1.readInt();
+        int l2 = d2.readInt();
+        int c = BinaryData.compareBytes(d1.getBuf(), d1.getPos(), l1, d2.getBuf(), d2.getPos(), l2);
+        d1.skipFixed(l1);
+        d2.skipFixed(l2);
+        return c;
+      };
+    case NULL:
+      return (d1, d2) -> 0;
+    default:
+      throw new AvroRuntimeException("Unexpected schema to compare!");
+    }
+  }
+
+  /** As {@link org.apache.avro.generic.GenericDatumReader#skip(Schema, Decoder)}. */
+  private static Skip compileSkip(Schema schema, Map<Schema, RecordSkip> records) {
+    switch (schema.getType()) {
+    case RECORD: {
+      RecordSkip record = records.get(schema);
+      if (record == null) {
+        record = new RecordSkip();
+        records.put(schema, record);
+        List<Field> fields = schema.getFields();
+        Skip[] skips = new Skip[fields.size()];
+        for (int i = 0; i < skips.length; i++) {
+          skips[i] = compileSkip(fields.get(i).schema(), records);
+        }
+        record.fields = skips;
+      }
+      return record;
+    }
+    case ENUM:
+    case INT:
+      return BinaryDecoder::readInt;
+    case LONG:
+      return BinaryDecoder::readLong;
+    case FLOAT:
+      return BinaryDecoder::readFloat;
+    case DOUBLE:
+      return BinaryDecoder::readDouble;
+    case BOOLEAN:
+      return BinaryDecoder::readBoolean;
+    case ARRAY: {
+      Skip element = compileSkip(schema.getElementType(), records);
+      return d -> {
+        for (long l = d.skipArray(); l > 0; l = d.skipArray()) {
+          for (long i = 0; i < l; i++) {
+            element.skip(d);
+          }
+        }
+      };
+    }
+    case MAP: {
+      Skip value = compileSkip(schema.getValueType(), records);
+      return d -> {
+        for (long l = d.skipMap(); l > 0; l = d.skipMap()) {
+          for (long i = 0; i < l; i++) {
+            d.skipString();
+            value.skip(d);
+          }
+        }
+      };
+    }
+    case UNION: {
+      List<Schema> types = schema.getTypes();
+      Skip[] branches = new Skip[types.size()];
+      for (int i = 0; i < branches.length; i++) {
+        branches[i] = compileSkip(types.get(i), records);
+      }
+      return d -> branches[d.readIndex()].skip(d);
+    }
+    case FIXED: {
+      int size = schema.getFixedSize();
+      return d -> d.skipFixed(size);
+    }
+    case STRING:
+      return BinaryDecoder::skipString;
+    case BYTES:
+      return BinaryDecoder::skipBytes;
+    case NULL:
+      return d -> {
+      };
+    default:
+      throw new AvroRuntimeException("Unexpected schema to skip!");
+    }
+  }
+
+  /** Compares arrays element by element, then by length, as BinaryData. */
+  private static Step arrayStep(Step element) {
+    return (d1, d2) -> {
+      long i = 0; // position in array
+      long r1 = 0, r2 = 0; // remaining in current block
+      long l1 = 0, l2 = 0; // total array length
+      while (true) {
+        if (r1 == 0) { // refill blocks(s)
+          r1 = d1.readLong();
+          if (r1 < 0) {
+            r1 = -r1;
+            d1.readLong();
+          }
+          l1 += r1;
+        }
+        if (r2 == 0) {
+          r2 = d2.readLong();
+          if (r2 < 0) {
+            r2 = -r2;
+            d2.readLong();
+          }
+          l2 += r2;
+        }
+        if (r1 == 0 || r2 == 0) // empty block: done
+          return Long.compare(l1, l2);
+        long l = Math.min(l1, l2);
+        while (i < l) { // compare to end of block
+          int c = element.compare(d1, d2);
+          if (c != 0)
+            return c;
+          i++;
+          r1--;
+          r2--;
+        }
+      }
+    };
+  }
+}
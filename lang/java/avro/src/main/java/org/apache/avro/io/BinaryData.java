@@ -22,6 +22,7 @@ import java.io.IOException;
 import org.apache.avro.Schema;
 import org.apache.avro.Schema.Field;
 import org.apache.avro.AvroRuntimeException;
+import org.apache.avro.generic.GenericData;
 import org.apache.avro.generic.GenericDatumReader;
 
 /** Utilities for binary-encoded data. */
@@ -51,6 +52,10 @@ public class BinaryData {
 
   private static final ThreadLocal<Decoders> DECODERS = ThreadLocal.withInitial(Decoders::new);
 
+  // see GenericData#setCompiledCompareEnabled(boolean)
+  private static final boolean COMPILED_COMPARE = "true"
+      .equalsIgnoreCase(System.getProperty(GenericData.COMPILED_COMPARE_PROP));
+
   /**
    * Compare binary encoded data. If equal, return zero. If greater-than, return
    * 1, if less than return -1. Order is consistent with that of
@@ -66,6 +71,8 @@ public class BinaryData {
    * {@link org.apache.avro.generic.GenericData#compare(Object, Object, Schema)}.
    */
   public static int compare(byte[] b1, int s1, int l1, byte[] b2, int s2, int l2, Schema schema) {
+    if (COMPILED_COMPARE)
+      return BinaryComparator.get(schema).compare(b1, s1, l1, b2, s2, l2);
     Decoders decoders = DECODERS.get();
     decoders.set(b1, s1, l1, b2, s2, l2);
     try {
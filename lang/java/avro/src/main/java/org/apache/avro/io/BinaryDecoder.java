@@ -59,7 +59,7 @@ public class BinaryDecoder extends Decoder {
   static final long MAX_ARRAY_SIZE = (long) Integer.MAX_VALUE - 8L;
 
   private static final String MAX_BYTES_LENGTH_PROPERTY = "org.apache.avro.limits.bytes.maxLength";
-  private final int maxBytesLength;
+  final int maxBytesLength;
 
   private ByteSource source = null;
   // we keep the buffer and its state variables in this class and not in a
@@ -270,6 +270,118 @@ public class BinaryDecoder extends Decoder {
     return l;
   }
 
+  /**
+   * Decodes the ints of a word at a time: the ends of all the values that fit in
+   * the next 8 bytes are found at once from their high bits, then each value is
+   * gathered from its bytes without a branch per byte. Values that do not fit,
+   * or that are close to the end of the buffer, are read one by one.
+   */
+  @Override
+  public void readInts(int[] dst, int start, int n) throws IOException {
+    int i = start;
+    int end = start + n;
+    while (i < end) {
+      if (limit - pos < 8) {
+        dst[i++] = readInt();
+        continue;
+      }
+      long word = getLong(buf, pos);
+      long ends = ~word & 0x8080808080808080L;
+      if (ends == 0) {
+        dst[i++] = readInt();
+        continue;
+      }
+      int consumed = 0;
+      do {
+        int len = (Long.numberOfTrailingZeros(ends) + 1) >>> 3;
+        if (len > 5) {
+          throw new InvalidNumberEncodingException("Invalid int encoding");
+        }
+        int bits = len << 3;
+        int value = (int) gatherVarint(word & ((1L << bits) - 1));
+        dst[i++] = (value >>> 1) ^ -(value & 1); // back to two's-complement
+        word >>>= bits;
+        ends >>>= bits;
+        consumed += len;
+      } while (ends != 0 && i < end);
+      pos += consumed;
+    }
+  }
+
+  /** Decodes longs a word at a time, as {@link #readInts(int[], int, int)}. */
+  @Override
+  public void readLongs(long[] dst, int start, int n) throws IOException {
+    int i = start;
+    int end = start + n;
+    while (i < end) {
+      if (limit - pos < 8) {
+        dst[i++] = readLong();
+        continue;
+      }
+      long word = getLong(buf, pos);
+      long ends = ~word & 0x8080808080808080L;
+      if (ends == 0) {
+        dst[i++] = readLong();
+        continue;
+      }
+      int consumed = 0;
+      do {
+        int len = (Long.numberOfTrailingZeros(ends) + 1) >>> 3;
+        long value;
+        if (len == 8) {
+          value = gatherVarint(word);
+          ends = 0;
+        } else {
+          int bits = len << 3;
+          value = gatherVarint(word & ((1L << bits) - 1));
+          word >>>= bits;
+          ends >>>= bits;
+        }
+        dst[i++] = (value >>> 1) ^ -(value & 1); // back to two's-complement
+        consumed += len;
+      } while (ends != 0 && i < end);
+      pos += consumed;
+    }
+  }
+
+  /** Reads 8 bytes in little-endian order. */
+  static long getLong(byte[] b, int p) {
+    return (b[p] & 0xffL) | ((b[p + 1] & 0xffL) << 8) | ((b[p + 2] & 0xffL) << 16) | ((b[p + 3] & 0xffL) << 24)
+        | ((b[p + 4] & 0xffL) << 32) | ((b[p + 5] & 0xffL) << 40) | ((b[p + 6] & 0xffL) << 48)
+        | ((b[p + 7] & 0xffL) << 56);
+  }
+
+  /**
+   * Concatenates the low 7 bits of each byte of a varint of up to 8 bytes, held
+   * in little-endian order with the bytes after its end cleared.
+   */
+  static long gatherVarint(long x) {
+    x &= 0x7F7F7F7F7F7F7F7FL;
+    x = (x & 0x007F007F007F007FL) | ((x & 0x7F007F007F007F00L) >>> 1);
+    x = (x & 0x00003FFF00003FFFL) | ((x & 0x3FFF00003FFF0000L) >>> 2);
+    return (x & 0x000000000FFFFFFFL) | ((x & 0x0FFFFFFF00000000L) >>> 4);
+  }
+
+  /**
+   * Skips <i>count</i> consecutive int, long or enum values. Only the bytes that
+   * end each value are looked for; the values are not decoded.
+   */
+  void skipVarints(int count) throws IOException {
+    for (int i = 0; i < count; i++) {
+      ensureBounds(10);
+      int len = 1;
+      while ((buf[pos + len - 1] & 0x80) != 0) {
+        if (++len > 10) {
+          throw new InvalidNumberEncodingException("Invalid long encoding");
+        }
+      }
+      if (pos + len > limit) {
+        throw new EOFException();
+      }
+      pos += len;
+    }
+  }
+
   @Override
   public float readFloat() throws IOException {
     ensureBounds(4);
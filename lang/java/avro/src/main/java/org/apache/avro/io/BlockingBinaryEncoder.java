@@ -277,6 +277,40 @@ public class BlockingBinaryEncoder extends BufferedBinaryEncoder {
     pos += BinaryData.encodeDouble(d, buf, pos);
   }
 
+  // items are counted by startItem, so arrays are written item by item
+
+  @Override
+  public void writeInts(int[] src, int off, int len) throws IOException {
+    for (int i = off; i < off + len; i++) {
+      startItem();
+      writeInt(src[i]);
+    }
+  }
+
+  @Override
+  public void writeLongs(long[] src, int off, int len) throws IOException {
+    for (int i = off; i < off + len; i++) {
+      startItem();
+      writeLong(src[i]);
+    }
+  }
+
+  @Override
+  public void writeFloats(float[] src, int off, int len) throws IOException {
+    for (int i = off; i < off + len; i++) {
+      startItem();
+      writeFloat(src[i]);
+    }
+  }
+
+  @Override
+  public void writeDoubles(double[] src, int off, int len) throws IOException {
+    for (int i = off; i < off + len; i++) {
+      startItem();
+      writeDouble(src[i]);
+    }
+  }
+
   @Override
   public void writeFixed(byte[] bytes, int start, int len) throws IOException {
     doWriteBytes(bytes, start, len);
@@ -20,6 +20,7 @@ package org.apache.avro.io;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.nio.channels.Channels;
 import java.nio.channels.WritableByteChannel;
 import java.util.Objects;
@@ -149,6 +150,62 @@ public class BufferedBinaryEncoder extends BinaryEncoder {
     pos += BinaryData.encodeDouble(d, buf, pos);
   }
 
+  /*
+   * The bulk writes check the room left in the buffer once for as many values as
+   * fit in it, rather than once per value. Floats and doubles are copied through
+   * a little-endian view of the buffer.
+   */
+
+  @Override
+  public void writeInts(int[] src, int off, int len) throws IOException {
+    int end = off + len;
+    while (off < end) {
+      int n = Math.min(end - off, buf.length / 5);
+      ensureBounds(n * 5);
+      for (int i = off; i < off + n; i++) {
+        pos += BinaryData.encodeInt(src[i], buf, pos);
+      }
+      off += n;
+    }
+  }
+
+  @Override
+  public void writeLongs(long[] src, int off, int len) throws IOException {
+    int end = off + len;
+    while (off < end) {
+      int n = Math.min(end - off, buf.length / 10);
+      ensureBounds(n * 10);
+      for (int i = off; i < off + n; i++) {
+        pos += BinaryData.encodeLong(src[i], buf, pos);
+      }
+      off += n;
+    }
+  }
+
+  @Override
+  public void writeFloats(float[] src, int off, int len) throws IOException {
+    int end = off + len;
+    while (off < end) {
+      int n = Math.min(end - off, buf.length / 4);
+      ensureBounds(n * 4);
+      ByteBuffer.wrap(buf, pos, n * 4).order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer().put(src, off, n);
+      pos += n * 4;
+      off += n;
+    }
+  }
+
+  @Override
+  public void writeDoubles(double[] src, int off, int len) throws IOException {
+    int end = off + len;
+    while (off < end) {
+      int n = Math.min(end - off, buf.length / 8);
+      ensureBounds(n * 8);
+      ByteBuffer.wrap(buf, pos, n * 8).order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer().put(src, off, n);
+      pos += n * 8;
+      off += n;
+    }
+  }
+
   @Override
   public void writeFixed(byte[] bytes, int start, int len) throws IOException {
     if (len > bulkLimit) {
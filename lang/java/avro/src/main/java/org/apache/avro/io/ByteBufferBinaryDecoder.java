@@ -0,0 +1,360 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.avro.io;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.avro.AvroRuntimeException;
+import org.apache.avro.InvalidNumberEncodingException;
+import org.apache.avro.util.ByteBufferInputStream;
+import org.apache.avro.util.Utf8;
+
+/**
+ * A {@link BinaryDecoder} that reads straight from one or more
+ * {@link ByteBuffer}s, which may be direct or read-only, e.g. buffers received
+ * from a network channel or a region of a memory-mapped file.
+ * <p/>
+ * The content of the buffers is never copied as a whole; only the bytes of
+ * strings, bytes and fixed values are copied into their destination. Values may
+ * span buffers. The decoder reads from duplicates of the buffers, so the
+ * positions of the buffers passed in are not modified.
+ *
+ * @see DecoderFactory#binaryDecoder(ByteBuffer, BinaryDecoder)
+ * @see DecoderFactory#binaryDecoder(List, BinaryDecoder)
+ */
+class ByteBufferBinaryDecoder extends BinaryDecoder {
+  private static final ByteBuffer[] EMPTY = new ByteBuffer[0];
+
+  private ByteBuffer[] buffers = EMPTY;
+  private int next;
+  private ByteBuffer in;
+
+  ByteBufferBinaryDecoder(ByteBuffer in) {
+    super();
+    configure(in);
+  }
+
+  ByteBufferBinaryDecoder(List<ByteBuffer> buffers) {
+    super();
+    configure(buffers);
+  }
+
+  ByteBufferBinaryDecoder configure(ByteBuffer in) {
+    this.buffers = EMPTY;
+    this.next = 0;
+    this.in = in.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+    return this;
+  }
+
+  ByteBufferBinaryDecoder configure(List<ByteBuffer> buffers) {
+    int count = buffers.size();
+    if (this.buffers.length < count) {
+      this.buffers = new ByteBuffer[count];
+    }
+    for (int i = 0; i < count; i++) {
+      this.buffers[i] = buffers.get(i).duplicate().order(ByteOrder.LITTLE_ENDIAN);
+    }
+    for (int i = count; i < this.buffers.length; i++) {
+      this.buffers[i] = null;
+    }
+    this.next = 0;
+    this.in = count == 0 ? ByteBuffer.allocate(0) : this.buffers[next++];
+    return this;
+  }
+
+  /**
+   * Makes the next buffer with remaining bytes current. Returns false if there
+   * is none.
+   */
+  private boolean advance() {
+    while (!in.hasRemaining()) {
+      if (next >= buffers.length || buffers[next] == null) {
+        return false;
+      }
+      in = buffers[next++];
+    }
+    return true;
+  }
+
+  private int readByte() throws IOException {
+    if (!in.hasRemaining() && !advance()) {
+      throw new EOFException();
+    }
+    return in.get();
+  }
+
+  @Override
+  public boolean readBoolean() throws IOException {
+    return readByte() == 1;
+  }
+
+  @Override
+  public int readInt() throws IOException {
+    int n = 0;
+    int shift = 0;
+    if (in.remaining() >= 5) {
+      // no bounds checks needed within a single buffer
+      do {
+        int b = in.get();
+        n |= (b & 0x7F) << shift;
+        if ((b & 0x80) == 0) {
+          return (n >>> 1) ^ -(n & 1); // back to two's-complement
+        }
+        shift += 7;
+      } while (shift < 32);
+    } else {
+      do {
+        int b = readByte();
+        n |= (b & 0x7F) << shift;
+        if ((b & 0x80) == 0) {
+          return (n >>> 1) ^ -(n & 1); // back to two's-complement
+        }
+        shift += 7;
+      } while (shift < 32);
+    }
+    throw new InvalidNumberEncodingException("Invalid int encoding");
+  }
+
+  @Override
+  public long readLong() throws IOException {
+    long n = 0;
+    int shift = 0;
+    if (in.remaining() >= 10) {
+      // no bounds checks needed within a single buffer
+      do {
+        int b = in.get();
+        n |= (b & 0x7FL) << shift;
+        if ((b & 0x80) == 0) {
+          return (n >>> 1) ^ -(n & 1); // back to two's-complement
+        }
+        shift += 7;
+      } while (shift < 64);
+    } else {
+      do {
+        int b = readByte();
+        n |= (b & 0x7FL) << shift;
+        if ((b & 0x80) == 0) {
+          return (n >>> 1) ^ -(n & 1); // back to two's-complement
+        }
+        shift += 7;
+      } while (shift < 64);
+    }
+    throw new InvalidNumberEncodingException("Invalid long encoding");
+  }
+
+  /** Decodes ints a word at a time, as {@link BinaryDecoder}. */
+  @Override
+  public void readInts(int[] dst, int start, int n) throws IOException {
+    int i = start;
+    int end = start + n;
+    while (i < end) {
+      if (in.remaining() < 8) {
+        dst[i++] = readInt();
+        continue;
+      }
+      long word = in.getLong(in.position());
+      long ends = ~word & 0x8080808080808080L;
+      if (ends == 0) {
+        dst[i++] = readInt();
+        continue;
+      }
+      int consumed = 0;
+      do {
+        int len = (Long.numberOfTrailingZeros(ends) + 1) >>> 3;
+        if (len > 5) {
+          throw new InvalidNumberEncodingException("Invalid int encoding");
+        }
+        int bits = len << 3;
+        int value = (int) gatherVarint(word & ((1L << bits) - 1));
+        dst[i++] = (value >>> 1) ^ -(value & 1); // back to two's-complement
+        word >>>= bits;
+        ends >>>= bits;
+        consumed += len;
+      } while (ends != 0 && i < end);
+      ((Buffer) in).position(in.position() + consumed);
+    }
+  }
+
+  /** Decodes longs a word at a time, as {@link BinaryDecoder}. */
+  @Override
+  public void readLongs(long[] dst, int start, int n) throws IOException {
+    int i = start;
+    int end = start + n;
+    while (i < end) {
+      if (in.remaining() < 8) {
+        dst[i++] = readLong();
+        continue;
+      }
+      long word = in.getLong(in.position());
+      long ends = ~word & 0x8080808080808080L;
+      if (ends == 0) {
+        dst[i++] = readLong();
+        continue;
+      }
+      int consumed = 0;
+      do {
+        int len = (Long.numberOfTrailingZeros(ends) + 1) >>> 3;
+        long value;
+        if (len == 8) {
+          value = gatherVarint(word);
+          ends = 0;
+        } else {
+          int bits = len << 3;
+          value = gatherVarint(word & ((1L << bits) - 1));
+          word >>>= bits;
+          ends >>>= bits;
+        }
+        dst[i++] = (value >>> 1) ^ -(value & 1); // back to two's-complement
+        consumed += len;
+      } while (ends != 0 && i < end);
+      ((Buffer) in).position(in.position() + consumed);
+    }
+  }
+
+  @Override
+  void skipVarints(int count) throws IOException {
+    for (int i = 0; i < count; i++) {
+      int len = 1;
+      while ((readByte() & 0x80) != 0) {
+        if (++len > 10) {
+          throw new InvalidNumberEncodingException("Invalid long encoding");
+        }
+      }
+    }
+  }
+
+  @Override
+  public float readFloat() throws IOException {
+    if (in.remaining() >= 4) {
+      return in.getFloat();
+    }
+    return Float.intBitsToFloat((int) readFixedLong(4));
+  }
+
+  @Override
+  public double readDouble() throws IOException {
+    if (in.remaining() >= 8) {
+      return in.getDouble();
+    }
+    return Double.longBitsToDouble(readFixedLong(8));
+  }
+
+  /** Reads a little-endian value of <i>size</i> bytes that spans buffers. */
+  private long readFixedLong(int size) throws IOException {
+    long n = 0;
+    for (int i = 0; i < size; i++) {
+      n |= (readByte() & 0xffL) << (8 * i);
+    }
+    return n;
+  }
+
+  @Override
+  public Utf8 readString(Utf8 old) throws IOException {
+    long length = readLong();
+    if (length > MAX_ARRAY_SIZE) {
+      throw new UnsupportedOperationException("Cannot read strings longer than " + MAX_ARRAY_SIZE + " bytes");
+    }
+    if (length < 0L) {
+      throw new AvroRuntimeException("Malformed data. Length is negative: " + length);
+    }
+    Utf8 result = (old != null ? old : new Utf8());
+    result.setByteLength((int) length);
+    if (0L != length) {
+      doReadBytes(result.getBytes(), 0, (int) length);
+    }
+    return result;
+  }
+
+  @Override
+  public ByteBuffer readBytes(ByteBuffer old) throws IOException {
+    int length = readInt();
+    if (length > maxBytesLength) {
+      throw new AvroRuntimeException("Bytes length " + length + " exceeds maximum allowed");
+    }
+    if (length < 0) {
+      throw new AvroRuntimeException("Malformed data. Length is negative: " + length);
+    }
+    final ByteBuffer result;
+    if (old != null && length <= old.capacity()) {
+      result = old;
+      ((Buffer) result).clear();
+    } else {
+      result = ByteBuffer.allocate(length);
+    }
+    doReadBytes(result.array(), result.position(), length);
+    ((Buffer) result).limit(length);
+    return result;
+  }
+
+  @Override
+  protected void doSkipBytes(long length) throws IOException {
+    if (length < 0) {
+      throw new EOFException();
+    }
+    while (length > in.remaining()) {
+      length -= in.remaining();
+      ((Buffer) in).position(in.limit());
+      if (!advance()) {
+        throw new EOFException();
+      }
+    }
+    ((Buffer) in).position(in.position() + (int) length);
+  }
+
+  @Override
+  protected void doReadBytes(byte[] bytes, int start, int length) throws IOException {
+    if (length < 0)
+      throw new AvroRuntimeException("Malformed data. Length is negative: " + length);
+    while (length > in.remaining()) {
+      int remaining = in.remaining();
+      in.get(bytes, start, remaining);
+      start += remaining;
+      length -= remaining;
+      if (!advance()) {
+        throw new EOFException();
+      }
+    }
+    in.get(bytes, start, length);
+  }
+
+  @Override
+  public InputStream inputStream() {
+    if (next >= buffers.length || buffers[next] == null) {
+      return new ByteBufferInputStream(Collections.singletonList(in));
+    }
+    List<ByteBuffer> remaining = new ArrayList<>();
+    remaining.add(in);
+    for (int i = next; i < buffers.length && buffers[i] != null; i++) {
+      remaining.add(buffers[i]);
+    }
+    return new ByteBufferInputStream(remaining);
+  }
+
+  @Override
+  public boolean isEnd() throws IOException {
+    return !advance();
+  }
+}
@@ -0,0 +1,234 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.avro.io;
+
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An {@link Encoder} for Avro's binary encoding that writes into
+ * {@link ByteBuffer}s rather than an OutputStream, so that encoded data can be
+ * handed to a channel without being copied.
+ * <p/>
+ * Output goes to a buffer supplied by the caller, if any, and then to direct
+ * buffers ("chunks") allocated by this encoder. {@link #getBuffers()} returns
+ * views of the encoded bytes. Chunks are kept for reuse when the encoder is
+ * reinitialized by {@link #reset()} or
+ * {@link EncoderFactory#byteBufferEncoder(ByteBuffer, BinaryEncoder)}, so the
+ * buffers returned must no longer be in use by then.
+ * <p/>
+ * To construct, use
+ * {@link EncoderFactory#byteBufferEncoder(ByteBuffer, BinaryEncoder)}
+ * <p/>
+ * ByteBufferBinaryEncoder is not thread-safe
+ *
+ * @see BinaryEncoder
+ * @see EncoderFactory
+ */
+public class ByteBufferBinaryEncoder extends BinaryEncoder {
+  private static final ByteBuffer EMPTY = ByteBuffer.allocate(0);
+
+  // chunks written to, in order; the last is being written to
+  private final List<ByteBuffer> chunks = new ArrayList<>();
+  private final ArrayDeque<ByteBuffer> free = new ArrayDeque<>();
+  // whether the first chunk was supplied by the caller
+  private boolean supplied;
+  private int chunkSize;
+  private ByteBuffer out;
+  // the buffer is used for writing values that span chunks
+  private final byte[] buf = new byte[12];
+
+  ByteBufferBinaryEncoder(ByteBuffer buffer, int chunkSize) {
+    configure(buffer, chunkSize);
+  }
+
+  ByteBufferBinaryEncoder configure(ByteBuffer buffer, int chunkSize) {
+    if (chunkSize != this.chunkSize) {
+      free.clear();
+    }
+    this.chunkSize = chunkSize;
+    recycle();
+    if (buffer != null) {
+      supplied = true;
+      out = buffer.slice().order(ByteOrder.LITTLE_ENDIAN);
+      chunks.add(out);
+    } else {
+      supplied = false;
+      out = EMPTY;
+    }
+    return this;
+  }
+
+  /**
+   * Discards the data written so far and keeps the chunks allocated by this
+   * encoder for the next data written. The buffer supplied by the caller, if
+   * any, is not written to again. Buffers returned by {@link #getBuffers()}
+   * before must no longer be used.
+   */
+  public void reset() {
+    configure(null, chunkSize);
+  }
+
+  private void recycle() {
+    for (int i = supplied ? 1 : 0; i < chunks.size(); i++) {
+      ByteBuffer chunk = chunks.get(i);
+      if (chunk.capacity() == chunkSize) {
+        ((Buffer) chunk).clear();
+        free.add(chunk);
+      }
+    }
+    chunks.clear();
+  }
+
+  /**
+   * Returns the bytes written so far, as views of the buffers that hold them,
+   * positioned at the first byte and limited after the last. The first buffer
+   * is a slice of the buffer supplied by the caller, if any, starting at its
+   * position. Empty buffers are omitted.
+   */
+  public List<ByteBuffer> getBuffers() {
+    List<ByteBuffer> result = new ArrayList<>(chunks.size());
+    for (ByteBuffer chunk : chunks) {
+      if (chunk.position() > 0) {
+        ByteBuffer view = chunk.duplicate();
+        ((Buffer) view).flip();
+        result.add(view);
+      }
+    }
+    return result;
+  }
+
+  /** Returns the number of bytes written so far. */
+  public long getByteCount() {
+    long count = 0;
+    for (ByteBuffer chunk : chunks) {
+      count += chunk.position();
+    }
+    return count;
+  }
+
+  private void nextChunk() {
+    ByteBuffer chunk = free.poll();
+    if (chunk == null) {
+      chunk = ByteBuffer.allocateDirect(chunkSize).order(ByteOrder.LITTLE_ENDIAN);
+    }
+    chunks.add(chunk);
+    out = chunk;
+  }
+
+  @Override
+  public void flush() throws IOException {
+  }
+
+  @Override
+  public void writeBoolean(boolean b) throws IOException {
+    if (!out.hasRemaining()) {
+      nextChunk();
+    }
+    out.put((byte) (b ? 1 : 0));
+  }
+
+  @Override
+  public void writeInt(int n) throws IOException {
+    if (out.remaining() < 5) {
+      writeFixed(buf, 0, BinaryData.encodeInt(n, buf, 0));
+      return;
+    }
+    int val = (n << 1) ^ (n >> 31); // move sign to low-order bit
+    while ((val & ~0x7F) != 0) {
+      out.put((byte) (0x80 | val));
+      val >>>= 7;
+    }
+    out.put((byte) val);
+  }
+
+  @Override
+  public void writeLong(long n) throws IOException {
+    if (out.remaining() < 10) {
+      writeFixed(buf, 0, BinaryData.encodeLong(n, buf, 0));
+      return;
+    }
+    long val = (n << 1) ^ (n >> 63); // move sign to low-order bit
+    while ((val & ~0x7FL) != 0) {
+      out.put((byte) (0x80 | val));
+      val >>>= 7;
+    }
+    out.put((byte) val);
+  }
+
+  @Override
+  public void writeFloat(float f) throws IOException {
+    if (out.remaining() < 4) {
+      writeFixed(buf, 0, BinaryData.encodeFloat(f, buf, 0));
+      return;
+    }
+    out.putFloat(f);
+  }
+
+  @Override
+  public void writeDouble(double d) throws IOException {
+    if (out.remaining() < 8) {
+      writeFixed(buf, 0, BinaryData.encodeDouble(d, buf, 0));
+      return;
+    }
+    out.putDouble(d);
+  }
+
+  @Override
+  public void writeFixed(byte[] bytes, int start, int len) throws IOException {
+    while (len > out.remaining()) {
+      int n = out.remaining();
+      out.put(bytes, start, n);
+      start += n;
+      len -= n;
+      nextChunk();
+    }
+    out.put(bytes, start, len);
+  }
+
+  @Override
+  public void writeFixed(ByteBuffer bytes) throws IOException {
+    ByteBuffer source = bytes.duplicate();
+    while (source.remaining() > out.remaining()) {
+      int limit = source.limit();
+      ((Buffer) source).limit(source.position() + out.remaining());
+      out.put(source);
+      ((Buffer) source).limit(limit);
+      nextChunk();
+    }
+    out.put(source);
+  }
+
+  @Override
+  protected void writeZero() throws IOException {
+    if (!out.hasRemaining()) {
+      nextChunk();
+    }
+    out.put((byte) 0);
+  }
+
+  @Override
+  public int bytesBuffered() {
+    return 0;
+  }
+}
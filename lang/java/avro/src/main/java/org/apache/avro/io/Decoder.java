@@ -76,6 +76,28 @@ public abstract class Decoder {
    */
   public abstract long readLong() throws IOException;
 
+  /**
+   * Reads <i>n</i> consecutive ints into <i>dst</i>, starting at index
+   * <i>start</i>, as if by <i>n</i> calls to {@link #readInt()}. Binary decoders
+   * decode them in bulk.
+   */
+  public void readInts(int[] dst, int start, int n) throws IOException {
+    for (int i = start; i < start + n; i++) {
+      dst[i] = readInt();
+    }
+  }
+
+  /**
+   * Reads <i>n</i> consecutive longs into <i>dst</i>, starting at index
+   * <i>start</i>, as if by <i>n</i> calls to {@link #readLong()}. Binary
+   * decoders decode them in bulk.
+   */
+  public void readLongs(long[] dst, int start, int n) throws IOException {
+    for (int i = start; i < start + n; i++) {
+      dst[i] = readLong();
+    }
+  }
+
   /**
    * Reads a float written by {@link Encoder#writeFloat}.
    * 
@@ -19,6 +19,8 @@ package org.apache.avro.io;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.List;
 
 import org.apache.avro.Schema;
 
@@ -219,6 +221,58 @@ public class DecoderFactory {
     }
   }
 
+  /**
+   * Creates or reinitializes a {@link BinaryDecoder} that reads the remaining
+   * bytes of the buffer provided. The buffer's position is not modified.
+   * <p/>
+   * Heap buffers are decoded through their backing array, as by
+   * {@link #binaryDecoder(byte[], int, int, BinaryDecoder)}. Direct and read-only
+   * buffers, such as regions of a memory-mapped file, are decoded in place
+   * without first being copied onto the heap.
+   *
+   * @param buffer The buffer to read from
+   * @param reuse  The BinaryDecoder to attempt to reinitialize. if null a new
+   *               BinaryDecoder is created.
+   * @return A BinaryDecoder that uses <i>buffer</i> as its source of data.
+   *         <i>reuse</i> may be reinitialized if appropriate, otherwise a new
+   *         instance is returned.
+   */
+  public BinaryDecoder binaryDecoder(ByteBuffer buffer, BinaryDecoder reuse) {
+    if (buffer.hasArray()) {
+      return binaryDecoder(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining(), reuse);
+    }
+    if (null == reuse || !reuse.getClass().equals(ByteBufferBinaryDecoder.class)) {
+      return new ByteBufferBinaryDecoder(buffer);
+    } else {
+      return ((ByteBufferBinaryDecoder) reuse).configure(buffer);
+    }
+  }
+
+  /**
+   * Creates or reinitializes a {@link BinaryDecoder} that reads the remaining
+   * bytes of the buffers provided, in order, as one contiguous input. Values may
+   * span buffers. The buffers' positions are not modified and their content is
+   * not copied, so this suits data received in several direct buffers, e.g. by a
+   * scattering read from a channel or a composite network buffer.
+   *
+   * @param buffers The buffers to read from
+   * @param reuse   The BinaryDecoder to attempt to reinitialize. if null a new
+   *                BinaryDecoder is created.
+   * @return A BinaryDecoder that uses <i>buffers</i> as its source of data.
+   *         <i>reuse</i> may be reinitialized if appropriate, otherwise a new
+   *         instance is returned.
+   */
+  public BinaryDecoder binaryDecoder(List<ByteBuffer> buffers, BinaryDecoder reuse) {
+    if (buffers.size() == 1) {
+      return binaryDecoder(buffers.get(0), reuse);
+    }
+    if (null == reuse || !reuse.getClass().equals(ByteBufferBinaryDecoder.class)) {
+      return new ByteBufferBinaryDecoder(buffers);
+    } else {
+      return ((ByteBufferBinaryDecoder) reuse).configure(buffers);
+    }
+  }
+
   /** @deprecated use {@link #binaryDecoder(byte[], BinaryDecoder)} instead */
   @Deprecated
   public BinaryDecoder createBinaryDecoder(byte[] bytes, BinaryDecoder reuse) {
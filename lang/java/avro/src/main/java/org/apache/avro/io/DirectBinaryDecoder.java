@@ -135,6 +135,13 @@ class DirectBinaryDecoder extends BinaryDecoder {
     throw new InvalidNumberEncodingException("Invalid long encoding");
   }
 
+  @Override
+  void skipVarints(int count) throws IOException {
+    for (int i = 0; i < count; i++) {
+      readLong();
+    }
+  }
+
   private final byte[] buf = new byte[8];
 
   @Override
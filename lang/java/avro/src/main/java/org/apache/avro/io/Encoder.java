@@ -95,6 +95,43 @@ public abstract class Encoder implements Flushable {
    */
   public abstract void writeDouble(double d) throws IOException;
 
+  /**
+   * Writes <i>len</i> items of the current array from <i>src</i>, starting at
+   * index <i>off</i>, the same as calling {@link #startItem()} then
+   * {@link #writeInt(int)} for each. Buffered binary encoders write them in
+   * bulk.
+   */
+  public void writeInts(int[] src, int off, int len) throws IOException {
+    for (int i = off; i < off + len; i++) {
+      startItem();
+      writeInt(src[i]);
+    }
+  }
+
+  /** Writes array items in bulk, see {@link #writeInts(int[], int, int)}. */
+  public void writeLongs(long[] src, int off, int len) throws IOException {
+    for (int i = off; i < off + len; i++) {
+      startItem();
+      writeLong(src[i]);
+    }
+  }
+
+  /** Writes array items in bulk, see {@link #writeInts(int[], int, int)}. */
+  public void writeFloats(float[] src, int off, int len) throws IOException {
+    for (int i = off; i < off + len; i++) {
+      startItem();
+      writeFloat(src[i]);
+    }
+  }
+
+  /** Writes array items in bulk, see {@link #writeInts(int[], int, int)}. */
+  public void writeDoubles(double[] src, int off, int len) throws IOException {
+    for (int i = off; i < off + len; i++) {
+      startItem();
+      writeDouble(src[i]);
+    }
+  }
+
   /**
    * Write a Unicode character string.
    * 
@@ -19,6 +19,7 @@ package org.apache.avro.io;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
 
 import org.apache.avro.AvroRuntimeException;
 import org.apache.avro.Schema;
@@ -37,6 +38,7 @@ import com.fasterxml.jackson.core.JsonGenerator;
  * @see BufferedBinaryEncoder
  * @see BlockingBinaryEncoder
  * @see DirectBinaryEncoder
+ * @see ByteBufferBinaryEncoder
  */
 
 public class EncoderFactory {
@@ -216,6 +218,42 @@ public class EncoderFactory {
     }
   }
 
+  /**
+   * Creates or reinitializes a {@link ByteBufferBinaryEncoder} that writes into
+   * <i>buffer</i>, starting at its position, and continues in direct buffers
+   * allocated by the encoder once <i>buffer</i> is full. If <i>reuse</i> is
+   * provided, an attempt will be made to reconfigure <i>reuse</i> rather than
+   * construct a new instance, but this is not guaranteed, a new instance may be
+   * returned.
+   * <p/>
+   * The encoded bytes are retrieved without copying through
+   * {@link ByteBufferBinaryEncoder#getBuffers()}, e.g. for a gathering write to a
+   * channel. The position of <i>buffer</i> is not modified. The direct buffers
+   * allocated by the encoder are of the size configured with
+   * {@link #configureBufferSize(int)}, and are reused when <i>reuse</i> is
+   * reconfigured, so buffers returned by a previous use of <i>reuse</i> must no
+   * longer be in use.
+   * <p/>
+   * {@link BinaryEncoder} instances returned by this method are not thread-safe.
+   *
+   * @param buffer The buffer to write to first. May be null to write to buffers
+   *               allocated by the encoder only.
+   * @param reuse  The BinaryEncoder to <i>attempt</i> to reuse given the factory
+   *               configuration. If null, a new instance is returned.
+   * @return A ByteBufferBinaryEncoder that writes to <i>buffer</i>. If
+   *         <i>reuse</i> is null, this will be a new instance. If <i>reuse</i> is
+   *         not null, then the returned instance may be a new instance or
+   *         <i>reuse</i> reconfigured.
+   * @see ByteBufferBinaryEncoder
+   */
+  public ByteBufferBinaryEncoder byteBufferEncoder(ByteBuffer buffer, BinaryEncoder reuse) {
+    if (null == reuse || !reuse.getClass().equals(ByteBufferBinaryEncoder.class)) {
+      return new ByteBufferBinaryEncoder(buffer, this.binaryBufferSize);
+    } else {
+      return ((ByteBufferBinaryEncoder) reuse).configure(buffer, this.binaryBufferSize);
+    }
+  }
+
   /**
    * Creates or reinitializes a {@link BinaryEncoder} with the OutputStream
    * provided as the destination for written data. If <i>reuse</i> is provided, an
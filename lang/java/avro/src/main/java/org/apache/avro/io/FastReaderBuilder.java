@@ -18,10 +18,11 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
-import java.util.Collections;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.function.Function;
 import java.util.function.IntFunction;
@@ -47,11 +48,13 @@ import org.apache.avro.generic.GenericDatumReader;
 import org.apache.avro.generic.GenericEnumSymbol;
 import org.apache.avro.generic.GenericFixed;
 import org.apache.avro.generic.IndexedRecord;
+import org.apache.avro.generic.PrimitivesArrays;
 import org.apache.avro.io.FastReaderBuilder.RecordReader.Stage;
 import org.apache.avro.io.parsing.ResolvingGrammarGenerator;
 import org.apache.avro.reflect.ReflectionUtil;
 import org.apache.avro.specific.SpecificData;
 import org.apache.avro.specific.SpecificRecordBase;
+import org.apache.avro.util.StringDictionary;
 import org.apache.avro.util.Utf8;
 import org.apache.avro.util.WeakIdentityHashMap;
 import org.apache.avro.util.internal.Accessor;
@@ -65,13 +68,14 @@ public class FastReaderBuilder {
   private final GenericData data;
 
   /** first schema is reader schema, second is writer schema */
-  private final Map<Schema, Map<Schema, RecordReader>> readerCache = Collections
-      .synchronizedMap(new WeakIdentityHashMap<>());
+  private final Map<Schema, Map<Schema, RecordReader>> readerCache = new WeakIdentityHashMap<>();
 
   private boolean keyClassEnabled = true;
 
   private boolean classPropEnabled = true;
 
+  private boolean compiledRecordsEnabled = false;
+
   public static FastReaderBuilder get() {
     return new FastReaderBuilder(GenericData.get());
   }
@@ -106,6 +110,32 @@ public class FastReaderBuilder {
     return this.classPropEnabled;
   }
 
+  /**
+   * Enables compiled record readers. These read the fields of a record in a
+   * single loop over a flat program, computed once per writer and reader schema
+   * pair, that decodes primitive fields inline and skips primitive fields the
+   * reader does not need, rather than through a chain of per-field readers.
+   */
+  public FastReaderBuilder withCompiledRecordsEnabled(boolean enabled) {
+    if (enabled != this.compiledRecordsEnabled) {
+      this.compiledRecordsEnabled = enabled;
+      readerCache.clear();
+    }
+    return this;
+  }
+
+  /**
+   * Discards the readers built so far, keeping this builder's settings, e.g.
+   * after how the data model reads strings has changed.
+   */
+  public void clearCache() {
+    readerCache.clear();
+  }
+
+  public boolean isCompiledRecordsEnabled() {
+    return this.compiledRecordsEnabled;
+  }
+
   public <D> DatumReader<D> createDatumReader(Schema schema) throws IOException {
     return createDatumReader(schema, schema);
   }
@@ -131,10 +161,12 @@ public class FastReaderBuilder {
     // initializing it,
     // to prevent endless loops on recursive types
     RecordReader recordReader = getRecordReaderFromCache(action.reader, action.writer);
-    synchronized (recordReader) {
-      // only need to initialize once
-      if (recordReader.getInitializationStage() == Stage.NEW) {
-        initializeRecordReader(recordReader, action);
+    if (recordReader.getInitializationStage() != Stage.INITIALIZED) {
+      synchronized (recordReader) {
+        // only need to initialize once
+        if (recordReader.getInitializationStage() == Stage.NEW) {
+          initializeRecordReader(recordReader, action);
+        }
       }
     }
     return recordReader;
@@ -156,7 +188,14 @@ public class FastReaderBuilder {
     for (; i < action.fieldActions.length; i++) {
       Action fieldAction = action.fieldActions[i];
       if (fieldAction instanceof Skip) {
-        readSteps[i] = (r, decoder) -> GenericDatumReader.skip(fieldAction.writer, decoder);
+        // runs of skipped fields are skipped by the step of their first field
+        int end = i + 1;
+        while (end < action.fieldActions.length && action.fieldActions[end] instanceof Skip) {
+          end++;
+        }
+        readSteps[i] = end - i == 1 ? (r, decoder) -> GenericDatumReader.skip(fieldAction.writer, decoder)
+            : SkipStep.create(action.fieldActions, i, end);
+        i = end - 1;
       } else {
         Field readerField = action.readerOrder[fieldCounter++];
         Conversion<?> conversion = conversionSupplier.apply(readerField.pos());
@@ -170,10 +209,45 @@ public class FastReaderBuilder {
       readSteps[i] = getDefaultingStep(action.readerOrder[fieldCounter++]);
     }
 
+    if (compiledRecordsEnabled) {
+      readSteps = new ExecutionStep[] { compileReadSteps(action, readSteps, conversionSupplier) };
+    } else {
+      readSteps = Arrays.stream(readSteps).filter(Objects::nonNull).toArray(ExecutionStep[]::new);
+    }
+
     recordReader.finishInitialization(readSteps, action.reader, action.instanceSupplier);
     return recordReader;
   }
 
+  /**
+   * Flattens the steps reading a record into a single step. Fields of primitive
+   * types without conversions are read or skipped by the step itself, other
+   * fields and runs of skipped fields by their original step.
+   */
+  private ExecutionStep compileReadSteps(RecordAdjust action, ExecutionStep[] readSteps,
+      IntFunction<Conversion<?>> conversionSupplier) {
+    byte[] ops = new byte[readSteps.length];
+    int[] positions = new int[readSteps.length];
+    int fieldCounter = 0;
+    for (int i = 0; i < action.fieldActions.length; i++) {
+      Action fieldAction = action.fieldActions[i];
+      if (readSteps[i] == null) {
+        ops[i] = CompiledRecordStep.NONE;
+      } else if (fieldAction instanceof Skip) {
+        boolean run = i + 1 < readSteps.length && readSteps[i + 1] == null;
+        ops[i] = run ? CompiledRecordStep.STEP : CompiledRecordStep.skipOp(fieldAction.writer);
+      } else {
+        Field readerField = action.readerOrder[fieldCounter++];
+        positions[i] = readerField.pos();
+        if (fieldAction.type == Action.Type.DO_NOTHING && fieldAction.reader.getLogicalType() == null
+            && conversionSupplier.apply(readerField.pos()) == null) {
+          ops[i] = CompiledRecordStep.readOp(fieldAction.reader);
+        }
+      }
+    }
+    return new CompiledRecordStep(ops, positions, readSteps);
+  }
+
   private ExecutionStep createFieldSetter(Field field, FieldReader reader) {
     int pos = field.pos();
     if (reader.canReuse()) {
@@ -375,6 +449,13 @@ public class FastReaderBuilder {
 
   private FieldReader createSimpleStringReader(Schema readerSchema) {
     String stringProperty = readerSchema.getProp(GenericData.STRING_PROP);
+    if (data.isStringInterned(readerSchema)) {
+      StringDictionary dictionary = data.getStringDictionary();
+      if (GenericData.StringType.String.name().equals(stringProperty)) {
+        return (old, decoder) -> dictionary.readString(decoder);
+      }
+      return (old, decoder) -> dictionary.readUtf8(decoder);
+    }
     if (GenericData.StringType.String.name().equals(stringProperty)) {
       return (old, decoder) -> decoder.readString();
     } else {
@@ -455,6 +536,12 @@ public class FastReaderBuilder {
 
   @SuppressWarnings("unchecked")
   private FieldReader createArrayReader(Schema readerSchema, Container action) throws IOException {
+    if (action.elementAction.type == Action.Type.DO_NOTHING) {
+      FieldReader primitiveReader = createPrimitiveArrayReader(readerSchema);
+      if (primitiveReader != null) {
+        return primitiveReader;
+      }
+    }
     FieldReader elementReader = getReaderFor(action.elementAction, null);
 
     return reusingReader((reuse, decoder) -> {
@@ -473,7 +560,7 @@ public class FastReaderBuilder {
       } else {
         long l = decoder.readArrayStart();
         List<Object> array = (reuse instanceof List) ? (List<Object>) reuse
-            : new GenericData.Array<>((int) l, readerSchema);
+            : (List<Object>) data.newArray(null, (int) l, readerSchema);
         array.clear();
         while (l > 0) {
           for (long i = 0; i < l; i++) {
@@ -486,6 +573,61 @@ public class FastReaderBuilder {
     });
   }
 
+  /**
+   * Returns a reader that decodes arrays of int, long, float or double into
+   * their unboxed {@link PrimitivesArrays} representation, or null if the data
+   * model does not use one for this schema.
+   */
+  private FieldReader createPrimitiveArrayReader(Schema readerSchema) {
+    Object probe = data.newArray(null, 0, readerSchema);
+    if (probe instanceof PrimitivesArrays.LongArray) {
+      return reusingReader((reuse, decoder) -> {
+        long l = decoder.readArrayStart();
+        PrimitivesArrays.LongArray array = (PrimitivesArrays.LongArray) data
+            .newArray(reuse instanceof PrimitivesArrays.LongArray ? reuse : null, (int) l, readerSchema);
+        for (; l > 0; l = decoder.arrayNext()) {
+          array.addLongs(decoder, (int) l);
+        }
+        return array;
+      });
+    } else if (probe instanceof PrimitivesArrays.DoubleArray) {
+      return reusingReader((reuse, decoder) -> {
+        long l = decoder.readArrayStart();
+        PrimitivesArrays.DoubleArray array = (PrimitivesArrays.DoubleArray) data
+            .newArray(reuse instanceof PrimitivesArrays.DoubleArray ? reuse : null, (int) l, readerSchema);
+        for (; l > 0; l = decoder.arrayNext()) {
+          for (long i = 0; i < l; i++) {
+            array.addDouble(decoder.readDouble());
+          }
+        }
+        return array;
+      });
+    } else if (probe instanceof PrimitivesArrays.IntArray) {
+      return reusingReader((reuse, decoder) -> {
+        long l = decoder.readArrayStart();
+        PrimitivesArrays.IntArray array = (PrimitivesArrays.IntArray) data
+            .newArray(reuse instanceof PrimitivesArrays.IntArray ? reuse : null, (int) l, readerSchema);
+        for (; l > 0; l = decoder.arrayNext()) {
+          array.addInts(decoder, (int) l);
+        }
+        return array;
+      });
+    } else if (probe instanceof PrimitivesArrays.FloatArray) {
+      return reusingReader((reuse, decoder) -> {
+        long l = decoder.readArrayStart();
+        PrimitivesArrays.FloatArray array = (PrimitivesArrays.FloatArray) data
+            .newArray(reuse instanceof PrimitivesArrays.FloatArray ? reuse : null, (int) l, readerSchema);
+        for (; l > 0; l = decoder.arrayNext()) {
+          for (long i = 0; i < l; i++) {
+            array.addFloat(decoder.readFloat());
+          }
+        }
+        return array;
+      });
+    }
+    return null;
+  }
+
   private FieldReader createEnumReader(EnumAdjust action) {
     return reusingReader((reuse, decoder) -> {
       int index = decoder.readEnum();
@@ -543,7 +685,9 @@ public class FastReaderBuilder {
     private ExecutionStep[] readSteps;
     private InstanceSupplier supplier;
     private Schema schema;
-    private Stage stage = Stage.NEW;
+    // written last by finishInitialization, so that readers seeing INITIALIZED
+    // without locking also see the steps
+    private volatile Stage stage = Stage.NEW;
 
     public Stage getInitializationStage() {
       return this.stage;
@@ -611,4 +755,227 @@ public class FastReaderBuilder {
     public void execute(Object record, Decoder decoder) throws IOException;
   }
 
+  /**
+   * Reads all fields of a record following a program of one operation per
+   * field, see {@link #withCompiledRecordsEnabled(boolean)}.
+   */
+  private static final class CompiledRecordStep implements ExecutionStep {
+    static final byte STEP = 0;
+    private static final byte READ_INT = 1;
+    private static final byte READ_LONG = 2;
+    private static final byte READ_FLOAT = 3;
+    private static final byte READ_DOUBLE = 4;
+    private static final byte READ_BOOLEAN = 5;
+    private static final byte SKIP_INT = 6;
+    private static final byte SKIP_LONG = 7;
+    private static final byte SKIP_FLOAT = 8;
+    private static final byte SKIP_DOUBLE = 9;
+    private static final byte SKIP_STRING = 10;
+    static final byte NONE = 11;
+
+    private final byte[] ops;
+    private final int[] positions;
+    private final ExecutionStep[] steps;
+
+    CompiledRecordStep(byte[] ops, int[] positions, ExecutionStep[] steps) {
+      this.ops = ops;
+      this.positions = positions;
+      this.steps = steps;
+    }
+
+    static byte readOp(Schema schema) {
+      switch (schema.getType()) {
+      case INT:
+        return READ_INT;
+      case LONG:
+        return READ_LONG;
+      case FLOAT:
+        return READ_FLOAT;
+      case DOUBLE:
+        return READ_DOUBLE;
+      case BOOLEAN:
+        return READ_BOOLEAN;
+      default:
+        return STEP;
+      }
+    }
+
+    static byte skipOp(Schema schema) {
+      switch (schema.getType()) {
+      case INT:
+        return SKIP_INT;
+      case LONG:
+        return SKIP_LONG;
+      case FLOAT:
+        return SKIP_FLOAT;
+      case DOUBLE:
+        return SKIP_DOUBLE;
+      case STRING:
+      case BYTES:
+        return SKIP_STRING;
+      default:
+        return STEP;
+      }
+    }
+
+    @Override
+    public void execute(Object object, Decoder decoder) throws IOException {
+      IndexedRecord record = (IndexedRecord) object;
+      for (int i = 0; i < ops.length; i++) {
+        switch (ops[i]) {
+        case READ_INT:
+          record.put(positions[i], decoder.readInt());
+          break;
+        case READ_LONG:
+          record.put(positions[i], decoder.readLong());
+          break;
+        case READ_FLOAT:
+          record.put(positions[i], decoder.readFloat());
+          break;
+        case READ_DOUBLE:
+          record.put(positions[i], decoder.readDouble());
+          break;
+        case READ_BOOLEAN:
+          record.put(positions[i], decoder.readBoolean());
+          break;
+        case SKIP_INT:
+          decoder.readInt();
+          break;
+        case SKIP_LONG:
+          decoder.readLong();
+          break;
+        case SKIP_FLOAT:
+          decoder.skipFixed(4);
+          break;
+        case SKIP_DOUBLE:
+          decoder.skipFixed(8);
+          break;
+        case SKIP_STRING:
+          decoder.skipString();
+          break;
+        case NONE:
+          break;
+        default:
+          steps[i].execute(object, decoder);
+        }
+      }
+    }
+  }
+
+  /**
+   * Skips a run of consecutive fields of the writer that the reader does not
+   * read. From binary decoders, adjacent fields of fixed width are skipped as a
+   * single span of bytes, adjacent ints, longs and enums without decoding their
+   * values. Other decoders skip field by field.
+   */
+  private static final class SkipStep implements ExecutionStep {
+    private static final byte BYTES = 0;
+    private static final byte VARINTS = 1;
+    private static final byte STRINGS = 2;
+    private static final byte SCHEMA = 3;
+
+    private final byte[] kinds;
+    private final int[] counts;
+    private final Schema[] schemas;
+    private final Schema[] fieldSchemas;
+
+    private SkipStep(byte[] kinds, int[] counts, Schema[] schemas, Schema[] fieldSchemas) {
+      this.kinds = kinds;
+      this.counts = counts;
+      this.schemas = schemas;
+      this.fieldSchemas = fieldSchemas;
+    }
+
+    static SkipStep create(Action[] fieldActions, int from, int to) {
+      byte[] kinds = new byte[to - from];
+      int[] counts = new int[to - from];
+      Schema[] schemas = new Schema[to - from];
+      Schema[] fieldSchemas = new Schema[to - from];
+      int spans = 0;
+      for (int i = from; i < to; i++) {
+        Schema schema = fieldActions[i].writer;
+        fieldSchemas[i - from] = schema;
+        int width = fixedWidth(schema);
+        byte kind;
+        int count = 1;
+        if (width >= 0) {
+          kind = BYTES;
+          count = width;
+        } else if (schema.getType() == Schema.Type.INT || schema.getType() == Schema.Type.LONG
+            || schema.getType() == Schema.Type.ENUM) {
+          kind = VARINTS;
+        } else if (schema.getType() == Schema.Type.STRING || schema.getType() == Schema.Type.BYTES) {
+          kind = STRINGS;
+        } else {
+          kind = SCHEMA;
+        }
+        if (spans > 0 && kind != SCHEMA && kinds[spans - 1] == kind) {
+          counts[spans - 1] += count;
+        } else {
+          kinds[spans] = kind;
+          counts[spans] = count;
+          schemas[spans] = schema;
+          spans++;
+        }
+      }
+      return new SkipStep(Arrays.copyOf(kinds, spans), Arrays.copyOf(counts, spans), Arrays.copyOf(schemas, spans),
+          fieldSchemas);
+    }
+
+    /** Returns the encoded size of values of a schema, or -1 if it varies. */
+    private static int fixedWidth(Schema schema) {
+      switch (schema.getType()) {
+      case NULL:
+        return 0;
+      case BOOLEAN:
+        return 1;
+      case FLOAT:
+        return 4;
+      case DOUBLE:
+        return 8;
+      case FIXED:
+        return schema.getFixedSize();
+      case RECORD:
+        int width = 0;
+        for (Field field : schema.getFields()) {
+          int fieldWidth = fixedWidth(field.schema());
+          if (fieldWidth < 0) {
+            return -1;
+          }
+          width += fieldWidth;
+        }
+        return width;
+      default:
+        return -1;
+      }
+    }
+
+    @Override
+    public void execute(Object record, Decoder decoder) throws IOException {
+      if (!(decoder instanceof BinaryDecoder)) {
+        for (Schema schema : fieldSchemas) {
+          GenericDatumReader.skip(schema, decoder);
+        }
+        return;
+      }
+      BinaryDecoder in = (BinaryDecoder) decoder;
+      for (int i = 0; i < kinds.length; i++) {
+        switch (kinds[i]) {
+        case BYTES:
+          in.skipFixed(counts[i]);
+          break;
+        case VARINTS:
+          in.skipVarints(counts[i]);
+          break;
+        case STRINGS:
+          for (int j = 0; j < counts[i]; j++) {
+            in.skipString();
+          }
+          break;
+        default:
+          GenericDatumReader.skip(schemas[i], in);
+        }
+      }
+    }
+  }
 }
@@ -0,0 +1,369 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.avro.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.avro.AvroTypeException;
+import org.apache.avro.Conversion;
+import org.apache.avro.Conversions;
+import org.apache.avro.LogicalType;
+import org.apache.avro.Schema;
+import org.apache.avro.Schema.Field;
+import org.apache.avro.UnresolvedUnionException;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericEnumSymbol;
+import org.apache.avro.generic.GenericFixed;
+import org.apache.avro.generic.PrimitivesArrays;
+import org.apache.avro.specific.SpecificData;
+import org.apache.avro.specific.SpecificRecordBase;
+import org.apache.avro.util.WeakIdentityHashMap;
+
+/**
+ * Builds {@link DatumWriter}s that write the way
+ * {@link org.apache.avro.generic.GenericDatumWriter} and
+ * {@link org.apache.avro.specific.SpecificDatumWriter} do, from writers
+ * computed once per schema: the type of each value, the conversions of logical
+ * types and the fields of records are resolved when the writer is built rather
+ * than for each datum. Unions of null and one other type select their branch
+ * with a null check.
+ * <p/>
+ * Custom coders of specific records are not used, as they produce the same
+ * encoding. With {@link SpecificData}, values of string schemas that are not
+ * {@link CharSequence}s are written with {@link Object#toString()}.
+ *
+ * @see FastReaderBuilder
+ * @see GenericData#setFastWriterEnabled(boolean)
+ */
+public class FastWriterBuilder {
+
+  /**
+   * Generic/SpecificData instance that contains basic functionalities like
+   * access to fields and conversions
+   */
+  private final GenericData data;
+
+  private final Map<Schema, RecordWriter> writerCache = new WeakIdentityHashMap<>();
+
+  public static FastWriterBuilder get() {
+    return new FastWriterBuilder(GenericData.get());
+  }
+
+  public static FastWriterBuilder getSpecific() {
+    return new FastWriterBuilder(SpecificData.get());
+  }
+
+  public static boolean isSupportedData(GenericData data) {
+    return FastReaderBuilder.isSupportedData(data);
+  }
+
+  public FastWriterBuilder(GenericData parentData) {
+    this.data = parentData;
+  }
+
+  @SuppressWarnings("unchecked")
+  public <D> DatumWriter<D> createDatumWriter(Schema schema) {
+    return (DatumWriter<D>) getWriterFor(schema, null);
+  }
+
+  private FieldWriter getWriterFor(Schema schema, Conversion<?> explicitConversion) {
+    FieldWriter baseWriter = getNonConvertedWriter(schema);
+    return applyConversions(schema, baseWriter, explicitConversion);
+  }
+
+  private FieldWriter applyConversions(Schema schema, FieldWriter writer, Conversion<?> explicitConversion) {
+    LogicalType logicalType = schema.getLogicalType();
+    if (logicalType == null) {
+      return writer;
+    }
+    if (explicitConversion != null) {
+      return (datum, out) -> writer.write(convert(datum, schema, logicalType, explicitConversion), out);
+    }
+    // the conversion depends on the class of the datum, see
+    // GenericDatumWriter.write(Schema, Object, Encoder)
+    ClassValue<Conversion<?>> conversions = new ClassValue<Conversion<?>>() {
+      @Override
+      protected Conversion<?> computeValue(Class<?> type) {
+        return data.getConversionByClass(type, logicalType);
+      }
+    };
+    return (datum, out) -> {
+      if (datum != null) {
+        Conversion<?> conversion = conversions.get(datum.getClass());
+        if (conversion != null) {
+          datum = convert(datum, schema, logicalType, conversion);
+        }
+      }
+      writer.write(datum, out);
+    };
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <T> Object convert(Object datum, Schema schema, LogicalType logicalType, Conversion<T> conversion) {
+    return Conversions.convertToRawType(datum, schema, logicalType, conversion);
+  }
+
+  private FieldWriter getNonConvertedWriter(Schema schema) {
+    switch (schema.getType()) {
+    case RECORD:
+      return createRecordWriter(schema);
+    case ENUM:
+      return createEnumWriter(schema);
+    case ARRAY:
+      return createArrayWriter(schema);
+    case MAP:
+      return createMapWriter(schema);
+    case UNION:
+      return createUnionWriter(schema);
+    case FIXED:
+      int size = schema.getFixedSize();
+      return (datum, out) -> out.writeFixed(((GenericFixed) datum).bytes(), 0, size);
+    case STRING:
+      return createStringWriter();
+    case BYTES:
+      return (datum, out) -> out.writeBytes((ByteBuffer) datum);
+    case INT:
+      return (datum, out) -> out.writeInt(((Number) datum).intValue());
+    case LONG:
+      return (datum, out) -> out.writeLong(((Number) datum).longValue());
+    case FLOAT:
+      return (datum, out) -> out.writeFloat(((Number) datum).floatValue());
+    case DOUBLE:
+      return (datum, out) -> out.writeDouble(((Number) datum).doubleValue());
+    case BOOLEAN:
+      return (datum, out) -> out.writeBoolean((Boolean) datum);
+    case NULL:
+      return (datum, out) -> out.writeNull();
+    default:
+      throw new IllegalStateException("Error getting writer for type " + schema.getFullName());
+    }
+  }
+
+  private RecordWriter createRecordWriter(Schema schema) {
+    // record writers are created in a two-step process, first registering it,
+    // then initializing it, to prevent endless loops on recursive types
+    RecordWriter recordWriter = writerCache.computeIfAbsent(schema, k -> new RecordWriter());
+    synchronized (recordWriter) {
+      // only need to initialize once
+      if (!recordWriter.initializationStarted) {
+        initializeRecordWriter(recordWriter, schema);
+      }
+    }
+    return recordWriter;
+  }
+
+  private void initializeRecordWriter(RecordWriter recordWriter, Schema schema) {
+    recordWriter.initializationStarted = true;
+    Object testInstance = data.newRecord(null, schema);
+    boolean specific = testInstance instanceof SpecificRecordBase;
+
+    List<Field> fields = schema.getFields();
+    Field[] writerFields = fields.toArray(new Field[0]);
+    FieldWriter[] fieldWriters = new FieldWriter[writerFields.length];
+    for (int i = 0; i < writerFields.length; i++) {
+      Schema fieldSchema = writerFields[i].schema();
+      if (specific) {
+        // specific records use their own conversions for their fields, if any
+        Conversion<?> conversion = ((SpecificRecordBase) testInstance).getConversion(i);
+        fieldWriters[i] = conversion != null ? getWriterFor(fieldSchema, conversion)
+            : getNonConvertedWriter(fieldSchema);
+      } else {
+        fieldWriters[i] = getWriterFor(fieldSchema, null);
+      }
+    }
+    recordWriter.finishInitialization(writerFields, fieldWriters, data);
+  }
+
+  private FieldWriter createEnumWriter(Schema schema) {
+    boolean specific = data instanceof SpecificData;
+    return (datum, out) -> {
+      if (specific && datum instanceof Enum) {
+        out.writeEnum(((Enum<?>) datum).ordinal());
+        return;
+      }
+      if (!(datum instanceof GenericEnumSymbol))
+        throw new AvroTypeException("Not an enum: " + datum + " for schema: " + schema);
+      out.writeEnum(schema.getEnumOrdinal(datum.toString()));
+    };
+  }
+
+  private FieldWriter createStringWriter() {
+    if (data instanceof SpecificData) {
+      return (datum, out) -> out
+          .writeString(datum instanceof CharSequence ? (CharSequence) datum : datum.toString());
+    }
+    return (datum, out) -> out.writeString((CharSequence) datum);
+  }
+
+  @SuppressWarnings("unchecked")
+  private FieldWriter createArrayWriter(Schema schema) {
+    Schema element = schema.getElementType();
+    FieldWriter elementWriter = getWriterFor(element, null);
+    FieldWriter primitiveWriter = createPrimitiveArrayWriter(element);
+    return (datum, out) -> {
+      if (primitiveWriter != null && datum instanceof PrimitivesArrays.PrimitiveArray) {
+        primitiveWriter.write(datum, out);
+        return;
+      }
+      Collection<Object> array = (Collection<Object>) datum;
+      long size = array.size();
+      long actualSize = 0;
+      out.writeArrayStart();
+      out.setItemCount(size);
+      for (Object item : array) {
+        out.startItem();
+        elementWriter.write(item, out);
+        actualSize++;
+      }
+      out.writeArrayEnd();
+      if (actualSize != size) {
+        throw new ConcurrentModificationException(
+            "Size of array written was " + size + ", but number of elements written was " + actualSize + ". ");
+      }
+    };
+  }
+
+  /**
+   * Returns a writer for the {@link PrimitivesArrays} representation of arrays
+   * of the given element schema, or null if it has none.
+   */
+  private FieldWriter createPrimitiveArrayWriter(Schema element) {
+    if (element.getLogicalType() != null) {
+      return null;
+    }
+    Class<?> arrayClass;
+    switch (element.getType()) {
+    case INT:
+      arrayClass = PrimitivesArrays.IntArray.class;
+      break;
+    case LONG:
+      arrayClass = PrimitivesArrays.LongArray.class;
+      break;
+    case FLOAT:
+      arrayClass = PrimitivesArrays.FloatArray.class;
+      break;
+    case DOUBLE:
+      arrayClass = PrimitivesArrays.DoubleArray.class;
+      break;
+    default:
+      return null;
+    }
+    return (datum, out) -> {
+      PrimitivesArrays.PrimitiveArray<?> array = (PrimitivesArrays.PrimitiveArray<?>) arrayClass.cast(datum);
+      out.writeArrayStart();
+      out.setItemCount(array.size());
+      array.writeItems(out);
+      out.writeArrayEnd();
+    };
+  }
+
+  @SuppressWarnings("unchecked")
+  private FieldWriter createMapWriter(Schema schema) {
+    FieldWriter valueWriter = getWriterFor(schema.getValueType(), null);
+    return (datum, out) -> {
+      Map<Object, Object> map = (Map<Object, Object>) datum;
+      int size = map.size();
+      int actualSize = 0;
+      out.writeMapStart();
+      out.setItemCount(size);
+      for (Map.Entry<Object, Object> entry : map.entrySet()) {
+        out.startItem();
+        out.writeString(entry.getKey().toString());
+        valueWriter.write(entry.getValue(), out);
+        actualSize++;
+      }
+      out.writeMapEnd();
+      if (actualSize != size) {
+        throw new ConcurrentModificationException(
+            "Size of map written was " + size + ", but number of entries written was " + actualSize + ". ");
+      }
+    };
+  }
+
+  private FieldWriter createUnionWriter(Schema schema) {
+    List<Schema> types = schema.getTypes();
+    FieldWriter[] branchWriters = new FieldWriter[types.size()];
+    for (int i = 0; i < branchWriters.length; i++) {
+      branchWriters[i] = getWriterFor(types.get(i), null);
+    }
+    Integer nullIndex = schema.getIndexNamed(Schema.Type.NULL.getName());
+    int nullBranch = nullIndex == null ? -1 : nullIndex;
+    return (datum, out) -> {
+      // resolve before writing the index, so a datum matching no branch fails
+      // with UnresolvedUnionException and nothing is written
+      int index = datum == null && nullBranch >= 0 ? nullBranch : data.resolveUnion(schema, datum);
+      out.writeIndex(index);
+      branchWriters[index].write(datum, out);
+    };
+  }
+
+  public interface FieldWriter extends DatumWriter<Object> {
+    @Override
+    public void write(Object datum, Encoder out) throws IOException;
+
+    @Override
+    default void setSchema(Schema schema) {
+      throw new UnsupportedOperationException();
+    }
+  }
+
+  public static class RecordWriter implements FieldWriter {
+    private Field[] fields;
+    private FieldWriter[] fieldWriters;
+    private GenericData data;
+    private boolean initializationStarted;
+
+    void finishInitialization(Field[] fields, FieldWriter[] fieldWriters, GenericData data) {
+      this.fields = fields;
+      this.fieldWriters = fieldWriters;
+      this.data = data;
+    }
+
+    @Override
+    public void write(Object datum, Encoder out) throws IOException {
+      for (int i = 0; i < fields.length; i++) {
+        Field f = fields[i];
+        Object value = data.getField(datum, f.name(), i);
+        try {
+          fieldWriters[i].write(value, out);
+        } catch (final UnresolvedUnionException uue) { // recreate it with the right field info
+          final UnresolvedUnionException unresolvedUnionException = new UnresolvedUnionException(f.schema(), f, value);
+          unresolvedUnionException.addSuppressed(uue);
+          throw unresolvedUnionException;
+        } catch (NullPointerException e) {
+          NullPointerException result = new NullPointerException(e.getMessage() + " in field " + f.name());
+          result.initCause(e.getCause() == null ? e : e.getCause());
+          throw result;
+        } catch (ClassCastException e) {
+          ClassCastException result = new ClassCastException(e.getMessage() + " in field " + f.name());
+          result.initCause(e.getCause() == null ? e : e.getCause());
+          throw result;
+        } catch (AvroTypeException e) {
+          AvroTypeException result = new AvroTypeException(e.getMessage() + " in field " + f.name());
+          result.initCause(e.getCause() == null ? e : e.getCause());
+          throw result;
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,362 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.avro.io;
+
+import java.io.EOFException;
+import java.io.IOException;
+
+import org.apache.avro.AvroRuntimeException;
+import org.apache.avro.InvalidNumberEncodingException;
+import org.apache.avro.Schema;
+import org.apache.avro.Schema.Field;
+
+/**
+ * Byte-comparable prefixes of binary-encoded data, to speed up
+ * {@link BinaryData#compare(byte[], int, int, byte[], int, int, Schema)}.
+ * <p/>
+ * The normalized key of a datum is a fixed number of bytes such that comparing
+ * the keys of two datums as unsigned bytes orders them as the datums
+ * themselves, honoring the sort order of record fields. It holds, in schema
+ * order, the values of the fields that are not ignored: numbers in big-endian
+ * order with their sign flipped, union branch indexes, a marker before each
+ * array element and after the last, fixed values, and the leading bytes of the
+ * first string or bytes value, after which the key is padded. When keys differ
+ * their order is that of the datums. When they are equal the datums are only
+ * known to be equal if both keys are complete, that is, held every value;
+ * otherwise {@link #compare(byte[], int, int, byte[], int, int)} falls back to
+ * comparing the encoded datums in full, with the {@link BinaryComparator} of the
+ * schema.
+ * <p/>
+ * Instances are thread-safe.
+ */
+public class NormalizedKey {
+  /** The default length of keys, in bytes. */
+  public static final int DEFAULT_LENGTH = 16;
+
+  private static final ThreadLocal<KeyWriter> WRITERS = ThreadLocal.withInitial(KeyWriter::new);
+
+  private final Schema schema;
+  private final int length;
+  private final BinaryComparator comparator;
+
+  /** Creates keys of {@link #DEFAULT_LENGTH} bytes for datums of a schema. */
+  public NormalizedKey(Schema schema) {
+    this(schema, DEFAULT_LENGTH);
+  }
+
+  /** Creates keys of <i>length</i> bytes for datums of a schema. */
+  public NormalizedKey(Schema schema, int length) {
+    if (length <= 0)
+      throw new IllegalArgumentException("Key length must be positive: " + length);
+    this.schema = schema;
+    this.length = length;
+    this.comparator = BinaryComparator.get(schema);
+  }
+
+  public Schema getSchema() {
+    return schema;
+  }
+
+  /** Returns the length of keys, in bytes. */
+  public int getLength() {
+    return length;
+  }
+
+  /**
+   * Writes the key of the datum encoded in <i>b</i> from <i>s</i> to
+   * <i>s</i> + <i>l</i> into <i>key</i>, at <i>off</i>.
+   *
+   * @return true if the key is complete: datums with equal complete keys are
+   *         equal
+   */
+  public boolean write(byte[] b, int s, int l, byte[] key, int off) {
+    try {
+      return WRITERS.get().write(schema, b, s, l, key, off, length);
+    } catch (IOException e) {
+      throw new AvroRuntimeException(e);
+    }
+  }
+
+  /**
+   * Compares binary encoded data as
+   * {@link BinaryData#compare(byte[], int, int, byte[], int, int, Schema)}
+   * does: by their keys, and in full only if the keys cannot tell.
+   */
+  public int compare(byte[] b1, int s1, int l1, byte[] b2, int s2, int l2) {
+    KeyWriter writer = WRITERS.get();
+    byte[] key = writer.keys(length);
+    try {
+      boolean complete1 = writer.write(schema, b1, s1, l1, key, 0, length);
+      boolean complete2 = writer.write(schema, b2, s2, l2, key, length, length);
+      int c = BinaryData.compareBytes(key, 0, length, key, length, length);
+      if (c != 0 || (complete1 && complete2)) {
+        return c;
+      }
+    } catch (IOException e) {
+      // malformed data: let the full comparison report it
+    }
+    return comparator.compare(b1, s1, l1, b2, s2, l2);
+  }
+
+  /** Reads encoded data straight from a byte array and writes its key. */
+  private static class KeyWriter {
+    private byte[] keys = new byte[2 * DEFAULT_LENGTH];
+    private byte[] in;
+    private int pos;
+    private int limit;
+    private byte[] key;
+    private int k;
+    private int keyEnd;
+    private boolean complete;
+
+    /** Returns a buffer for two keys of <i>length</i> bytes. */
+    byte[] keys(int length) {
+      if (keys.length < 2 * length) {
+        keys = new byte[2 * length];
+      }
+      return keys;
+    }
+
+    boolean write(Schema schema, byte[] b, int s, int l, byte[] key, int off, int length) throws IOException {
+      this.in = b;
+      this.pos = s;
+      this.limit = s + l;
+      this.key = key;
+      this.k = off;
+      this.keyEnd = off + length;
+      this.complete = true;
+      try {
+        append(schema, false);
+        pad(false);
+        return complete;
+      } finally {
+        this.in = null;
+        this.key = null;
+      }
+    }
+
+    /**
+     * Appends the key of a value. Returns false if the key was ended by it, so no
+     * more values are appended.
+     */
+    private boolean append(Schema schema, boolean descending) throws IOException {
+      switch (schema.getType()) {
+      case RECORD:
+        for (Field field : schema.getFields()) {
+          if (field.order() == Field.Order.IGNORE) {
+            skip(field.schema());
+          } else if (!append(field.schema(), descending ^ (field.order() == Field.Order.DESCENDING))) {
+            return false;
+          }
+        }
+        return true;
+      case ENUM:
+      case INT:
+        return put(readInt() ^ 0x80000000L, 4, descending);
+      case LONG:
+        return put(readLong() ^ Long.MIN_VALUE, 8, descending);
+      case FLOAT: {
+        int bits = Float.floatToIntBits(Float.intBitsToFloat((int) readFixed(4)));
+        return put((bits ^ ((bits >> 31) | 0x80000000)) & 0xffffffffL, 4, descending);
+      }
+      case DOUBLE: {
+        long bits = Double.doubleToLongBits(Double.longBitsToDouble(readFixed(8)));
+        return put(bits ^ ((bits >> 63) | Long.MIN_VALUE), 8, descending);
+      }
+      case BOOLEAN:
+        return put(readByte(), 1, descending);
+      case NULL:
+        return true;
+      case UNION: {
+        int index = readInt();
+        if (index < 0 || index >= schema.getTypes().size())
+          throw new IOException("Invalid union index: " + index);
+        return put(index, schema.getTypes().size() <= 256 ? 1 : 4, descending)
+            && append(schema.getTypes().get(index), descending);
+      }
+      case FIXED:
+        return putBytes(schema.getFixedSize(), descending);
+      case STRING:
+      case BYTES:
+        // the key cannot tell the end of the value from the values after it
+        putBytes(readLength(), descending);
+        complete = false;
+        pad(descending);
+        return false;
+      case ARRAY:
+        for (long count = readLong(); count != 0; count = readLong()) {
+          if (count < 0) {
+            count = -count;
+            readLong(); // the size of the block in bytes
+          }
+          for (long i = 0; i < count; i++) {
+            if (!put(1, 1, descending) || !append(schema.getElementType(), descending)) {
+              return false;
+            }
+          }
+        }
+        return put(0, 1, descending);
+      default: // MAP
+        complete = false;
+        pad(descending);
+        return false;
+      }
+    }
+
+    /** Appends the <i>size</i> low-order bytes of <i>value</i>, big-endian. */
+    private boolean put(long value, int size, boolean descending) {
+      long mask = descending ? -1L : 0L;
+      for (int shift = (size - 1) << 3; shift >= 0; shift -= 8) {
+        if (k == keyEnd) {
+          complete = false;
+          return false;
+        }
+        key[k++] = (byte) ((value ^ mask) >>> shift);
+      }
+      return true;
+    }
+
+    /** Appends the next <i>length</i> bytes of the input. */
+    private boolean putBytes(int length, boolean descending) throws IOException {
+      if (length > limit - pos)
+        throw new EOFException();
+      int mask = descending ? 0xff : 0;
+      int n = Math.min(length, keyEnd - k);
+      for (int i = 0; i < n; i++) {
+        key[k++] = (byte) (in[pos + i] ^ mask);
+      }
+      pos += length;
+      if (n < length) {
+        complete = false;
+        return false;
+      }
+      return true;
+    }
+
+    private void pad(boolean descending) {
+      byte b = (byte) (descending ? 0xff : 0);
+      while (k < keyEnd) {
+        key[k++] = b;
+      }
+    }
+
+    private void skip(Schema schema) throws IOException {
+      switch (schema.getType()) {
+      case RECORD:
+        for (Field field : schema.getFields()) {
+          skip(field.schema());
+        }
+        break;
+      case ENUM:
+      case INT:
+      case LONG:
+        readLong();
+        break;
+      case FLOAT:
+        skipBytes(4);
+        break;
+      case DOUBLE:
+        skipBytes(8);
+        break;
+      case BOOLEAN:
+        skipBytes(1);
+        break;
+      case NULL:
+        break;
+      case UNION: {
+        int index = readInt();
+        if (index < 0 || index >= schema.getTypes().size())
+          throw new IOException("Invalid union index: " + index);
+        skip(schema.getTypes().get(index));
+        break;
+      }
+      case FIXED:
+        skipBytes(schema.getFixedSize());
+        break;
+      case STRING:
+      case BYTES:
+        skipBytes(readLength());
+        break;
+      default: // ARRAY, MAP
+        for (long count = readLong(); count != 0; count = readLong()) {
+          if (count < 0) {
+            skipBytes(readLength()); // the block has its size in bytes
+            continue;
+          }
+          for (long i = 0; i < count; i++) {
+            if (schema.getType() == Schema.Type.MAP) {
+              skipBytes(readLength());
+              skip(schema.getValueType());
+            } else {
+              skip(schema.getElementType());
+            }
+          }
+        }
+      }
+    }
+
+    private void skipBytes(int length) throws IOException {
+      if (length > limit - pos)
+        throw new EOFException();
+      pos += length;
+    }
+
+    private int readByte() throws IOException {
+      if (pos >= limit)
+        throw new EOFException();
+      return in[pos++] & 0xff;
+    }
+
+    private int readLength() throws IOException {
+      long length = readLong();
+      if (length < 0 || length > limit - pos)
+        throw new IOException("Malformed data. Invalid length: " + length);
+      return (int) length;
+    }
+
+    private int readInt() throws IOException {
+      long n = readLong();
+      if (n != (int) n)
+        throw new InvalidNumberEncodingException("Invalid int encoding");
+      return (int) n;
+    }
+
+    private long readLong() throws IOException {
+      long n = 0;
+      for (int shift = 0; shift < 64; shift += 7) {
+        int b = readByte();
+        n |= (b & 0x7FL) << shift;
+        if ((b & 0x80) == 0) {
+          return (n >>> 1) ^ -(n & 1); // back to two's-complement
+        }
+      }
+      throw new InvalidNumberEncodingException("Invalid long encoding");
+    }
+
+    /** Reads a little-endian value of <i>size</i> bytes. */
+    private long readFixed(int size) throws IOException {
+      if (size > limit - pos)
+        throw new EOFException();
+      long n = 0;
+      for (int i = 0; i < size; i++) {
+        n |= (in[pos++] & 0xffL) << (i << 3);
+      }
+      return n;
+    }
+  }
+}
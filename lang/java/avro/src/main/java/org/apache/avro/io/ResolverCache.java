@@ -0,0 +1,195 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.avro.io;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.avro.Schema;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A bounded cache of the resolvers of {@link ResolvingDecoder}s, shared by all
+ * threads. A resolver is the immutable grammar that resolves data written with
+ * one schema to another; computing it is expensive. Decoders created by
+ * {@link #resolvingDecoder(Schema, Schema, Decoder)} share the cached resolver
+ * and only hold their own parser state.
+ * <p/>
+ * Schemas are compared by identity. When the cache is full, the resolver of a
+ * pair of schemas that was not used since the last eviction pass is evicted.
+ * The cache holds its schemas strongly, so its size bounds the number of
+ * schemas it keeps alive.
+ * <p/>
+ * The size of the shared instance, {@link #get()}, is set by the system
+ * property {@value #MAX_SIZE_PROPERTY} and defaults to
+ * {@value #DEFAULT_MAX_SIZE}.
+ */
+public class ResolverCache {
+  public static final String MAX_SIZE_PROPERTY = "org.apache.avro.resolvercache.maxSize";
+  public static final int DEFAULT_MAX_SIZE = 1024;
+
+  private static final ResolverCache DEFAULT_CACHE = new ResolverCache(defaultMaxSize());
+
+  private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+  private final int maxSize;
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+
+  /** Returns the cache shared by the readers of this process. */
+  public static ResolverCache get() {
+    return DEFAULT_CACHE;
+  }
+
+  private static int defaultMaxSize() {
+    String o = System.getProperty(MAX_SIZE_PROPERTY);
+    if (o != null) {
+      try {
+        return Integer.parseUnsignedInt(o);
+      } catch (NumberFormatException nfe) {
+        LoggerFactory.getLogger(ResolverCache.class).warn("Could not parse property " + MAX_SIZE_PROPERTY + ": " + o,
+            nfe);
+      }
+    }
+    return DEFAULT_MAX_SIZE;
+  }
+
+  /** Creates a cache that holds the resolvers of up to <i>maxSize</i> pairs. */
+  public ResolverCache(int maxSize) {
+    if (maxSize < 1)
+      throw new IllegalArgumentException("Invalid cache size: " + maxSize);
+    this.maxSize = maxSize;
+  }
+
+  /**
+   * Returns the resolver of data written with <i>writer</i> to <i>reader</i>,
+   * after applying the aliases of <i>reader</i> to <i>writer</i>, as by
+   * {@link ResolvingDecoder#resolve(Schema, Schema)}.
+   */
+  public Object getResolver(Schema writer, Schema reader) throws IOException {
+    Key key = new Key(writer, reader);
+    Entry entry = entries.get(key);
+    if (entry != null) {
+      hits.increment();
+      if (!entry.used) {
+        entry.used = true;
+      }
+      return entry.resolver;
+    }
+    misses.increment();
+    // computed outside of the map, so that other lookups never wait for it
+    Entry computed = new Entry(ResolvingDecoder.resolve(Schema.applyAliases(writer, reader), reader));
+    entry = entries.putIfAbsent(key, computed);
+    if (entry != null) {
+      return entry.resolver;
+    }
+    if (entries.size() > maxSize) {
+      evict();
+    }
+    return computed.resolver;
+  }
+
+  /**
+   * Creates a decoder that resolves data from <i>in</i> written with
+   * <i>writer</i> to <i>reader</i>, using the cached resolver.
+   */
+  public ResolvingDecoder resolvingDecoder(Schema writer, Schema reader, Decoder in) throws IOException {
+    return new ResolvingDecoder(getResolver(writer, reader), in);
+  }
+
+  private void evict() {
+    // two passes at most: the first may only clear the used flags
+    for (int pass = 0; pass < 2 && entries.size() > maxSize; pass++) {
+      Iterator<Map.Entry<Key, Entry>> i = entries.entrySet().iterator();
+      while (i.hasNext() && entries.size() > maxSize) {
+        Map.Entry<Key, Entry> e = i.next();
+        Entry entry = e.getValue();
+        if (entry.used) {
+          entry.used = false;
+        } else if (entries.remove(e.getKey(), entry)) {
+          evictions.increment();
+        }
+      }
+    }
+  }
+
+  /** Returns the number of lookups that found a cached resolver. */
+  public long getHitCount() {
+    return hits.sum();
+  }
+
+  /** Returns the number of lookups that computed a resolver. */
+  public long getMissCount() {
+    return misses.sum();
+  }
+
+  /** Returns the number of resolvers evicted to keep the cache bounded. */
+  public long getEvictionCount() {
+    return evictions.sum();
+  }
+
+  /** Returns the number of cached resolvers. */
+  public int size() {
+    return entries.size();
+  }
+
+  public int getMaxSize() {
+    return maxSize;
+  }
+
+  /** Removes all cached resolvers. Counters are not reset. */
+  public void clear() {
+    entries.clear();
+  }
+
+  private static final class Entry {
+    private final Object resolver;
+    private volatile boolean used;
+
+    Entry(Object resolver) {
+      this.resolver = resolver;
+    }
+  }
+
+  private static final class Key {
+    private final Schema writer;
+    private final Schema reader;
+
+    Key(Schema writer, Schema reader) {
+      this.writer = writer;
+      this.reader = reader;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (!(o instanceof Key)) {
+        return false;
+      }
+      Key that = (Key) o;
+      return writer == that.writer && reader == that.reader;
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * System.identityHashCode(writer) + System.identityHashCode(reader);
+    }
+  }
+}
@@ -26,6 +26,8 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -47,7 +49,10 @@ import java.util.concurrent.ConcurrentHashMap;
  */
 public class BinaryMessageDecoder<D> extends MessageDecoder.BaseDecoder<D> {
 
-  private static final ThreadLocal<byte[]> HEADER_BUFFER = ThreadLocal.withInitial(() -> new byte[10]);
+  // the V1 header bytes and the schema fingerprint
+  private static final int HEADER_LENGTH = 10;
+
+  private static final ThreadLocal<byte[]> HEADER_BUFFER = ThreadLocal.withInitial(() -> new byte[HEADER_LENGTH]);
 
   private static final ThreadLocal<ByteBuffer> FP_BUFFER = ThreadLocal.withInitial(() -> {
     byte[] header = HEADER_BUFFER.get();
@@ -161,6 +166,40 @@ public class BinaryMessageDecoder<D> extends MessageDecoder.BaseDecoder<D> {
     return decoder.decode(stream, reuse);
   }
 
+  /**
+   * Decodes the datums of a batch straight from its buffer. The decoder for a
+   * fingerprint is looked up once for each run of messages written with the same
+   * schema.
+   */
+  @Override
+  public List<D> decodeBatch(MessageBatch batch, List<D> reuse) throws IOException {
+    ByteBuffer buffer = batch.getBuffer().duplicate().order(ByteOrder.LITTLE_ENDIAN);
+    int size = batch.size();
+    List<D> datums = new ArrayList<>(size);
+    long lastFp = 0;
+    RawMessageDecoder<D> decoder = null;
+    for (int i = 0; i < size; i++) {
+      int start = batch.getOffset(i);
+      int end = batch.getOffset(i + 1);
+      if (end - start < HEADER_LENGTH) {
+        throw new BadHeaderException("Not enough header bytes");
+      }
+      if (BinaryMessageEncoder.V1_HEADER[0] != buffer.get(start)
+          || BinaryMessageEncoder.V1_HEADER[1] != buffer.get(start + 1)) {
+        throw new BadHeaderException(
+            String.format("Unrecognized header bytes: 0x%02X 0x%02X", buffer.get(start), buffer.get(start + 1)));
+      }
+      long fp = buffer.getLong(start + 2);
+      if (decoder == null || fp != lastFp) {
+        decoder = getDecoder(fp);
+        lastFp = fp;
+      }
+      D old = reuse != null && i < reuse.size() ? reuse.get(i) : null;
+      datums.add(decoder.decode(buffer, start + HEADER_LENGTH, end, old));
+    }
+    return datums;
+  }
+
   /**
    * Reads a buffer from a stream, making multiple read calls if necessary.
    *
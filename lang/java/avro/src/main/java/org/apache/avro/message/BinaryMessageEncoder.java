@@ -27,6 +27,7 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
 import java.security.NoSuchAlgorithmException;
+import java.util.List;
 
 /**
  * A {@link MessageEncoder} that adds a header and 8-byte schema fingerprint to
@@ -88,6 +89,16 @@ public class BinaryMessageEncoder<D> implements MessageEncoder<D> {
     writeCodec.encode(datum, stream);
   }
 
+  @Override
+  public int encode(D datum, ByteBuffer target) throws IOException {
+    return writeCodec.encode(datum, target);
+  }
+
+  @Override
+  public MessageBatch encodeBatch(List<D> datums) throws IOException {
+    return writeCodec.encodeBatch(datums);
+  }
+
   /**
    * This is a RawDatumEncoder that adds the V1 header to the outgoing buffer.
    * BinaryDatumEncoder wraps this class to avoid confusion over what it does. It
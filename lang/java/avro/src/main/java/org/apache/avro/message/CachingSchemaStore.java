@@ -0,0 +1,151 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.avro.message;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaNormalization;
+
+/**
+ * A {@link SchemaStore} that caches the schemas found by another, slower store,
+ * such as a schema registry client.
+ * <p>
+ * Found schemas are kept and read without locking. Fingerprints the store does
+ * not know are remembered for a limited time, so that messages with an unknown
+ * fingerprint do not query the store for each message. Concurrent lookups of
+ * the same fingerprint wait for a single query of the store.
+ * <p>
+ * This class is thread-safe.
+ */
+public class CachingSchemaStore implements SchemaStore {
+  // above this number of unknown fingerprints, the expired ones are purged
+  private static final int MAX_MISSES = 10000;
+
+  private final SchemaStore store;
+  private final long missTtlNanos;
+  private final LongSupplier clock;
+  private final Map<Long, Schema> schemas = new ConcurrentHashMap<>();
+  // unknown fingerprints, with the time they expire at
+  private final Map<Long, Long> misses = new ConcurrentHashMap<>();
+  private final Map<Long, CompletableFuture<Schema>> lookups = new ConcurrentHashMap<>();
+
+  /**
+   * Creates a cache of the schemas of <i>store</i> that remembers unknown
+   * fingerprints for <i>missTtl</i>.
+   *
+   * @param store   the {@link SchemaStore} to query for fingerprints not cached
+   * @param missTtl how long a fingerprint the store does not know is not queried
+   *                again, may be 0
+   * @param unit    the unit of <i>missTtl</i>
+   */
+  public CachingSchemaStore(SchemaStore store, long missTtl, TimeUnit unit) {
+    this(store, missTtl, unit, System::nanoTime);
+  }
+
+  CachingSchemaStore(SchemaStore store, long missTtl, TimeUnit unit, LongSupplier clock) {
+    if (missTtl < 0)
+      throw new IllegalArgumentException("Negative TTL: " + missTtl);
+    this.store = store;
+    this.missTtlNanos = unit.toNanos(missTtl);
+    this.clock = clock;
+  }
+
+  /**
+   * Adds a schema to this cache, so that it is found without querying the store.
+   * Also forgets that its fingerprint was unknown.
+   */
+  public void addSchema(Schema schema) {
+    long fp = SchemaNormalization.parsingFingerprint64(schema);
+    schemas.put(fp, schema);
+    misses.remove(fp);
+  }
+
+  @Override
+  public Schema findByFingerprint(long fingerprint) {
+    Schema schema = schemas.get(fingerprint);
+    if (schema != null || isKnownMiss(fingerprint)) {
+      return schema;
+    }
+    CompletableFuture<Schema> lookup = new CompletableFuture<>();
+    CompletableFuture<Schema> running = lookups.putIfAbsent(fingerprint, lookup);
+    if (running != null) {
+      return join(running);
+    }
+    try {
+      // a lookup may have completed since the first check
+      schema = schemas.get(fingerprint);
+      if (schema == null && !isKnownMiss(fingerprint)) {
+        schema = store.findByFingerprint(fingerprint);
+        if (schema != null) {
+          schemas.put(fingerprint, schema);
+        } else if (missTtlNanos > 0) {
+          addMiss(fingerprint);
+        }
+      }
+      lookup.complete(schema);
+      return schema;
+    } catch (RuntimeException | Error e) {
+      lookup.completeExceptionally(e);
+      throw e;
+    } finally {
+      lookups.remove(fingerprint, lookup);
+    }
+  }
+
+  private boolean isKnownMiss(long fingerprint) {
+    Long expiry = misses.get(fingerprint);
+    if (expiry == null) {
+      return false;
+    }
+    if (clock.getAsLong() - expiry < 0) {
+      return true;
+    }
+    misses.remove(fingerprint, expiry);
+    return false;
+  }
+
+  private void addMiss(long fingerprint) {
+    long now = clock.getAsLong();
+    if (misses.size() >= MAX_MISSES) {
+      misses.values().removeIf(expiry -> now - expiry >= 0);
+    }
+    misses.put(fingerprint, now + missTtlNanos);
+  }
+
+  private static Schema join(CompletableFuture<Schema> lookup) {
+    try {
+      return lookup.join();
+    } catch (CompletionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw e;
+    }
+  }
+}
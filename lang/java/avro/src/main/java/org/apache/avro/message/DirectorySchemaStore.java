@@ -0,0 +1,78 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.avro.message;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.avro.AvroRuntimeException;
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaNormalization;
+
+/**
+ * A {@link SchemaStore} of the schemas in the <tt>.avsc</tt> files of a
+ * directory. The directory is scanned again for new files each time an unknown
+ * fingerprint is looked up, so it can stand in for a schema registry, e.g. in
+ * tests or for local development. Wrap it in a {@link CachingSchemaStore} to
+ * avoid scanning for unknown fingerprints repeatedly.
+ * <p>
+ * This class is thread-safe.
+ */
+public class DirectorySchemaStore implements SchemaStore {
+  private final File directory;
+  private final Map<Long, Schema> schemas = new ConcurrentHashMap<>();
+  // the files already read, with their modification times
+  private final Map<String, Long> files = new ConcurrentHashMap<>();
+
+  public DirectorySchemaStore(File directory) {
+    this.directory = directory;
+  }
+
+  @Override
+  public Schema findByFingerprint(long fingerprint) {
+    Schema schema = schemas.get(fingerprint);
+    if (schema == null) {
+      scan();
+      schema = schemas.get(fingerprint);
+    }
+    return schema;
+  }
+
+  private synchronized void scan() {
+    File[] found = directory.listFiles((dir, name) -> name.endsWith(".avsc"));
+    if (found == null) {
+      return;
+    }
+    for (File file : found) {
+      Long modified = file.lastModified();
+      if (modified.equals(files.get(file.getName()))) {
+        continue;
+      }
+      try {
+        Schema schema = new Schema.Parser().parse(file);
+        schemas.put(SchemaNormalization.parsingFingerprint64(schema), schema);
+      } catch (IOException e) {
+        throw new AvroRuntimeException("Could not read schema from " + file, e);
+      }
+      files.put(file.getName(), modified);
+    }
+  }
+}
@@ -0,0 +1,76 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.avro.message;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+
+/**
+ * Encoded messages stored one after the other in a single buffer, with the
+ * offset of each message.
+ * <p>
+ * Each message is encoded as by {@link MessageEncoder#encode(Object)}, so it can
+ * also be decoded on its own.
+ *
+ * @see MessageEncoder#encodeBatch(java.util.List)
+ * @see MessageDecoder#decodeBatch(MessageBatch, java.util.List)
+ */
+public class MessageBatch {
+  private final ByteBuffer buffer;
+  private final int[] offsets;
+
+  /**
+   * Creates a batch of the messages in <i>buffer</i>. Message <i>i</i> spans the
+   * indexes of the buffer from <code>offsets[i]</code> to
+   * <code>offsets[i + 1]</code>, excluded, so there is one more offset than
+   * messages.
+   */
+  public MessageBatch(ByteBuffer buffer, int[] offsets) {
+    if (offsets.length == 0)
+      throw new IllegalArgumentException("No end offset");
+    this.buffer = buffer;
+    this.offsets = offsets;
+  }
+
+  /** Returns the number of messages. */
+  public int size() {
+    return offsets.length - 1;
+  }
+
+  /** Returns the buffer holding the messages. */
+  public ByteBuffer getBuffer() {
+    return buffer;
+  }
+
+  /**
+   * Returns the index in the buffer where message <i>i</i> starts, or where the
+   * last one ends if <i>i</i> is the number of messages.
+   */
+  public int getOffset(int i) {
+    return offsets[i];
+  }
+
+  /** Returns a view of the buffer positioned on message <i>i</i>. */
+  public ByteBuffer getMessage(int i) {
+    ByteBuffer message = buffer.duplicate();
+    ((Buffer) message).limit(offsets[i + 1]);
+    ((Buffer) message).position(offsets[i]);
+    return message;
+  }
+}
@@ -24,6 +24,8 @@ import org.apache.avro.util.ReusableByteBufferInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Deserializes a single datum from a ByteBuffer, byte array, or InputStream.
@@ -101,6 +103,27 @@ public interface MessageDecoder<D> {
    */
   D decode(byte[] encoded, D reuse) throws IOException;
 
+  /**
+   * Deserialize the datums of a batch of messages.
+   *
+   * @param batch a batch of messages, see
+   *              {@link MessageEncoder#encodeBatch(List)}
+   * @param reuse datum instances to reuse, by position in the batch, or null
+   * @return the datums read, in the order of the messages
+   * @throws BadHeaderException     If a payload's header is not recognized.
+   * @throws MissingSchemaException If a payload's schema cannot be found.
+   * @throws IOException
+   */
+  default List<D> decodeBatch(MessageBatch batch, List<D> reuse) throws IOException {
+    int size = batch.size();
+    List<D> datums = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      D old = reuse != null && i < reuse.size() ? reuse.get(i) : null;
+      datums.add(decode(batch.getMessage(i), old));
+    }
+    return datums;
+  }
+
   /**
    * Base class for {@link MessageEncoder} implementations that provides default
    * implementations for most of the {@code DatumEncoder} API.
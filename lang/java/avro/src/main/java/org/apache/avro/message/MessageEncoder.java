@@ -19,9 +19,12 @@
 
 package org.apache.avro.message;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.BufferOverflowException;
 import java.nio.ByteBuffer;
+import java.util.List;
 
 /**
  * Serializes an individual datum as a ByteBuffer or to an OutputStream.
@@ -48,4 +51,48 @@ public interface MessageEncoder<D> {
    */
   void encode(D datum, OutputStream stream) throws IOException;
 
+  /**
+   * Serialize a single datum into a buffer owned by the caller, starting at its
+   * position. The position is advanced past the serialized datum.
+   * <p>
+   * If the datum does not fit in the remaining bytes of the buffer, the position
+   * is left unchanged and {@link BufferOverflowException} is thrown; the caller
+   * may then retry with a larger buffer. The contents of the buffer after the
+   * position are undefined in that case.
+   *
+   * @param datum  a datum
+   * @param target a buffer to serialize the datum into
+   * @return the number of bytes written
+   * @throws BufferOverflowException if the datum does not fit in the buffer
+   * @throws IOException
+   */
+  default int encode(D datum, ByteBuffer target) throws IOException {
+    ByteBuffer encoded = encode(datum);
+    int length = encoded.remaining();
+    if (length > target.remaining()) {
+      throw new BufferOverflowException();
+    }
+    target.put(encoded);
+    return length;
+  }
+
+  /**
+   * Serialize datums into a single buffer, one message after the other.
+   *
+   * @param datums the datums to serialize
+   * @return a batch of messages, in the order of the datums
+   * @throws IOException
+   */
+  default MessageBatch encodeBatch(List<D> datums) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    int[] offsets = new int[datums.size() + 1];
+    int i = 0;
+    for (D datum : datums) {
+      offsets[i++] = out.size();
+      encode(datum, out);
+    }
+    offsets[i] = out.size();
+    return new MessageBatch(ByteBuffer.wrap(out.toByteArray()), offsets);
+  }
+
 }
@@ -27,6 +27,10 @@ import org.apache.avro.io.DatumReader;
 import org.apache.avro.io.DecoderFactory;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * A {@link MessageDecoder} that deserializes from raw datum bytes.
@@ -45,6 +49,8 @@ public class RawMessageDecoder<D> extends MessageDecoder.BaseDecoder<D> {
 
   private static final ThreadLocal<BinaryDecoder> DECODER = new ThreadLocal<>();
 
+  private static final ThreadLocal<BinaryDecoder> BATCH_DECODER = new ThreadLocal<>();
+
   private final DatumReader<D> reader;
 
   /**
@@ -83,6 +89,41 @@ public class RawMessageDecoder<D> extends MessageDecoder.BaseDecoder<D> {
     this.reader = model.createDatumReader(writeSchema1, readSchema1);
   }
 
+  /**
+   * Decodes the datums of a batch in one pass: the decoder is configured on the
+   * buffer of the batch rather than on a stream for each message.
+   */
+  @Override
+  public List<D> decodeBatch(MessageBatch batch, List<D> reuse) {
+    int size = batch.size();
+    List<D> datums = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      D old = reuse != null && i < reuse.size() ? reuse.get(i) : null;
+      datums.add(decode(batch.getBuffer(), batch.getOffset(i), batch.getOffset(i + 1), old));
+    }
+    return datums;
+  }
+
+  /** Decodes a datum from the indexes <i>start</i> to <i>end</i> of a buffer. */
+  D decode(ByteBuffer buffer, int start, int end, D reuse) {
+    BinaryDecoder decoder;
+    if (buffer.hasArray()) {
+      decoder = DecoderFactory.get().binaryDecoder(buffer.array(), buffer.arrayOffset() + start, end - start,
+          BATCH_DECODER.get());
+    } else {
+      ByteBuffer message = buffer.duplicate();
+      ((Buffer) message).limit(end);
+      ((Buffer) message).position(start);
+      decoder = DecoderFactory.get().binaryDecoder(message, BATCH_DECODER.get());
+    }
+    BATCH_DECODER.set(decoder);
+    try {
+      return reader.read(reuse, decoder);
+    } catch (IOException e) {
+      throw new AvroRuntimeException("Decoding datum failed", e);
+    }
+  }
+
   @Override
   public D decode(InputStream stream, D reuse) {
     BinaryDecoder decoder = DecoderFactory.get().directBinaryDecoder(stream, DECODER.get());
@@ -24,10 +24,14 @@ import org.apache.avro.generic.GenericData;
 import org.apache.avro.io.BinaryEncoder;
 import org.apache.avro.io.DatumWriter;
 import org.apache.avro.io.EncoderFactory;
+import org.apache.avro.util.ReusableByteBufferOutputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.Buffer;
+import java.nio.BufferOverflowException;
 import java.nio.ByteBuffer;
+import java.util.List;
 
 /**
  * A {@link MessageEncoder} that encodes only a datum's bytes, without
@@ -39,6 +43,9 @@ public class RawMessageEncoder<D> implements MessageEncoder<D> {
 
   private static final ThreadLocal<BufferOutputStream> TEMP = ThreadLocal.withInitial(BufferOutputStream::new);
 
+  private static final ThreadLocal<ReusableByteBufferOutputStream> TARGET = ThreadLocal
+      .withInitial(ReusableByteBufferOutputStream::new);
+
   private static final ThreadLocal<BinaryEncoder> ENCODER = new ThreadLocal<>();
 
   private final boolean copyOutputBytes;
@@ -98,6 +105,50 @@ public class RawMessageEncoder<D> implements MessageEncoder<D> {
     }
   }
 
+  /**
+   * Encodes the datum straight into the target buffer, without allocating or
+   * copying through a temporary buffer.
+   */
+  @Override
+  public int encode(D datum, ByteBuffer target) throws IOException {
+    ReusableByteBufferOutputStream out = TARGET.get();
+    int start = target.position();
+    out.setByteBuffer(target);
+    try {
+      encode(datum, out);
+    } catch (BufferOverflowException e) {
+      ((Buffer) target).position(start);
+      throw e;
+    } finally {
+      out.setByteBuffer(null);
+    }
+    return target.position() - start;
+  }
+
+  /**
+   * Encodes the datums one after the other into a single thread-local buffer,
+   * which is copied or not as by {@link #encode(Object)}.
+   */
+  @Override
+  public MessageBatch encodeBatch(List<D> datums) throws IOException {
+    BufferOutputStream temp = TEMP.get();
+    temp.reset();
+
+    int[] offsets = new int[datums.size() + 1];
+    int i = 0;
+    for (D datum : datums) {
+      offsets[i++] = temp.size();
+      encode(datum, temp);
+    }
+    offsets[i] = temp.size();
+
+    if (copyOutputBytes) {
+      return new MessageBatch(temp.toBufferWithCopy(), offsets);
+    } else {
+      return new MessageBatch(temp.toBufferWithoutCopy(), offsets);
+    }
+  }
+
   @Override
   public void encode(D datum, OutputStream stream) throws IOException {
     BinaryEncoder encoder = EncoderFactory.get().directBinaryEncoder(stream, ENCODER.get());
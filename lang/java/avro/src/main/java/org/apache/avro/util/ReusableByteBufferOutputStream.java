@@ -0,0 +1,54 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.avro.util;
+
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * An {@link OutputStream} that writes into a {@link ByteBuffer} supplied by the
+ * caller, starting at its position. Writes past the limit of the buffer throw
+ * {@link java.nio.BufferOverflowException}; a write of an array either fits
+ * whole or is not made at all.
+ */
+public class ReusableByteBufferOutputStream extends OutputStream {
+
+  private static final ByteBuffer EMPTY_BUFFER = ByteBuffer.allocate(0);
+
+  private ByteBuffer byteBuffer = EMPTY_BUFFER;
+
+  /**
+   * Writes to <i>buf</i> from now on. Its position is advanced by the bytes
+   * written. Pass null to release the buffer.
+   */
+  public void setByteBuffer(ByteBuffer buf) {
+    this.byteBuffer = buf != null ? buf : EMPTY_BUFFER;
+  }
+
+  @Override
+  public void write(int b) {
+    byteBuffer.put((byte) b);
+  }
+
+  @Override
+  public void write(byte[] b, int off, int len) {
+    byteBuffer.put(b, off, len);
+  }
+}
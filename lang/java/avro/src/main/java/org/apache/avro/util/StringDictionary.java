@@ -0,0 +1,160 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.avro.util;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.apache.avro.io.Decoder;
+
+/**
+ * A dictionary of canonical {@link Utf8} and {@link String} instances for
+ * string values that are read repeatedly, such as codes or statuses. Values
+ * read through the dictionary are decoded into a per-thread buffer and looked
+ * up by their bytes, so reading a value that is already in the dictionary
+ * allocates nothing.
+ * <p/>
+ * The buffer of a thread only grows as large as the maximum length; longer
+ * values are decoded into a buffer of their own.
+ * <p/>
+ * The dictionary is a fixed-size open-addressing hash table whose slots are
+ * filled with compare-and-set and never cleared, so it is safe for concurrent
+ * use without locking. Values longer than the maximum length, or whose slots
+ * are all taken, are returned as new instances and not kept.
+ * <p/>
+ * The canonical {@link Utf8} instances are shared by all the values read and
+ * must not be modified.
+ */
+public class StringDictionary {
+  public static final int DEFAULT_CAPACITY = 4096;
+  public static final int DEFAULT_MAX_LENGTH = 64;
+  // number of slots looked at for a value before giving up
+  private static final int MAX_PROBES = 8;
+
+  private final AtomicReferenceArray<Entry> table;
+  private final int mask;
+  private final int maxLength;
+  private final ThreadLocal<Utf8> buffer = ThreadLocal.withInitial(Utf8::new);
+
+  public StringDictionary() {
+    this(DEFAULT_CAPACITY, DEFAULT_MAX_LENGTH);
+  }
+
+  /**
+   * Creates a dictionary of up to <i>capacity</i> values, rounded up to a power
+   * of two, of up to <i>maxLength</i> bytes each.
+   */
+  public StringDictionary(int capacity, int maxLength) {
+    if (capacity < 1 || capacity > 1 << 30)
+      throw new IllegalArgumentException("Invalid capacity: " + capacity);
+    int size = Integer.highestOneBit(capacity);
+    if (size < capacity) {
+      size <<= 1;
+    }
+    this.table = new AtomicReferenceArray<>(size);
+    this.mask = size - 1;
+    this.maxLength = maxLength;
+  }
+
+  /** Reads a string value as its canonical {@link Utf8}. */
+  public Utf8 readUtf8(Decoder in) throws IOException {
+    Utf8 value = in.readString(buffer.get());
+    if (value.getByteLength() > maxLength) {
+      // not kept: hand out the buffer itself, so that it never stays large
+      buffer.remove();
+      return value;
+    }
+    Entry entry = lookup(value.getBytes(), value.getByteLength());
+    return entry != null ? entry.utf8 : new Utf8(value);
+  }
+
+  /** Reads a string value as its canonical {@link String}. */
+  public String readString(Decoder in) throws IOException {
+    Utf8 value = in.readString(buffer.get());
+    if (value.getByteLength() > maxLength) {
+      buffer.remove(); // not kept, and so that the buffer never stays large
+      return new String(value.getBytes(), 0, value.getByteLength(), StandardCharsets.UTF_8);
+    }
+    Entry entry = lookup(value.getBytes(), value.getByteLength());
+    return entry != null ? entry.string : new String(value.getBytes(), 0, value.getByteLength(), StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Returns the canonical {@link Utf8} with the same bytes as <i>value</i>, or a
+   * copy of <i>value</i> if it is not kept. Never returns <i>value</i> itself.
+   */
+  public Utf8 intern(Utf8 value) {
+    Entry entry = lookup(value.getBytes(), value.getByteLength());
+    return entry != null ? entry.utf8 : new Utf8(value);
+  }
+
+  private Entry lookup(byte[] bytes, int length) {
+    if (length > maxLength) {
+      return null;
+    }
+    int hash = 1;
+    for (int i = 0; i < length; i++) {
+      hash = 31 * hash + bytes[i];
+    }
+    hash ^= hash >>> 16;
+    for (int probe = 0; probe < MAX_PROBES; probe++) {
+      int index = (hash + probe) & mask;
+      Entry entry = table.get(index);
+      if (entry == null) {
+        Entry added = new Entry(Arrays.copyOf(bytes, length), hash);
+        if (table.compareAndSet(index, null, added)) {
+          return added;
+        }
+        entry = table.get(index);
+      }
+      if (entry.matches(bytes, length, hash)) {
+        return entry;
+      }
+    }
+    return null;
+  }
+
+  private static final class Entry {
+    private final byte[] bytes;
+    private final int hash;
+    private final String string;
+    private final Utf8 utf8;
+
+    Entry(byte[] bytes, int hash) {
+      this.bytes = bytes;
+      this.hash = hash;
+      this.utf8 = new Utf8(Arrays.copyOf(bytes, bytes.length));
+      // computed before the entry is shared, as Utf8 caches it
+      this.string = utf8.toString();
+    }
+
+    boolean matches(byte[] other, int length, int otherHash) {
+      if (hash != otherHash || bytes.length != length) {
+        return false;
+      }
+      for (int i = 0; i < length; i++) {
+        if (bytes[i] != other[i]) {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+}
@@ -22,10 +22,12 @@ import java.lang.ref.ReferenceQueue;
 import java.lang.ref.WeakReference;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 
 /**
  * Implements a combination of WeakHashMap and IdentityHashMap. Useful for
@@ -37,11 +39,17 @@ import java.util.Set;
  * This class is designed for use only in the rare cases wherein
  * reference-equality semantics are required.
  *
- * Note that this implementation is not synchronized. </b>
+ * This implementation is safe for concurrent use: it is backed by a
+ * {@link ConcurrentHashMap}, so lookups do not lock, and
+ * {@link #computeIfAbsent(Object, Function)} is atomic. Unlike earlier
+ * versions, which were backed by a HashMap, null keys and values are not
+ * supported: {@link #put(Object, Object)} and
+ * {@link #computeIfAbsent(Object, Function)} throw a NullPointerException
+ * for them. </b>
  */
 public class WeakIdentityHashMap<K, V> implements Map<K, V> {
   private final ReferenceQueue<K> queue = new ReferenceQueue<>();
-  private Map<IdentityWeakReference, V> backingStore = new HashMap<>();
+  private Map<IdentityWeakReference, V> backingStore = new ConcurrentHashMap<>();
 
   public WeakIdentityHashMap() {
   }
@@ -116,8 +124,23 @@ public class WeakIdentityHashMap<K, V> implements Map<K, V> {
     return backingStore.get(new IdentityWeakReference(key));
   }
 
+  @Override
+  public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+    Objects.requireNonNull(key, "Null keys are not supported");
+    reap();
+    // look up first, as ConcurrentHashMap.computeIfAbsent may lock even if the
+    // key is present
+    V value = backingStore.get(new IdentityWeakReference(key));
+    if (value != null) {
+      return value;
+    }
+    return backingStore.computeIfAbsent(new IdentityWeakReference(key), k -> mappingFunction.apply(key));
+  }
+
   @Override
   public V put(K key, V value) {
+    Objects.requireNonNull(key, "Null keys are not supported");
+    Objects.requireNonNull(value, "Null values are not supported");
     reap();
     return backingStore.put(new IdentityWeakReference(key), value);
   }
@@ -157,7 +180,7 @@ public class WeakIdentityHashMap<K, V> implements Map<K, V> {
     return backingStore.values();
   }
 
-  private synchronized void reap() {
+  private void reap() {
     Object zombie = queue.poll();
 
     while (zombie != null) {
@@ -0,0 +1,89 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.avro.file;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.util.Utf8;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class TestColumnBatch {
+  private static final Schema SCHEMA = new Schema.Parser().parse("{\"type\":\"record\",\"name\":\"R\",\"fields\":["
+      + "{\"name\":\"id\",\"type\":\"long\"},"
+      + "{\"name\":\"tags\",\"type\":{\"type\":\"map\",\"values\":{\"type\":\"array\",\"items\":\"string\"}}},"
+      + "{\"name\":\"name\",\"type\":[\"null\",\"string\"]},{\"name\":\"score\",\"type\":\"double\"}]}");
+  private static final int COUNT = 5000;
+
+  @Rule
+  public TemporaryFolder dir = new TemporaryFolder();
+
+  @Test
+  public void testSelectedColumns() throws IOException {
+    File file = new File(dir.getRoot(), "columns.avro");
+    try (DataFileWriter<GenericRecord> writer = new DataFileWriter<>(new GenericDatumWriter<GenericRecord>(SCHEMA))) {
+      writer.setCodec(CodecFactory.deflateCodec(1));
+      writer.setSyncInterval(2048);
+      writer.create(SCHEMA, file);
+      for (int i = 0; i < COUNT; i++) {
+        GenericRecord record = new GenericData.Record(SCHEMA);
+        record.put("id", (long) i);
+        record.put("tags", Collections.singletonMap("k", Arrays.asList("a", "b")));
+        record.put("name", i % 3 == 0 ? null : "name-" + i);
+        record.put("score", i / 2.0);
+        writer.append(record);
+      }
+    }
+
+    ColumnBatch batch = new ColumnBatch(SCHEMA, "score", "name", "id");
+    int row = 0;
+    int blocks = 0;
+    Utf8 name = new Utf8();
+    try (DataFileStream<GenericRecord> reader = new DataFileReader<>(file, new GenericDatumReader<>())) {
+      while (reader.nextBatch(batch)) {
+        blocks++;
+        ColumnBatch.Column ids = batch.getColumn("id");
+        ColumnBatch.Column names = batch.getColumn(1);
+        for (int i = 0; i < batch.size(); i++, row++) {
+          assertEquals(row, ids.getLongs()[i]);
+          assertEquals(row / 2.0, batch.getColumn(0).getDoubles()[i], 0);
+          assertEquals(row % 3 == 0, names.isNull(i));
+          if (row % 3 != 0) {
+            assertEquals("name-" + row, names.getUtf8(i, name).toString());
+          }
+        }
+      }
+    }
+    assertEquals(COUNT, row);
+    assertTrue(blocks > 1);
+    assertFalse(batch.getColumn("score").isNullable());
+  }
+}
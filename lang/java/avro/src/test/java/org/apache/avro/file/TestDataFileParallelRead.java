@@ -0,0 +1,115 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.avro.file;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class TestDataFileParallelRead {
+  private static final Schema SCHEMA = new Schema.Parser()
+      .parse("{\"type\":\"record\",\"name\":\"R\",\"fields\":[" + "{\"name\":\"id\",\"type\":\"long\"},"
+          + "{\"name\":\"name\",\"type\":\"string\"}]}");
+  private static final int COUNT = 10000;
+
+  @Rule
+  public TemporaryFolder dir = new TemporaryFolder();
+
+  private File writeFile(CodecFactory codec) throws IOException {
+    return writeFile(codec, 1);
+  }
+
+  private File writeFile(CodecFactory codec, int threads) throws IOException {
+    File file = new File(dir.getRoot(), "parallel.avro");
+    try (DataFileWriter<GenericRecord> writer = new DataFileWriter<>(new GenericDatumWriter<GenericRecord>(SCHEMA))) {
+      writer.setCodec(codec);
+      writer.setParallelism(threads);
+      writer.setSyncInterval(1024);
+      writer.create(SCHEMA, file);
+      for (long i = 0; i < COUNT; i++) {
+        GenericRecord record = new GenericData.Record(SCHEMA);
+        record.put("id", i);
+        record.put("name", "record-" + i);
+        writer.append(record);
+      }
+    }
+    return file;
+  }
+
+  @Test
+  public void testRecordsInFileOrder() throws IOException {
+    File file = writeFile(CodecFactory.deflateCodec(6));
+    try (DataFileReader<GenericRecord> reader = new DataFileReader<>(file, new GenericDatumReader<>())) {
+      reader.setParallelism(4, GenericDatumReader::new);
+      long expected = 0;
+      for (GenericRecord record : reader) {
+        assertEquals(expected, record.get("id"));
+        assertEquals("record-" + expected, record.get("name").toString());
+        expected++;
+      }
+      assertEquals(COUNT, expected);
+    }
+  }
+
+  @Test
+  public void testParallelWriter() throws IOException {
+    File file = writeFile(CodecFactory.deflateCodec(9), 4);
+    try (DataFileReader<GenericRecord> reader = new DataFileReader<>(file, new GenericDatumReader<>())) {
+      long expected = 0;
+      for (GenericRecord record : reader) {
+        assertEquals(expected++, record.get("id"));
+      }
+      assertEquals(COUNT, expected);
+    }
+  }
+
+  @Test
+  public void testSyncAndPastSync() throws IOException {
+    File file = writeFile(CodecFactory.nullCodec());
+    long sequential = 0;
+    long parallel = 0;
+    long start = file.length() / 3;
+    long end = 2 * file.length() / 3;
+    try (DataFileReader<GenericRecord> reader = new DataFileReader<>(file, new GenericDatumReader<>())) {
+      reader.sync(start);
+      while (reader.hasNext() && !reader.pastSync(end)) {
+        reader.next();
+        sequential++;
+      }
+    }
+    try (DataFileReader<GenericRecord> reader = new DataFileReader<>(file, new GenericDatumReader<>())) {
+      reader.setParallelism(3, GenericDatumReader::new);
+      reader.sync(start);
+      while (reader.hasNext() && !reader.pastSync(end)) {
+        reader.next();
+        parallel++;
+      }
+    }
+    assertEquals(sequential, parallel);
+  }
+}
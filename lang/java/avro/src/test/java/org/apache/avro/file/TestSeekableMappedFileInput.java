@@ -0,0 +1,154 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.avro.file;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class TestSeekableMappedFileInput {
+  private static final Schema SCHEMA = new Schema.Parser()
+      .parse("{\"type\":\"record\",\"name\":\"R\",\"fields\":[" + "{\"name\":\"id\",\"type\":\"long\"},"
+          + "{\"name\":\"name\",\"type\":\"string\"}]}");
+  private static final int COUNT = 5000;
+  // smaller than a block, so that blocks span chunks
+  private static final int CHUNK_SIZE = 1000;
+
+  @Rule
+  public TemporaryFolder dir = new TemporaryFolder();
+
+  private File writeFile(CodecFactory codec) throws IOException {
+    File file = new File(dir.getRoot(), "mapped.avro");
+    try (DataFileWriter<GenericRecord> writer = new DataFileWriter<>(new GenericDatumWriter<GenericRecord>(SCHEMA))) {
+      writer.setCodec(codec);
+      writer.setSyncInterval(1024);
+      writer.create(SCHEMA, file);
+      for (long i = 0; i < COUNT; i++) {
+        GenericRecord record = new GenericData.Record(SCHEMA);
+        record.put("id", i);
+        record.put("name", "record-" + i);
+        writer.append(record);
+      }
+    }
+    return file;
+  }
+
+  private static List<GenericRecord> readAll(SeekableInput in) throws IOException {
+    List<GenericRecord> result = new ArrayList<>();
+    try (DataFileReader<GenericRecord> reader = new DataFileReader<>(in, new GenericDatumReader<>())) {
+      for (GenericRecord record : reader) {
+        result.add(record);
+      }
+    }
+    return result;
+  }
+
+  @Test
+  public void testRecordsAcrossChunks() throws IOException {
+    for (CodecFactory codec : new CodecFactory[] { CodecFactory.nullCodec(), CodecFactory.deflateCodec(1) }) {
+      File file = writeFile(codec);
+      List<GenericRecord> expected = readAll(new SeekableFileInput(file));
+      assertEquals(COUNT, expected.size());
+      assertEquals(expected, readAll(new SeekableMappedFileInput(file, CHUNK_SIZE)));
+      assertEquals(expected, readAll(new SeekableMappedFileInput(file)));
+    }
+  }
+
+  @Test
+  public void testSyncAndSeek() throws IOException {
+    File file = writeFile(CodecFactory.nullCodec());
+    try (DataFileReader<GenericRecord> expected = new DataFileReader<>(new SeekableFileInput(file),
+        new GenericDatumReader<>());
+        DataFileReader<GenericRecord> actual = new DataFileReader<>(new SeekableMappedFileInput(file, CHUNK_SIZE),
+            new GenericDatumReader<>())) {
+      for (long position = 0; position < file.length(); position += file.length() / 7) {
+        expected.sync(position);
+        actual.sync(position);
+        assertEquals(expected.previousSync(), actual.previousSync());
+        assertEquals(expected.hasNext(), actual.hasNext());
+        if (expected.hasNext()) {
+          long sync = expected.previousSync();
+          GenericRecord record = expected.next();
+          assertEquals(record, actual.next());
+          actual.next();
+          actual.seek(sync);
+          assertEquals(record, actual.next());
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testReadsAndViews() throws IOException {
+    File file = writeFile(CodecFactory.nullCodec());
+    byte[] bytes = Files.readAllBytes(file.toPath());
+    try (SeekableMappedFileInput in = new SeekableMappedFileInput(file, CHUNK_SIZE)) {
+      assertEquals(bytes.length, in.length());
+      byte[] read = new byte[bytes.length];
+      new DataInputStream(in).readFully(read);
+      assertArrayEquals(bytes, read);
+      assertEquals(-1, in.read());
+
+      in.seek(CHUNK_SIZE - 1);
+      assertEquals(bytes[CHUNK_SIZE - 1] & 0xff, in.read());
+      assertEquals(bytes[CHUNK_SIZE] & 0xff, in.read());
+      assertEquals(CHUNK_SIZE + 1, in.tell());
+
+      ByteBuffer view = in.view(CHUNK_SIZE + 10, 100);
+      assertNotNull(view);
+      byte[] viewed = new byte[100];
+      view.get(viewed);
+      for (int i = 0; i < viewed.length; i++) {
+        assertEquals(bytes[CHUNK_SIZE + 10 + i], viewed[i]);
+      }
+      assertEquals(CHUNK_SIZE + 1, in.tell());
+      assertNull(in.view(CHUNK_SIZE - 10, 20)); // spans chunks
+    }
+  }
+
+  @Test
+  public void testSeekableInputStreamSkip() throws IOException {
+    File file = writeFile(CodecFactory.nullCodec());
+    DataFileReader.SeekableInputStream in = new DataFileReader.SeekableInputStream(
+        new SeekableMappedFileInput(file, CHUNK_SIZE));
+    in.seek(100);
+    assertEquals(50, in.skip(50));
+    assertEquals(150, in.tell());
+    assertEquals(file.length() - 150, in.skip(file.length()));
+    assertEquals(file.length(), in.tell());
+    in.close();
+  }
+}
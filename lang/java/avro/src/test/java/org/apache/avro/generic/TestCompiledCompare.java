@@ -0,0 +1,126 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.avro.generic;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import org.apache.avro.Schema;
+import org.apache.avro.io.BinaryComparator;
+import org.apache.avro.io.BinaryData;
+import org.apache.avro.specific.SpecificData;
+import org.apache.avro.testutil.MyEnum;
+import org.apache.avro.testutil.RandomEncoded;
+import org.junit.Test;
+
+public class TestCompiledCompare {
+  /** Recursive, also through an ignored field. */
+  private static final Schema LIST = new Schema.Parser().parse("{\"type\":\"record\",\"name\":\"L\",\"fields\":["
+      + "{\"name\":\"kind\",\"type\":{\"type\":\"enum\",\"name\":\"K\",\"symbols\":[\"B\",\"A\"]}},"
+      + "{\"name\":\"prev\",\"type\":[\"null\",\"int\",\"L\"],\"order\":\"ignore\"},"
+      + "{\"name\":\"tags\",\"type\":{\"type\":\"map\",\"values\":\"string\"},\"order\":\"ignore\"},"
+      + "{\"name\":\"small\",\"type\":{\"type\":\"fixed\",\"name\":\"F\",\"size\":1},\"order\":\"descending\"},"
+      + "{\"name\":\"kinds\",\"type\":{\"type\":\"array\",\"items\":\"K\"}},"
+      + "{\"name\":\"next\",\"type\":[\"null\",\"L\"],\"order\":\"descending\"},"
+      + "{\"name\":\"s\",\"type\":\"string\"}]}");
+
+  @Test
+  public void testRecursiveSchema() throws IOException {
+    List<Object> data = RandomEncoded.datums(LIST, 100, 7L);
+    List<byte[]> encoded = RandomEncoded.encode(LIST, data);
+
+    GenericData model = new GenericData();
+    Comparator<Object> comparator = model.getComparator(LIST);
+    assertSame(comparator, model.getComparator(LIST));
+    BinaryComparator binary = BinaryComparator.get(LIST);
+    assertSame(binary, BinaryComparator.get(LIST));
+    for (int i = 0; i < data.size(); i++) {
+      for (int j = 0; j < data.size(); j++) {
+        int expected = Integer.signum(model.compare(data.get(i), data.get(j), LIST));
+        assertEquals(expected, Integer.signum(comparator.compare(data.get(i), data.get(j))));
+
+        byte[] a = encoded.get(i);
+        byte[] b = encoded.get(j);
+        assertEquals(expected, Integer.signum(BinaryData.compare(a, 0, a.length, b, 0, b.length, LIST)));
+        assertEquals(expected, Integer.signum(binary.compare(a, 0, a.length, b, 0, b.length)));
+      }
+    }
+
+    model.setCompiledCompareEnabled(true);
+    data.sort((o1, o2) -> model.compare(o1, o2, LIST));
+    for (int i = 1; i < data.size(); i++) {
+      assertTrue(GenericData.get().compare(data.get(i - 1), data.get(i), LIST) <= 0);
+    }
+  }
+
+  @Test
+  public void testSpecificEnums() {
+    // symbols not in the order of the Java enum: specific data compares ordinals
+    Schema schema = new Schema.Parser().parse("{\"type\":\"record\",\"name\":\"R\",\"fields\":["
+        + "{\"name\":\"e\",\"type\":{\"type\":\"enum\",\"name\":\"MyEnum\",\"namespace\":\"org.apache.avro.testutil\","
+        + "\"symbols\":[\"Tre\",\"Due\",\"Uno\"]}}]}");
+    Schema enumSchema = schema.getField("e").schema();
+    SpecificData model = new SpecificData();
+    Comparator<Object> comparator = model.getComparator(enumSchema);
+    for (MyEnum e1 : MyEnum.values()) {
+      for (MyEnum e2 : MyEnum.values()) {
+        int expected = Integer.signum(model.compare(e1, e2, enumSchema));
+        assertEquals(Integer.signum(e1.compareTo(e2)), expected);
+        assertEquals(expected, Integer.signum(comparator.compare(e1, e2)));
+
+        GenericRecord r1 = new GenericData.Record(schema);
+        r1.put("e", e1);
+        GenericRecord r2 = new GenericData.Record(schema);
+        r2.put("e", e2);
+        assertEquals(expected, Integer.signum(model.getComparator(schema).compare(r1, r2)));
+      }
+    }
+  }
+
+  @Test
+  public void testOtherDataModels() {
+    // a data model that may change how values compare is not compiled
+    GenericData reversed = new GenericData() {
+      @Override
+      protected int compare(Object o1, Object o2, Schema s, boolean equals) {
+        return s.getType() == Schema.Type.STRING ? -super.compare(o1, o2, s, equals) : super.compare(o1, o2, s, equals);
+      }
+    };
+    Schema schema = new Schema.Parser().parse("{\"type\":\"array\",\"items\":\"string\"}");
+    Comparator<Object> comparator = reversed.getComparator(schema);
+    List<String> a = Arrays.asList("a", "b");
+    List<String> b = Arrays.asList("b");
+    assertTrue(comparator.compare(a, b) > 0);
+    assertTrue(GenericData.get().getComparator(schema).compare(a, b) < 0);
+
+    // overriding the public overload is honoured too
+    GenericData inverted = new GenericData() {
+      @Override
+      public int compare(Object o1, Object o2, Schema s) {
+        return -super.compare(o1, o2, s);
+      }
+    };
+    assertTrue(inverted.getComparator(schema).compare(a, b) > 0);
+  }
+}
@@ -0,0 +1,89 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.avro.generic;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.apache.avro.Schema;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.io.EncoderFactory;
+import org.junit.Test;
+
+public class TestCompiledRecords {
+  private static final Schema WRITER = new Schema.Parser().parse("{\"type\":\"record\",\"name\":\"R\",\"fields\":["
+      + "{\"name\":\"i\",\"type\":\"int\"},{\"name\":\"l\",\"type\":\"long\"},"
+      + "{\"name\":\"f\",\"type\":\"float\"},{\"name\":\"d\",\"type\":\"double\"},"
+      + "{\"name\":\"b\",\"type\":\"boolean\"},{\"name\":\"s\",\"type\":\"string\"},"
+      + "{\"name\":\"n\",\"type\":[\"null\",\"long\"]},"
+      + "{\"name\":\"a\",\"type\":{\"type\":\"array\",\"items\":{\"type\":\"record\",\"name\":\"E\","
+      + "\"fields\":[{\"name\":\"x\",\"type\":\"int\"}]}}}]}");
+  private static final Schema READER = new Schema.Parser().parse("{\"type\":\"record\",\"name\":\"R\",\"fields\":["
+      + "{\"name\":\"d\",\"type\":\"double\"},{\"name\":\"i\",\"type\":\"long\"},"
+      + "{\"name\":\"s\",\"type\":\"string\"},{\"name\":\"n\",\"type\":[\"null\",\"long\"]},"
+      + "{\"name\":\"x\",\"type\":\"int\",\"default\":7}]}");
+
+  private static GenericRecord record() {
+    GenericRecord element = new GenericData.Record(WRITER.getField("a").schema().getElementType());
+    element.put("x", 3);
+    GenericRecord record = new GenericData.Record(WRITER);
+    record.put("i", -5);
+    record.put("l", 1L << 50);
+    record.put("f", 0.5f);
+    record.put("d", 1e100);
+    record.put("b", true);
+    record.put("s", "text");
+    record.put("n", 9L);
+    record.put("a", Arrays.asList(element, element));
+    return record;
+  }
+
+  private static byte[] write(GenericData data, GenericRecord record) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    BinaryEncoder encoder = EncoderFactory.get().binaryEncoder(out, null);
+    new GenericDatumWriter<GenericRecord>(WRITER, data).write(record, encoder);
+    encoder.flush();
+    return out.toByteArray();
+  }
+
+  private static Object read(GenericData data, Schema reader, byte[] bytes) throws IOException {
+    return new GenericDatumReader<>(WRITER, reader, data).read(null, DecoderFactory.get().binaryDecoder(bytes, null));
+  }
+
+  @Test
+  public void testSameAsInterpreted() throws IOException {
+    GenericData interpreted = new GenericData();
+    GenericData compiled = new GenericData().setCompiledRecordsEnabled(true);
+    byte[] bytes = write(interpreted, record());
+    assertArrayEquals(bytes, write(compiled, record()));
+    assertEquals(record(), read(compiled, WRITER, bytes));
+    assertEquals(read(interpreted, READER, bytes), read(compiled, READER, bytes));
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void testNullField() throws IOException {
+    GenericRecord record = record();
+    record.put("l", null);
+    write(new GenericData().setCompiledRecordsEnabled(true), record);
+  }
+}
@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.avro.generic;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.avro.Schema;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.DatumReader;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.io.EncoderFactory;
+import org.junit.Test;
+
+public class TestPrimitivesArrays {
+  private static final Schema LONGS = Schema.createArray(Schema.create(Schema.Type.LONG));
+  private static final Schema DOUBLES = Schema.createArray(Schema.create(Schema.Type.DOUBLE));
+
+  private static byte[] write(Schema schema, Object datum) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    BinaryEncoder encoder = EncoderFactory.get().binaryEncoder(out, null);
+    new GenericDatumWriter<>(schema).write(datum, encoder);
+    encoder.flush();
+    return out.toByteArray();
+  }
+
+  private static Object read(GenericData data, Schema writer, Schema reader, byte[] bytes) throws IOException {
+    DatumReader<Object> datumReader = data.createDatumReader(writer, reader);
+    return datumReader.read(null, DecoderFactory.get().binaryDecoder(bytes, null));
+  }
+
+  @Test
+  public void testListOperations() {
+    PrimitivesArrays.LongArray array = new PrimitivesArrays.LongArray(0, LONGS);
+    for (long i = 0; i < 10; i++) {
+      array.addLong(i);
+    }
+    array.add(0, -1L);
+    assertEquals(Long.valueOf(4L), array.remove(5));
+    array.reverse();
+    assertEquals(Arrays.asList(9L, 8L, 7L, 6L, 5L, 3L, 2L, 1L, 0L, -1L), array);
+    assertEquals(new GenericData.Array<>(LONGS, Arrays.asList(9L, 8L, 7L, 6L, 5L, 3L, 2L, 1L, 0L, -1L)), array);
+  }
+
+  private static <T> void assertInsertNullFails(List<T> array, T value) {
+    array.add(value);
+    array.add(value);
+    try {
+      array.add(1, null);
+      fail("null inserted");
+    } catch (NullPointerException e) {
+      // expected
+    }
+    assertEquals(Arrays.asList(value, value), array);
+  }
+
+  @Test
+  public void testInsertNull() {
+    assertInsertNullFails(new PrimitivesArrays.IntArray(0, Schema.createArray(Schema.create(Schema.Type.INT))), 1);
+    assertInsertNullFails(new PrimitivesArrays.LongArray(0, LONGS), 1L);
+    assertInsertNullFails(new PrimitivesArrays.FloatArray(0, Schema.createArray(Schema.create(Schema.Type.FLOAT))), 1f);
+    assertInsertNullFails(new PrimitivesArrays.DoubleArray(0, DOUBLES), 1d);
+  }
+
+  @Test
+  public void testRoundTrip() throws IOException {
+    GenericData.Array<Double> boxed = new GenericData.Array<>(0, DOUBLES);
+    for (int i = 0; i < 1000; i++) {
+      boxed.add(i / 3.0);
+    }
+    byte[] bytes = write(DOUBLES, boxed);
+    for (boolean fast : new boolean[] { false, true }) {
+      GenericData data = new GenericData();
+      data.setFastReaderEnabled(fast);
+      Object decoded = read(data, DOUBLES, DOUBLES, bytes);
+      assertTrue(decoded instanceof PrimitivesArrays.DoubleArray);
+      assertEquals(boxed, decoded);
+      assertEquals(Arrays.toString(bytes), Arrays.toString(write(DOUBLES, decoded)));
+    }
+  }
+
+  @Test
+  public void testPromotion() throws IOException {
+    Schema ints = Schema.createArray(Schema.create(Schema.Type.INT));
+    byte[] bytes = write(ints, new GenericData.Array<>(ints, Arrays.asList(1, -2, 300)));
+    for (boolean fast : new boolean[] { false, true }) {
+      GenericData data = new GenericData();
+      data.setFastReaderEnabled(fast);
+      assertEquals(Arrays.asList(1L, -2L, 300L), read(data, ints, LONGS, bytes));
+    }
+  }
+}
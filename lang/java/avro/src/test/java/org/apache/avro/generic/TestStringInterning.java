@@ -0,0 +1,103 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.avro.generic;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import org.apache.avro.Schema;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.io.EncoderFactory;
+import org.apache.avro.io.FastReaderBuilder;
+import org.apache.avro.util.StringDictionary;
+import org.apache.avro.util.Utf8;
+import org.junit.Test;
+
+public class TestStringInterning {
+  private static final Schema SCHEMA = new Schema.Parser().parse("{\"type\":\"record\",\"name\":\"R\",\"fields\":["
+      + "{\"name\":\"code\",\"type\":{\"type\":\"string\",\"avro.java.string.intern\":\"true\"}},"
+      + "{\"name\":\"name\",\"type\":{\"type\":\"string\",\"avro.java.string\":\"String\"}}]}");
+
+  private static byte[] write(String code, String name) throws IOException {
+    GenericRecord record = new GenericData.Record(SCHEMA);
+    record.put("code", code);
+    record.put("name", name);
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    BinaryEncoder encoder = EncoderFactory.get().binaryEncoder(out, null);
+    new GenericDatumWriter<GenericRecord>(SCHEMA).write(record, encoder);
+    encoder.flush();
+    return out.toByteArray();
+  }
+
+  private static GenericRecord read(GenericData data, GenericRecord reuse, byte[] bytes) throws IOException {
+    return new GenericDatumReader<GenericRecord>(SCHEMA, SCHEMA, data).read(reuse,
+        DecoderFactory.get().binaryDecoder(bytes, null));
+  }
+
+  @Test
+  public void testSchemaProperty() throws IOException {
+    for (GenericData data : new GenericData[] { new GenericData(), new GenericData().setFastReaderEnabled(true) }) {
+      GenericRecord first = read(data, null, write("US", "a"));
+      GenericRecord second = read(data, null, write("US", "a"));
+      assertEquals(new Utf8("US"), first.get("code"));
+      assertSame(first.get("code"), second.get("code"));
+      assertNotSame(first.get("name"), second.get("name"));
+      // a reused record does not overwrite the interned value
+      read(data, second, write("FR", "b"));
+      assertEquals(new Utf8("US"), first.get("code"));
+      assertEquals(new Utf8("FR"), second.get("code"));
+    }
+  }
+
+  @Test
+  public void testDataModel() throws IOException {
+    for (boolean fast : new boolean[] { false, true }) {
+      GenericData data = new GenericData().setFastReaderEnabled(fast).setStringInterningEnabled(true);
+      data.setStringDictionary(new StringDictionary(4, 8));
+      GenericRecord first = read(data, null, write("US", "name"));
+      GenericRecord second = read(data, null, write("US", "name"));
+      assertSame(first.get("name"), second.get("name"));
+      // values longer than the maximum length are not kept
+      first = read(data, null, write("US", "a longer name"));
+      second = read(data, null, write("US", "a longer name"));
+      assertEquals("a longer name", second.get("name"));
+      assertNotSame(first.get("name"), second.get("name"));
+    }
+  }
+
+  @Test
+  public void testFastReaderBuilderKept() throws IOException {
+    GenericData data = new GenericData().setFastReaderEnabled(true);
+    FastReaderBuilder builder = data.getFastReaderBuilder().withClassPropEnabled(false);
+    GenericRecord first = read(data, null, write("US", "name"));
+    data.setStringInterningEnabled(true).setStringDictionary(new StringDictionary());
+    assertSame(builder, data.getFastReaderBuilder());
+    assertFalse(data.getFastReaderBuilder().isClassPropEnabled());
+    // readers built before are discarded, so names are now interned
+    GenericRecord second = read(data, null, write("US", "name"));
+    GenericRecord third = read(data, null, write("US", "name"));
+    assertNotSame(first.get("name"), second.get("name"));
+    assertSame(second.get("name"), third.get("name"));
+  }
+}
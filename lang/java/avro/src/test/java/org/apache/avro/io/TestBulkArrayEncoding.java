@@ -0,0 +1,117 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.avro.io;
+
+import static org.junit.Assert.assertArrayEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Random;
+
+import org.apache.avro.Schema;
+import org.apache.avro.reflect.ReflectDatumWriter;
+import org.junit.Test;
+
+public class TestBulkArrayEncoding {
+  private static final int COUNT = 500;
+  private static final EncoderFactory FACTORY = new EncoderFactory().configureBufferSize(32).configureBlockSize(64);
+
+  private interface EncoderSupplier {
+    Encoder get(OutputStream out) throws IOException;
+  }
+
+  private static final EncoderSupplier[] ENCODERS = { out -> FACTORY.binaryEncoder(out, null),
+      out -> FACTORY.blockingBinaryEncoder(out, null), out -> FACTORY.directBinaryEncoder(out, null) };
+
+  private static byte[] write(EncoderSupplier supplier, boolean bulk, int[] ints, long[] longs, float[] floats,
+      double[] doubles) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    Encoder encoder = supplier.get(out);
+    encoder.writeArrayStart();
+    encoder.setItemCount(COUNT * 4);
+    if (bulk) {
+      encoder.writeInts(ints, 0, COUNT);
+      encoder.writeLongs(longs, 0, COUNT);
+      encoder.writeFloats(floats, 0, COUNT);
+      encoder.writeDoubles(doubles, 0, COUNT);
+    } else {
+      for (int i = 0; i < COUNT; i++) {
+        encoder.startItem();
+        encoder.writeInt(ints[i]);
+      }
+      for (int i = 0; i < COUNT; i++) {
+        encoder.startItem();
+        encoder.writeLong(longs[i]);
+      }
+      for (int i = 0; i < COUNT; i++) {
+        encoder.startItem();
+        encoder.writeFloat(floats[i]);
+      }
+      for (int i = 0; i < COUNT; i++) {
+        encoder.startItem();
+        encoder.writeDouble(doubles[i]);
+      }
+    }
+    encoder.writeArrayEnd();
+    encoder.flush();
+    return out.toByteArray();
+  }
+
+  @Test
+  public void testSameAsItemByItem() throws IOException {
+    Random random = new Random(7);
+    int[] ints = new int[COUNT];
+    long[] longs = new long[COUNT];
+    float[] floats = new float[COUNT];
+    double[] doubles = new double[COUNT];
+    for (int i = 0; i < COUNT; i++) {
+      ints[i] = random.nextInt() >> random.nextInt(32);
+      longs[i] = random.nextLong() >> random.nextInt(64);
+      floats[i] = random.nextFloat();
+      doubles[i] = random.nextDouble();
+    }
+    for (EncoderSupplier encoder : ENCODERS) {
+      assertArrayEquals(write(encoder, false, ints, longs, floats, doubles),
+          write(encoder, true, ints, longs, floats, doubles));
+    }
+  }
+
+  @Test
+  public void testReflectArrays() throws IOException {
+    double[] doubles = new double[COUNT];
+    for (int i = 0; i < COUNT; i++) {
+      doubles[i] = i / 3.0;
+    }
+    Schema schema = Schema.createArray(Schema.create(Schema.Type.DOUBLE));
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    Encoder encoder = FACTORY.binaryEncoder(out, null);
+    new ReflectDatumWriter<double[]>(schema).write(doubles, encoder);
+    encoder.flush();
+    ByteArrayOutputStream expected = new ByteArrayOutputStream();
+    Encoder direct = FACTORY.directBinaryEncoder(expected, null);
+    direct.writeArrayStart();
+    direct.setItemCount(COUNT);
+    for (double d : doubles) {
+      direct.startItem();
+      direct.writeDouble(d);
+    }
+    direct.writeArrayEnd();
+    assertArrayEquals(expected.toByteArray(), out.toByteArray());
+  }
+}
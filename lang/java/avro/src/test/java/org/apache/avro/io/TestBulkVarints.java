@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.avro.io;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.apache.avro.InvalidNumberEncodingException;
+import org.junit.Test;
+
+public class TestBulkVarints {
+  private static final int COUNT = 1000;
+
+  private static long[] longs() {
+    Random random = new Random(42);
+    long[] values = new long[COUNT];
+    for (int i = 0; i < COUNT; i++) {
+      // values of every encoded length
+      values[i] = random.nextLong() >> random.nextInt(64);
+    }
+    values[0] = Long.MIN_VALUE;
+    values[1] = Long.MAX_VALUE;
+    return values;
+  }
+
+  private static int[] ints() {
+    Random random = new Random(42);
+    int[] values = new int[COUNT];
+    for (int i = 0; i < COUNT; i++) {
+      values[i] = random.nextInt() >> random.nextInt(32);
+    }
+    values[0] = Integer.MIN_VALUE;
+    values[1] = Integer.MAX_VALUE;
+    return values;
+  }
+
+  private static byte[] encode(long[] longs, int[] ints) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    BinaryEncoder encoder = EncoderFactory.get().binaryEncoder(out, null);
+    for (long l : longs) {
+      encoder.writeLong(l);
+    }
+    for (int i : ints) {
+      encoder.writeInt(i);
+    }
+    encoder.flush();
+    return out.toByteArray();
+  }
+
+  private static List<Decoder> decoders(byte[] bytes) {
+    int half = bytes.length / 2 + 3;
+    return Arrays.asList(DecoderFactory.get().binaryDecoder(bytes, null),
+        new DecoderFactory().configureDecoderBufferSize(64).binaryDecoder(new ByteArrayInputStream(bytes), null),
+        DecoderFactory.get().directBinaryDecoder(new ByteArrayInputStream(bytes), null),
+        DecoderFactory.get().binaryDecoder(
+            Arrays.asList(ByteBuffer.wrap(bytes, 0, half), ByteBuffer.wrap(bytes, half, bytes.length - half)), null));
+  }
+
+  @Test
+  public void testReadInBulk() throws IOException {
+    long[] longs = longs();
+    int[] ints = ints();
+    for (Decoder decoder : decoders(encode(longs, ints))) {
+      long[] readLongs = new long[COUNT + 1];
+      decoder.readLongs(readLongs, 1, 10);
+      decoder.readLongs(readLongs, 11, COUNT - 10);
+      assertArrayEquals(longs, Arrays.copyOfRange(readLongs, 1, COUNT + 1));
+      int[] readInts = new int[COUNT];
+      decoder.readInts(readInts, 0, COUNT);
+      assertArrayEquals(ints, readInts);
+      if (!(decoder instanceof DirectBinaryDecoder)) {
+        assertTrue(((BinaryDecoder) decoder).isEnd());
+      }
+    }
+  }
+
+  @Test(expected = InvalidNumberEncodingException.class)
+  public void testInvalidInt() throws IOException {
+    byte[] bytes = new byte[] { -1, -1, -1, -1, -1, 1, 0, 0, 0, 0 };
+    DecoderFactory.get().binaryDecoder(bytes, null).readInts(new int[1], 0, 1);
+  }
+}
@@ -0,0 +1,115 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.avro.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.junit.Test;
+
+public class TestByteBufferCoders {
+  private static final Schema SCHEMA = new Schema.Parser().parse("{\"type\":\"record\",\"name\":\"R\",\"fields\":["
+      + "{\"name\":\"i\",\"type\":\"int\"},{\"name\":\"l\",\"type\":\"long\"},"
+      + "{\"name\":\"f\",\"type\":\"float\"},{\"name\":\"d\",\"type\":\"double\"},"
+      + "{\"name\":\"s\",\"type\":\"string\"},{\"name\":\"b\",\"type\":\"bytes\"},"
+      + "{\"name\":\"a\",\"type\":{\"type\":\"array\",\"items\":\"long\"}}]}");
+
+  private static GenericRecord record() {
+    GenericRecord record = new GenericData.Record(SCHEMA);
+    record.put("i", Integer.MIN_VALUE);
+    record.put("l", Long.MAX_VALUE);
+    record.put("f", 1.5f);
+    record.put("d", -2.25);
+    record.put("s", "direct é");
+    record.put("b", ByteBuffer.wrap(new byte[] { 1, 2, 3 }));
+    record.put("a", Arrays.asList(-1L, 1L << 40, 0L));
+    return record;
+  }
+
+  private static byte[] encode(GenericRecord record) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    BinaryEncoder encoder = EncoderFactory.get().binaryEncoder(out, null);
+    new GenericDatumWriter<GenericRecord>(SCHEMA).write(record, encoder);
+    encoder.flush();
+    return out.toByteArray();
+  }
+
+  private static ByteBuffer direct(byte[] bytes, int from, int to) {
+    ByteBuffer buffer = ByteBuffer.allocateDirect(to - from);
+    buffer.put(bytes, from, to - from);
+    buffer.flip();
+    return buffer;
+  }
+
+  @Test
+  public void testDirectBuffer() throws IOException {
+    GenericRecord expected = record();
+    byte[] bytes = encode(expected);
+    for (boolean fast : new boolean[] { false, true }) {
+      GenericData data = new GenericData();
+      data.setFastReaderEnabled(fast);
+      ByteBuffer buffer = direct(bytes, 0, bytes.length);
+      BinaryDecoder decoder = DecoderFactory.get().binaryDecoder(buffer, null);
+      assertEquals(expected, data.createDatumReader(SCHEMA).read(null, decoder));
+      assertTrue(decoder.isEnd());
+      assertEquals(0, buffer.position());
+    }
+  }
+
+  @Test
+  public void testValuesSpanningBuffers() throws IOException {
+    GenericRecord expected = record();
+    byte[] bytes = encode(expected);
+    BinaryDecoder decoder = null;
+    for (int first = 0; first <= bytes.length; first++) {
+      for (int second = first; second <= bytes.length; second++) {
+        decoder = DecoderFactory.get().binaryDecoder(Arrays.asList(direct(bytes, 0, first),
+            direct(bytes, first, second), direct(bytes, second, bytes.length)), decoder);
+        assertEquals(expected, GenericData.get().createDatumReader(SCHEMA).read(null, decoder));
+        assertTrue(decoder.isEnd());
+      }
+    }
+  }
+
+  @Test
+  public void testByteBufferEncoder() throws IOException {
+    GenericRecord expected = record();
+    byte[] bytes = encode(expected);
+    EncoderFactory factory = new EncoderFactory().configureBufferSize(32);
+    ByteBufferBinaryEncoder encoder = null;
+    for (int i = 0; i < 3; i++) {
+      ByteBuffer first = ByteBuffer.allocateDirect(7);
+      encoder = factory.byteBufferEncoder(first, encoder);
+      new GenericDatumWriter<GenericRecord>(SCHEMA).write(expected, encoder);
+      assertEquals(0, first.position());
+      assertEquals(bytes.length, encoder.getByteCount());
+      BinaryDecoder decoder = DecoderFactory.get().binaryDecoder(encoder.getBuffers(), null);
+      assertEquals(expected, GenericData.get().createDatumReader(SCHEMA).read(null, decoder));
+      assertTrue(decoder.isEnd());
+    }
+  }
+}
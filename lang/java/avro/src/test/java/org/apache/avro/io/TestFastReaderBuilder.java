@@ -0,0 +1,102 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.avro.io;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.junit.Test;
+
+public class TestFastReaderBuilder {
+  private static final Schema WRITER = new Schema.Parser().parse("{\"type\":\"record\",\"name\":\"R\",\"fields\":["
+      + "{\"name\":\"k\",\"type\":\"int\"},{\"name\":\"a\",\"type\":\"int\"},{\"name\":\"b\",\"type\":\"double\"},"
+      + "{\"name\":\"c\",\"type\":\"long\"},{\"name\":\"d\",\"type\":\"string\"},"
+      + "{\"name\":\"e\",\"type\":{\"type\":\"fixed\",\"name\":\"F\",\"size\":3}},"
+      + "{\"name\":\"f\",\"type\":{\"type\":\"record\",\"name\":\"P\",\"fields\":[{\"name\":\"x\",\"type\":\"float\"}]}},"
+      + "{\"name\":\"g\",\"type\":{\"type\":\"array\",\"items\":\"int\"}},{\"name\":\"h\",\"type\":\"long\"},"
+      + "{\"name\":\"i\",\"type\":\"boolean\"},{\"name\":\"j\",\"type\":\"string\"}]}");
+  private static final Schema READER = new Schema.Parser().parse("{\"type\":\"record\",\"name\":\"R\",\"fields\":["
+      + "{\"name\":\"k\",\"type\":\"int\"},{\"name\":\"h\",\"type\":\"long\"}]}");
+
+  private static byte[] write() throws IOException {
+    GenericRecord record = new GenericData.Record(WRITER);
+    record.put("k", 7);
+    record.put("a", -300);
+    record.put("b", 1.5);
+    record.put("c", Long.MIN_VALUE);
+    record.put("d", "skipped");
+    record.put("e", new GenericData.Fixed(WRITER.getField("e").schema(), new byte[] { 1, 2, 3 }));
+    GenericRecord p = new GenericData.Record(WRITER.getField("f").schema());
+    p.put("x", 2.5f);
+    record.put("f", p);
+    record.put("g", Arrays.asList(1, 2, 3));
+    record.put("h", 1L << 40);
+    record.put("i", true);
+    record.put("j", "last");
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    BinaryEncoder encoder = EncoderFactory.get().binaryEncoder(out, null);
+    new GenericDatumWriter<GenericRecord>(WRITER).write(record, encoder);
+    new GenericDatumWriter<GenericRecord>(WRITER).write(record, encoder);
+    encoder.flush();
+    return out.toByteArray();
+  }
+
+  private static void assertProjected(GenericData data, Decoder decoder) throws IOException {
+    GenericDatumReader<GenericRecord> reader = new GenericDatumReader<>(WRITER, READER, data);
+    for (int i = 0; i < 2; i++) {
+      GenericRecord record = reader.read(null, decoder);
+      assertEquals(7, record.get("k"));
+      assertEquals(1L << 40, record.get("h"));
+    }
+  }
+
+  @Test
+  public void testSkippedRuns() throws IOException {
+    byte[] bytes = write();
+    for (GenericData data : new GenericData[] { new GenericData().setFastReaderEnabled(true),
+        new GenericData().setCompiledRecordsEnabled(true) }) {
+      assertProjected(data, DecoderFactory.get().binaryDecoder(bytes, null));
+      assertProjected(data, DecoderFactory.get().directBinaryDecoder(new ByteArrayInputStream(bytes), null));
+      assertProjected(data, DecoderFactory.get().binaryDecoder(
+          Arrays.asList(ByteBuffer.wrap(bytes, 0, 9), ByteBuffer.wrap(bytes, 9, bytes.length - 9)), null));
+      assertProjected(data, DecoderFactory.get().jsonDecoder(WRITER, json()));
+    }
+  }
+
+  private static String json() throws IOException {
+    GenericDatumReader<GenericRecord> reader = new GenericDatumReader<>(WRITER);
+    BinaryDecoder in = DecoderFactory.get().binaryDecoder(write(), null);
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    JsonEncoder encoder = EncoderFactory.get().jsonEncoder(WRITER, out);
+    GenericDatumWriter<GenericRecord> writer = new GenericDatumWriter<>(WRITER);
+    writer.write(reader.read(null, in), encoder);
+    writer.write(reader.read(null, in), encoder);
+    encoder.flush();
+    return out.toString("UTF-8");
+  }
+}
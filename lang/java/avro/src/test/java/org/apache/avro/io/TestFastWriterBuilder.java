@@ -0,0 +1,95 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.avro.io;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.apache.avro.Schema;
+import org.apache.avro.UnresolvedUnionException;
+import org.apache.avro.data.TimeConversions;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.junit.Test;
+
+public class TestFastWriterBuilder {
+  private static final Schema SCHEMA = new Schema.Parser().parse("{\"type\":\"record\",\"name\":\"R\",\"fields\":["
+      + "{\"name\":\"i\",\"type\":\"int\"},{\"name\":\"s\",\"type\":\"string\"},"
+      + "{\"name\":\"t\",\"type\":{\"type\":\"long\",\"logicalType\":\"timestamp-millis\"}},"
+      + "{\"name\":\"n\",\"type\":[\"null\",\"R\"]},"
+      + "{\"name\":\"u\",\"type\":[\"int\",\"string\",\"bytes\"]},"
+      + "{\"name\":\"e\",\"type\":{\"type\":\"enum\",\"name\":\"E\",\"symbols\":[\"A\",\"B\"]}},"
+      + "{\"name\":\"f\",\"type\":{\"type\":\"fixed\",\"name\":\"F\",\"size\":2}},"
+      + "{\"name\":\"m\",\"type\":{\"type\":\"map\",\"values\":{\"type\":\"array\",\"items\":\"double\"}}}]}");
+
+  private static GenericRecord record(GenericRecord next) {
+    GenericRecord record = new GenericData.Record(SCHEMA);
+    record.put("i", 42);
+    record.put("s", "text");
+    record.put("t", Instant.ofEpochMilli(1234567890123L));
+    record.put("n", next);
+    record.put("u", next == null ? ByteBuffer.wrap(new byte[] { 1 }) : "union");
+    record.put("e", new GenericData.EnumSymbol(SCHEMA.getField("e").schema(), "B"));
+    record.put("f", new GenericData.Fixed(SCHEMA.getField("f").schema(), new byte[] { 1, 2 }));
+    record.put("m", Collections.singletonMap("k", Arrays.asList(1.0, 2.0)));
+    return record;
+  }
+
+  private static byte[] write(GenericData data, Object datum) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    BinaryEncoder encoder = EncoderFactory.get().binaryEncoder(out, null);
+    new GenericDatumWriter<>(SCHEMA, data).write(datum, encoder);
+    encoder.flush();
+    return out.toByteArray();
+  }
+
+  @Test
+  public void testSameAsGenericDatumWriter() throws IOException {
+    GenericData data = new GenericData();
+    data.addLogicalTypeConversion(new TimeConversions.TimestampMillisConversion());
+    GenericData fast = new GenericData().setFastWriterEnabled(true);
+    fast.addLogicalTypeConversion(new TimeConversions.TimestampMillisConversion());
+    GenericRecord record = record(record(null));
+    assertArrayEquals(write(data, record), write(fast, record));
+  }
+
+  @Test
+  public void testUnresolvedNullableUnion() throws IOException {
+    GenericData fast = new GenericData().setFastWriterEnabled(true);
+    Schema other = new Schema.Parser().parse("{\"type\":\"record\",\"name\":\"Other\",\"fields\":[]}");
+    for (Object next : new Object[] { "not a record", new GenericData.Record(other) }) {
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      BinaryEncoder encoder = EncoderFactory.get().directBinaryEncoder(out, null);
+      try {
+        new GenericDatumWriter<>(SCHEMA.getField("n").schema(), fast).write(next, encoder);
+        fail("Expected UnresolvedUnionException for " + next);
+      } catch (UnresolvedUnionException e) {
+        assertEquals(0, out.size()); // not even the branch index
+      }
+    }
+  }
+}
@@ -0,0 +1,84 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.avro.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.apache.avro.Schema;
+import org.apache.avro.testutil.RandomEncoded;
+import org.junit.Test;
+
+public class TestNormalizedKey {
+  private static final Schema SCHEMA = new Schema.Parser().parse("{\"type\":\"record\",\"name\":\"R\",\"fields\":["
+      + "{\"name\":\"flag\",\"type\":\"boolean\"},"
+      + "{\"name\":\"ignored\",\"type\":{\"type\":\"array\",\"items\":\"string\"},\"order\":\"ignore\"},"
+      + "{\"name\":\"kind\",\"type\":{\"type\":\"enum\",\"name\":\"E\",\"symbols\":[\"A\",\"B\"]}},"
+      + "{\"name\":\"opt\",\"type\":[\"null\",\"boolean\"],\"order\":\"descending\"},"
+      + "{\"name\":\"small\",\"type\":{\"type\":\"fixed\",\"name\":\"F\",\"size\":1}},"
+      + "{\"name\":\"flags\",\"type\":{\"type\":\"array\",\"items\":\"boolean\"}},"
+      + "{\"name\":\"d\",\"type\":\"double\",\"order\":\"descending\"},"
+      + "{\"name\":\"f\",\"type\":\"float\"},"
+      + "{\"name\":\"s\",\"type\":\"string\"},"
+      + "{\"name\":\"l\",\"type\":\"long\",\"order\":\"descending\"}]}");
+
+  private static void assertConsistent(Schema schema, int length) throws IOException {
+    NormalizedKey normalizedKey = new NormalizedKey(schema, length);
+    List<byte[]> data = RandomEncoded.encode(schema, RandomEncoded.datums(schema, 200, 42L));
+    for (byte[] a : data) {
+      for (byte[] b : data) {
+        int expected = BinaryData.compare(a, 0, a.length, b, 0, b.length, schema);
+        int actual = normalizedKey.compare(a, 0, a.length, b, 0, b.length);
+        assertEquals(Integer.signum(expected), Integer.signum(actual));
+      }
+    }
+  }
+
+  @Test
+  public void testConsistentWithBinaryCompare() throws IOException {
+    for (int length : new int[] { 1, 3, 8, 16, 64 }) {
+      assertConsistent(SCHEMA, length);
+    }
+  }
+
+  @Test
+  public void testNumbers() throws IOException {
+    for (String type : new String[] { "int", "long", "float", "double" }) {
+      assertConsistent(Schema.create(Schema.Type.valueOf(type.toUpperCase())), 16);
+      assertConsistent(new Schema.Parser().parse("{\"type\":\"array\",\"items\":\"" + type + "\"}"), 16);
+    }
+  }
+
+  @Test
+  public void testCompleteKeys() {
+    NormalizedKey key = new NormalizedKey(Schema.create(Schema.Type.LONG), 8);
+    byte[] k1 = new byte[8];
+    byte[] k2 = new byte[8];
+    byte[] b = new byte[10];
+    assertTrue(key.write(b, 0, BinaryData.encodeLong(-1, b, 0), k1, 0));
+    assertTrue(key.write(b, 0, BinaryData.encodeLong(1, b, 0), k2, 0));
+    assertTrue(BinaryData.compareBytes(k1, 0, 8, k2, 0, 8) < 0);
+
+    NormalizedKey string = new NormalizedKey(Schema.create(Schema.Type.STRING), 8);
+    assertFalse(string.write(new byte[] { 2, 'a' }, 0, 2, k1, 0));
+  }
+}
@@ -0,0 +1,66 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.avro.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.io.IOException;
+
+import org.apache.avro.Schema;
+import org.junit.Test;
+
+public class TestResolverCache {
+  private static Schema record(String type) {
+    return new Schema.Parser()
+        .parse("{\"type\":\"record\",\"name\":\"R\",\"fields\":[{\"name\":\"f\",\"type\":\"" + type + "\"}]}");
+  }
+
+  @Test
+  public void testCounters() throws IOException {
+    ResolverCache cache = new ResolverCache(2);
+    Schema writer = record("int");
+    Schema reader = record("long");
+    Object resolver = cache.getResolver(writer, reader);
+    assertSame(resolver, cache.getResolver(writer, reader));
+    assertEquals(1, cache.getHitCount());
+    assertEquals(1, cache.getMissCount());
+
+    // the pair used since the last eviction is kept
+    cache.getResolver(record("int"), reader);
+    cache.getResolver(record("int"), reader);
+    assertSame(resolver, cache.getResolver(writer, reader));
+    cache.getResolver(record("int"), reader);
+    assertSame(resolver, cache.getResolver(writer, reader));
+    assertEquals(3, cache.getHitCount());
+    assertEquals(4, cache.getMissCount());
+    assertEquals(2, cache.getEvictionCount());
+    assertEquals(2, cache.size());
+  }
+
+  @Test
+  public void testResolvingDecoder() throws IOException {
+    ResolverCache cache = new ResolverCache(10);
+    byte[] bytes = new byte[] { 6 };
+    for (int i = 0; i < 2; i++) {
+      ResolvingDecoder decoder = cache.resolvingDecoder(Schema.create(Schema.Type.INT),
+          Schema.create(Schema.Type.LONG), DecoderFactory.get().binaryDecoder(bytes, null));
+      assertEquals(3L, decoder.readLong());
+    }
+  }
+}
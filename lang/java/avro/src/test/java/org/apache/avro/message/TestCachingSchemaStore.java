@@ -0,0 +1,110 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.avro.message;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaNormalization;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class TestCachingSchemaStore {
+  private static final Schema SCHEMA = Schema.createRecord("R", null, "test", false,
+      Collections.singletonList(new Schema.Field("f", Schema.create(Schema.Type.INT), null, null)));
+  private static final long FP = SchemaNormalization.parsingFingerprint64(SCHEMA);
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void testNegativeCaching() {
+    AtomicInteger queries = new AtomicInteger();
+    AtomicLong now = new AtomicLong();
+    CachingSchemaStore store = new CachingSchemaStore(fp -> {
+      queries.incrementAndGet();
+      return null;
+    }, 10, TimeUnit.NANOSECONDS, now::get);
+    assertNull(store.findByFingerprint(FP));
+    assertNull(store.findByFingerprint(FP));
+    assertEquals(1, queries.get());
+    now.set(10);
+    assertNull(store.findByFingerprint(FP));
+    assertEquals(2, queries.get());
+    store.addSchema(SCHEMA);
+    assertEquals(SCHEMA, store.findByFingerprint(FP));
+    assertEquals(2, queries.get());
+  }
+
+  @Test
+  public void testSingleLookup() throws Exception {
+    AtomicInteger queries = new AtomicInteger();
+    CountDownLatch release = new CountDownLatch(1);
+    CachingSchemaStore store = new CachingSchemaStore(fp -> {
+      queries.incrementAndGet();
+      try {
+        release.await();
+      } catch (InterruptedException e) {
+        throw new IllegalStateException(e);
+      }
+      return SCHEMA;
+    }, 1, TimeUnit.MINUTES);
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      List<Future<Schema>> results = new ArrayList<>();
+      for (int i = 0; i < 8; i++) {
+        results.add(executor.submit(() -> store.findByFingerprint(FP)));
+      }
+      Thread.sleep(100);
+      release.countDown();
+      for (Future<Schema> result : results) {
+        assertEquals(SCHEMA, result.get());
+      }
+    } finally {
+      executor.shutdown();
+    }
+    assertEquals(1, queries.get());
+  }
+
+  @Test
+  public void testDirectoryStore() throws IOException {
+    File directory = folder.newFolder();
+    DirectorySchemaStore store = new DirectorySchemaStore(directory);
+    assertNull(store.findByFingerprint(FP));
+    Files.write(new File(directory, "r.avsc").toPath(), SCHEMA.toString().getBytes(StandardCharsets.UTF_8));
+    assertEquals(SCHEMA, store.findByFingerprint(FP));
+  }
+}
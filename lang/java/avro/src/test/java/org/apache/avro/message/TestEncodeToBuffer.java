@@ -0,0 +1,100 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.avro.message;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaBuilder;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericData.Record;
+import org.apache.avro.generic.GenericRecordBuilder;
+import org.junit.Test;
+
+public class TestEncodeToBuffer {
+  private static final Schema SCHEMA = SchemaBuilder.record("Target").fields().requiredLong("id").requiredString("name")
+      .endRecord();
+
+  private static Record record(long id) {
+    return new GenericRecordBuilder(SCHEMA).set("id", id).set("name", "record-" + id).build();
+  }
+
+  @Test
+  public void testEncodeIntoHeapAndDirectBuffers() throws IOException {
+    BinaryMessageEncoder<Record> encoder = new BinaryMessageEncoder<>(GenericData.get(), SCHEMA);
+    BinaryMessageDecoder<Record> decoder = new BinaryMessageDecoder<>(GenericData.get(), SCHEMA);
+    for (ByteBuffer target : new ByteBuffer[] { ByteBuffer.allocate(256), ByteBuffer.allocateDirect(256) }) {
+      target.position(5);
+      int first = encoder.encode(record(1), target);
+      int second = encoder.encode(record(-123456789L), target);
+      assertEquals(5 + first + second, target.position());
+
+      ByteBuffer message = target.duplicate();
+      message.position(5);
+      message.limit(5 + first);
+      assertEquals(encoder.encode(record(1)), message);
+      assertEquals(record(1), decoder.decode(message));
+      message.limit(5 + first + second);
+      message.position(5 + first);
+      assertEquals(record(-123456789L), decoder.decode(message));
+    }
+  }
+
+  @Test
+  public void testOverflowLeavesPosition() throws IOException {
+    RawMessageEncoder<Record> encoder = new RawMessageEncoder<>(GenericData.get(), SCHEMA);
+    int length = encoder.encode(record(42)).remaining();
+    ByteBuffer target = ByteBuffer.allocate(length + 2);
+    target.position(3);
+    try {
+      encoder.encode(record(42), target);
+      fail("Should not fit");
+    } catch (BufferOverflowException e) {
+      assertEquals(3, target.position());
+    }
+    target.position(2);
+    assertEquals(length, encoder.encode(record(42), target));
+    assertEquals(target.limit(), target.position());
+  }
+
+  @Test(expected = BufferOverflowException.class)
+  public void testDefaultMethodOverflow() throws IOException {
+    MessageEncoder<Record> raw = new RawMessageEncoder<>(GenericData.get(), SCHEMA);
+    MessageEncoder<Record> encoder = new MessageEncoder<Record>() {
+      @Override
+      public ByteBuffer encode(Record datum) throws IOException {
+        return raw.encode(datum);
+      }
+
+      @Override
+      public void encode(Record datum, OutputStream stream) throws IOException {
+        raw.encode(datum, stream);
+      }
+    };
+    ByteBuffer target = ByteBuffer.allocate(64);
+    assertEquals(raw.encode(record(7)).remaining(), encoder.encode(record(7), target));
+    encoder.encode(record(7), ByteBuffer.allocate(2));
+  }
+}
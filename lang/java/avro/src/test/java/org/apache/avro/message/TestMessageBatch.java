@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.avro.message;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaBuilder;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericData.Record;
+import org.apache.avro.generic.GenericRecordBuilder;
+import org.junit.Test;
+
+public class TestMessageBatch {
+  private static final Schema SCHEMA = SchemaBuilder.record("Batched").fields().requiredLong("id").requiredString("name")
+      .endRecord();
+
+  private static List<Record> records(int count) {
+    List<Record> records = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      records.add(new GenericRecordBuilder(SCHEMA).set("id", (long) i << (i % 40)).set("name", "record-" + i).build());
+    }
+    return records;
+  }
+
+  @Test
+  public void testBinaryRoundTrip() throws IOException {
+    BinaryMessageEncoder<Record> encoder = new BinaryMessageEncoder<>(GenericData.get(), SCHEMA);
+    BinaryMessageDecoder<Record> decoder = new BinaryMessageDecoder<>(GenericData.get(), SCHEMA);
+    List<Record> records = records(100);
+
+    MessageBatch batch = encoder.encodeBatch(records);
+    assertEquals(100, batch.size());
+    for (int i = 0; i < batch.size(); i++) {
+      // each message can also be decoded on its own
+      assertEquals(records.get(i), decoder.decode(batch.getMessage(i)));
+      assertEquals(encoder.encode(records.get(i)), batch.getMessage(i));
+    }
+
+    List<Record> decoded = decoder.decodeBatch(batch, null);
+    assertEquals(records, decoded);
+
+    List<Record> again = decoder.decodeBatch(batch, decoded.subList(0, 10));
+    assertEquals(records, again);
+    for (int i = 0; i < 10; i++) {
+      assertSame(decoded.get(i), again.get(i));
+    }
+  }
+
+  @Test
+  public void testRawRoundTripWithoutCopy() throws IOException {
+    RawMessageEncoder<Record> encoder = new RawMessageEncoder<>(GenericData.get(), SCHEMA, false);
+    RawMessageDecoder<Record> decoder = new RawMessageDecoder<>(GenericData.get(), SCHEMA);
+    List<Record> records = records(20);
+
+    assertEquals(records, decoder.decodeBatch(encoder.encodeBatch(records), null));
+    assertEquals(0, encoder.encodeBatch(Collections.emptyList()).size());
+  }
+
+  @Test
+  public void testDirectBuffer() throws IOException {
+    BinaryMessageEncoder<Record> encoder = new BinaryMessageEncoder<>(GenericData.get(), SCHEMA);
+    BinaryMessageDecoder<Record> decoder = new BinaryMessageDecoder<>(GenericData.get(), SCHEMA);
+    List<Record> records = records(5);
+    MessageBatch batch = encoder.encodeBatch(records);
+
+    // messages at an offset in a direct buffer
+    ByteBuffer direct = ByteBuffer.allocateDirect(batch.getBuffer().remaining() + 3);
+    direct.position(3);
+    direct.put(batch.getBuffer().duplicate());
+    int[] offsets = new int[records.size() + 1];
+    for (int i = 0; i < offsets.length; i++) {
+      offsets[i] = batch.getOffset(i) + 3;
+    }
+    assertEquals(records, decoder.decodeBatch(new MessageBatch(direct, offsets), null));
+  }
+
+  @Test(expected = BadHeaderException.class)
+  public void testBadHeader() throws IOException {
+    BinaryMessageDecoder<Record> decoder = new BinaryMessageDecoder<>(GenericData.get(), SCHEMA);
+    decoder.decodeBatch(new MessageBatch(ByteBuffer.wrap(new byte[12]), new int[] { 0, 12 }), null);
+  }
+
+  @Test
+  public void testDefaultMethods() throws IOException {
+    MessageEncoder<Record> raw = new RawMessageEncoder<>(GenericData.get(), SCHEMA);
+    MessageEncoder<Record> encoder = new MessageEncoder<Record>() {
+      @Override
+      public ByteBuffer encode(Record datum) throws IOException {
+        return raw.encode(datum);
+      }
+
+      @Override
+      public void encode(Record datum, OutputStream stream) throws IOException {
+        raw.encode(datum, stream);
+      }
+    };
+    List<Record> records = records(3);
+    MessageBatch batch = encoder.encodeBatch(records);
+    MessageDecoder<Record> decoder = new MessageDecoder.BaseDecoder<Record>() {
+      private final RawMessageDecoder<Record> delegate = new RawMessageDecoder<>(GenericData.get(), SCHEMA);
+
+      @Override
+      public Record decode(InputStream stream, Record reuse) throws IOException {
+        return delegate.decode(stream, reuse);
+      }
+    };
+    assertEquals(records, decoder.decodeBatch(batch, Arrays.asList(null, null)));
+  }
+}
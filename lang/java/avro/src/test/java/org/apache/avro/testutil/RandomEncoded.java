@@ -0,0 +1,55 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.avro.testutil;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.EncoderFactory;
+import org.apache.avro.util.RandomData;
+
+/** Random generic datums of a schema and their binary encoding. */
+public class RandomEncoded {
+  private RandomEncoded() {
+  }
+
+  public static List<Object> datums(Schema schema, int count, long seed) {
+    List<Object> datums = new ArrayList<>();
+    for (Object datum : new RandomData(schema, count, seed)) {
+      datums.add(datum);
+    }
+    return datums;
+  }
+
+  public static List<byte[]> encode(Schema schema, List<Object> datums) throws IOException {
+    List<byte[]> encoded = new ArrayList<>();
+    GenericDatumWriter<Object> writer = new GenericDatumWriter<>(schema);
+    for (Object datum : datums) {
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      BinaryEncoder encoder = EncoderFactory.get().directBinaryEncoder(out, null);
+      writer.write(datum, encoder);
+      encoded.add(out.toByteArray());
+    }
+    return encoded;
+  }
+}
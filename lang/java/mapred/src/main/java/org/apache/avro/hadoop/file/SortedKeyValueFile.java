@@ -21,6 +21,7 @@ package org.apache.avro.hadoop.file;
 import java.io.Closeable;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.Comparator;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.NavigableMap;
@@ -97,6 +98,9 @@ public class SortedKeyValueFile {
     /** The model for the data. */
     private GenericData model;
 
+    /** Compares keys, see {@link GenericData#getComparator(Schema)}. */
+    private Comparator<Object> mKeyComparator;
+
     /** A class to encapsulate the options of a Reader. */
     public static class Options {
       /** The configuration. */
@@ -216,6 +220,7 @@ public class SortedKeyValueFile {
     public Reader(Options options) throws IOException {
       mKeySchema = options.getKeySchema();
       this.model = options.getDataModel();
+      mKeyComparator = model.getComparator(mKeySchema);
 
       // Load the whole index file into memory.
       Path indexFilePath = new Path(options.getPath(), INDEX_FILENAME);
@@ -258,7 +263,7 @@ public class SortedKeyValueFile {
 
       // Scan from this position of the file until we find it or pass it.
       for (AvroKeyValue<K, V> record : this) {
-        int comparison = model.compare(record.getKey(), key, mKeySchema);
+        int comparison = mKeyComparator.compare(record.getKey(), key);
         if (0 == comparison) {
           // We've found it!
           LOG.debug("Found record for key {}", key);
@@ -359,6 +364,9 @@ public class SortedKeyValueFile {
     /** The model for the data. */
     private GenericData model;
 
+    /** Compares keys, see {@link GenericData#getComparator(Schema)}. */
+    private Comparator<Object> mKeyComparator;
+
     /** The writer for the data file. */
     private final DataFileWriter<GenericRecord> mDataFileWriter;
 
@@ -556,6 +564,7 @@ public class SortedKeyValueFile {
       if (null == mKeySchema) {
         throw new IllegalArgumentException("Key schema may not be null");
       }
+      mKeyComparator = model.getComparator(mKeySchema);
       mValueSchema = options.getValueSchema();
       if (null == mValueSchema) {
         throw new IllegalArgumentException("Value schema may not be null");
@@ -600,7 +609,7 @@ public class SortedKeyValueFile {
      */
     public void append(K key, V value) throws IOException {
       // Make sure the keys are inserted in sorted order.
-      if (null != mPreviousKey && model.compare(key, mPreviousKey, mKeySchema) < 0) {
+      if (null != mPreviousKey && mKeyComparator.compare(key, mPreviousKey) < 0) {
         throw new IllegalArgumentException("Records must be inserted in sorted key order." + " Attempted to insert key "
             + key + " after " + mPreviousKey + ".");
       }
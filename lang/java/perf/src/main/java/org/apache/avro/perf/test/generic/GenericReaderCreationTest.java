@@ -0,0 +1,70 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.avro.perf.test.generic;
+
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.io.FastReaderBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the throughput of creating fast readers for schemas whose record
+ * readers are already cached, from threads sharing one {@link GenericData}.
+ */
+public class GenericReaderCreationTest {
+
+  private static final String WRITER_SCHEMA = "{ \"type\": \"record\", \"name\": \"R\", \"fields\": [\n"
+      + "{ \"name\": \"f1\", \"type\": \"double\" },\n" + "{ \"name\": \"f2\", \"type\": \"int\" },\n"
+      + "{ \"name\": \"f3\", \"type\": {\"type\": \"record\", \"name\": \"N\", \"fields\": [\n"
+      + "  { \"name\": \"n1\", \"type\": \"string\" }, { \"name\": \"n2\", \"type\": \"long\" } ] } }\n" + "] }";
+
+  private static final String READER_SCHEMA = "{ \"type\": \"record\", \"name\": \"R\", \"fields\": [\n"
+      + "{ \"name\": \"f1\", \"type\": \"double\" },\n"
+      + "{ \"name\": \"f3\", \"type\": {\"type\": \"record\", \"name\": \"N\", \"fields\": [\n"
+      + "  { \"name\": \"n1\", \"type\": \"string\" } ] } }\n" + "] }";
+
+  @Benchmark
+  @Threads(1)
+  public void create1(final Blackhole blackhole, final TestState state) throws Exception {
+    blackhole.consume(state.builder.createDatumReader(state.writerSchema, state.readerSchema));
+  }
+
+  @Benchmark
+  @Threads(8)
+  public void create8(final Blackhole blackhole, final TestState state) throws Exception {
+    blackhole.consume(state.builder.createDatumReader(state.writerSchema, state.readerSchema));
+  }
+
+  @Benchmark
+  @Threads(64)
+  public void create64(final Blackhole blackhole, final TestState state) throws Exception {
+    blackhole.consume(state.builder.createDatumReader(state.writerSchema, state.readerSchema));
+  }
+
+  @State(Scope.Benchmark)
+  public static class TestState {
+    private final Schema writerSchema = new Schema.Parser().parse(WRITER_SCHEMA);
+    private final Schema readerSchema = new Schema.Parser().parse(READER_SCHEMA);
+    private final FastReaderBuilder builder = new GenericData().setFastReaderEnabled(true).getFastReaderBuilder();
+  }
+}
@@ -22,16 +22,21 @@ import java.io.IOException;
 import java.io.Closeable;
 import java.io.File;
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.HashMap;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Executor;
 
 import org.apache.trevni.ColumnMetaData;
 import org.apache.trevni.ColumnFileReader;
+import org.apache.trevni.ColumnPredicate;
 import org.apache.trevni.ColumnValues;
 import org.apache.trevni.Input;
 import org.apache.trevni.InputFile;
+import org.apache.trevni.RowSelection;
 import org.apache.trevni.TrevniRuntimeException;
 
 import org.apache.avro.Schema;
@@ -43,7 +48,8 @@ import static org.apache.trevni.avro.AvroColumnator.isSimple;
 /**
  * Read files written with {@link AvroColumnWriter}. A subset of the schema used
  * for writing may be specified when reading. In this case only columns of the
- * subset schema are read.
+ * subset schema are read. A filter may also be specified, in which case rows
+ * in blocks that cannot match it are skipped.
  */
 public class AvroColumnReader<D> implements Iterator<D>, Iterable<D>, Closeable {
 
@@ -56,6 +62,12 @@ public class AvroColumnReader<D> implements Iterator<D>, Iterable<D>, Closeable
   private int[] arrayWidths;
   private int column; // current index in values
 
+  private RowSelection selection; // rows that may match the filter, or null
+  private long row; // next row to be read
+  private Schema[] groupSchemas; // top-level fields, skipped a group at a time
+  private int[] groupStarts;
+  private boolean[] groupSeekable;
+
   private Map<String, Map<String, Object>> defaults = new HashMap<>();
 
   /** Parameters for reading an Avro column file. */
@@ -63,6 +75,8 @@ public class AvroColumnReader<D> implements Iterator<D>, Iterable<D>, Closeable
     Input input;
     Schema schema;
     GenericData model = GenericData.get();
+    ColumnPredicate[] filter;
+    Executor executor;
 
     /** Construct reading from a file. */
     public Params(File file) throws IOException {
@@ -85,6 +99,30 @@ public class AvroColumnReader<D> implements Iterator<D>, Iterable<D>, Closeable
       this.model = model;
       return this;
     }
+
+    /**
+     * Set predicates that rows must all match. Only rows in blocks whose
+     * statistics show that they might match are read, so rows returned must
+     * still be tested. Predicates name columns as they are written, e.g., "x"
+     * for a field, "x#y" for a field of a nested record or "x/int" for a field
+     * whose type is a union of null and int.
+     */
+    public Params setFilter(ColumnPredicate... filter) {
+      this.filter = filter;
+      return this;
+    }
+
+    /**
+     * Set an executor that reads and decompresses the next block of each
+     * column ahead of the rows being read, e.g., a fixed thread pool, so that
+     * the columns of a wide projection are decompressed in parallel. Records
+     * are still assembled by the thread calling {@link AvroColumnReader#next()}.
+     * With a filter, only the blocks of rows that may match are read ahead.
+     */
+    public Params setExecutor(Executor executor) {
+      this.executor = executor;
+      return this;
+    }
   }
 
   /** Construct a reader for a file. */
@@ -94,6 +132,21 @@ public class AvroColumnReader<D> implements Iterator<D>, Iterable<D>, Closeable
     this.fileSchema = new Schema.Parser().parse(reader.getMetaData().getString(AvroColumnWriter.SCHEMA_KEY));
     this.readSchema = params.schema == null ? fileSchema : params.schema;
     initialize();
+    if (params.filter != null && params.filter.length > 0) {
+      this.selection = reader.select(params.filter);
+      initializeGroups();
+      // columns that are sought past rows not selected should not read their
+      // blocks ahead
+      for (int g = 0; g < groupSchemas.length; g++)
+        if (groupSeekable[g])
+          for (int c = groupStarts[g]; c < groupStarts[g + 1]; c++)
+            if (values[c] != null)
+              values[c].setSelection(selection);
+    }
+    if (params.executor != null)
+      for (ColumnValues value : values)
+        if (value != null)
+          value.setExecutor(params.executor);
   }
 
   /** Return the schema for data in this file. */
@@ -122,6 +175,74 @@ public class AvroColumnReader<D> implements Iterator<D>, Iterable<D>, Closeable
     findDefaults(readSchema, fileSchema);
   }
 
+  // find the columns of each top-level field, and whether they may be sought
+  private void initializeGroups() {
+    List<Schema> schemas = new ArrayList<>();
+    if (readSchema.getType() == Schema.Type.RECORD) {
+      Map<String, Object> rDefaults = defaults.get(readSchema.getFullName());
+      for (Field f : readSchema.getFields())
+        if (rDefaults == null || !rDefaults.containsKey(f.name()))
+          schemas.add(f.schema());
+    } else {
+      schemas.add(readSchema);
+    }
+    int count = schemas.size();
+    this.groupSchemas = schemas.toArray(new Schema[count]);
+    this.groupStarts = new int[count + 1];
+    this.groupSeekable = new boolean[count];
+    for (int g = 0; g < count; g++) {
+      groupStarts[g + 1] = groupStarts[g] + width(groupSchemas[g], groupStarts[g]);
+      groupSeekable[g] = isSeekable(groupSchemas[g]);
+    }
+  }
+
+  // the number of columns read for a schema, as read() advances column
+  private int width(Schema s, int start) {
+    if (isSimple(s))
+      return 1;
+    int c = start;
+    switch (s.getType()) {
+    case MAP:
+    case ARRAY:
+      return arrayWidths[start];
+    case RECORD:
+      Map<String, Object> rDefaults = defaults.get(s.getFullName());
+      for (Field f : s.getFields())
+        if (rDefaults == null || !rDefaults.containsKey(f.name()))
+          c += width(f.schema(), c);
+      return c - start;
+    case UNION:
+      for (Schema branch : s.getTypes())
+        if (branch.getType() != Schema.Type.NULL)
+          c += arrayWidths[c];
+      return c - start;
+    default:
+      throw new TrevniRuntimeException("Unknown schema: " + s);
+    }
+  }
+
+  // true if no column of a schema has a parent or children
+  private boolean isSeekable(Schema s) {
+    if (isSimple(s))
+      return true;
+    switch (s.getType()) {
+    case RECORD:
+      for (Field f : s.getFields())
+        if (!isSeekable(f.schema()))
+          return false;
+      return true;
+    case ARRAY:
+      return isSimple(s.getElementType());
+    case UNION:
+      for (Schema branch : s.getTypes())
+        if (!isSimple(branch))
+          return false;
+      return true;
+    default:
+      return false;
+    }
+  }
+
   // get defaults for fields in read that are not in write
   private void findDefaults(Schema read, Schema write) {
     switch (read.getType()) {
@@ -179,6 +300,8 @@ public class AvroColumnReader<D> implements Iterator<D>, Iterable<D>, Closeable
 
   @Override
   public boolean hasNext() {
+    if (selection != null)
+      return selection.nextRow(row) >= 0;
     return values[0].hasNext();
   }
 
@@ -190,16 +313,45 @@ public class AvroColumnReader<D> implements Iterator<D>, Iterable<D>, Closeable
   @Override
   public D next() {
     try {
+      if (selection != null) {
+        long next = selection.nextRow(row);
+        if (next < 0)
+          throw new NoSuchElementException();
+        if (next > row)
+          skipTo(next);
+      }
       for (ColumnValues value : values)
         if (value != null)
           value.startRow();
       this.column = 0;
+      row++;
       return (D) read(readSchema);
     } catch (IOException e) {
       throw new TrevniRuntimeException(e);
     }
   }
 
+  // skip rows up to target: seek columns that may be sought, so that blocks
+  // skipped are not read, and read and discard the values of other columns
+  private void skipTo(long target) throws IOException {
+    for (int g = 0; g < groupSchemas.length; g++) {
+      if (groupSeekable[g]) {
+        for (int c = groupStarts[g]; c < groupStarts[g + 1]; c++)
+          if (values[c] != null)
+            values[c].seek(target);
+        continue;
+      }
+      for (long r = row; r < target; r++) {
+        for (int c = groupStarts[g]; c < groupStarts[g + 1]; c++)
+          if (values[c] != null)
+            values[c].startRow();
+        this.column = groupStarts[g];
+        read(groupSchemas[g]);
+      }
+    }
+    this.row = target;
+  }
+
   private Object read(Schema s) throws IOException {
     if (isSimple(s))
       return nextValue(s, column++);
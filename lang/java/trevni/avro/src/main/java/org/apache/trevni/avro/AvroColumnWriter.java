@@ -17,6 +17,7 @@
  */
 package org.apache.trevni.avro;
 
+import java.io.Closeable;
 import java.io.IOException;
 import java.io.File;
 import java.io.OutputStream;
@@ -44,9 +45,10 @@ import static org.apache.trevni.avro.AvroColumnator.isSimple;
  * <p>
  * Output is buffered until {@link #writeTo(OutputStream)} is called. The
  * {@link #sizeEstimate()} indicates both the amount of data buffered and the
- * size of the file that will be written.
+ * size of the file that will be written, unless a memory budget is set, see
+ * {@link #setMemoryBudget(long)}.
  */
-public class AvroColumnWriter<D> {
+public class AvroColumnWriter<D> implements Closeable {
   private Schema schema;
   private GenericData model;
   private ColumnFileWriter writer;
@@ -54,6 +56,13 @@ public class AvroColumnWriter<D> {
 
   public static final String SCHEMA_KEY = "avro.schema";
 
+  /**
+   * Property of a primitive, enum or fixed schema naming the encoding of its
+   * column, e.g., <code>{"type": "string", "trevni.encoding": "dictionary"}</code>.
+   * See {@link org.apache.trevni.ColumnMetaData#setEncoding(String)}.
+   */
+  public static final String ENCODING_PROP = "trevni.encoding";
+
   public AvroColumnWriter(Schema s, ColumnFileMetaData meta) throws IOException {
     this(s, meta, GenericData.get());
   }
@@ -77,6 +86,28 @@ public class AvroColumnWriter<D> {
     return writer.sizeEstimate();
   }
 
+  /**
+   * Spill finished column blocks to a temporary file once more than
+   * <i>bytes</i> of them are held in memory. See
+   * {@link ColumnFileWriter#setMemoryBudget(long)}.
+   */
+  public AvroColumnWriter<D> setMemoryBudget(long bytes) {
+    writer.setMemoryBudget(bytes);
+    return this;
+  }
+
+  /** Set the directory of the temporary file blocks are spilled to. */
+  public AvroColumnWriter<D> setSpillDirectory(File directory) {
+    writer.setSpillDirectory(directory);
+    return this;
+  }
+
+  /** Delete the temporary file blocks were spilled to, if any. */
+  @Override
+  public void close() throws IOException {
+    writer.close();
+  }
+
   /** Write all rows added to the named output stream. */
   public void writeTo(OutputStream out) throws IOException {
     writer.writeTo(out);
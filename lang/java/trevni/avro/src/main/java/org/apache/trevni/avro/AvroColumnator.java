@@ -64,7 +64,7 @@ class AvroColumnator {
     if (isSimple(s)) {
       if (path == null)
         path = s.getFullName();
-      addColumn(path, simpleValueType(s), parent, isArray);
+      encode(addColumn(path, simpleValueType(s), parent, isArray), s);
       return;
     }
 
@@ -120,11 +120,17 @@ class AvroColumnator {
     return column;
   }
 
+  private void encode(ColumnMetaData column, Schema s) {
+    String encoding = s.getProp(AvroColumnWriter.ENCODING_PROP);
+    if (encoding != null)
+      column.setEncoding(encoding);
+  }
+
   private void addArrayColumn(String path, Schema element, ColumnMetaData parent) {
     if (path == null)
       path = element.getFullName();
     if (isSimple(element)) { // optimize simple arrays
-      addColumn(path, simpleValueType(element), parent, true);
+      encode(addColumn(path, simpleValueType(element), parent, true), element);
       return;
     }
     // complex array: insert a parent column with lengths
@@ -47,7 +47,8 @@ import org.apache.trevni.ColumnFileMetaData;
  * Writes a directory of files per task, each comprising a single filesystem
  * block. To reduce the number of files, increase the default filesystem block
  * size for the job. Each task also requires enough memory to buffer a
- * filesystem block.
+ * filesystem block, unless a memory budget is set with
+ * {@link #setMemoryBudget(JobConf, long)}.
  */
 public class AvroTrevniOutputFormat<T> extends FileOutputFormat<AvroWrapper<T>, NullWritable> {
 
@@ -61,6 +62,18 @@ public class AvroTrevniOutputFormat<T> extends FileOutputFormat<AvroWrapper<T>,
     job.set(META_PREFIX + key, value);
   }
 
+  /** The job property holding the memory budget of each task's writer. */
+  public static final String MEMORY_BUDGET = "trevni.output.memory.budget";
+
+  /**
+   * Bound the memory used to buffer output: column blocks beyond <i>bytes</i>
+   * are spilled to a local temporary file until the output file is written. See
+   * {@link AvroColumnWriter#setMemoryBudget(long)}.
+   */
+  public static void setMemoryBudget(JobConf job, long bytes) {
+    job.setLong(MEMORY_BUDGET, bytes);
+  }
+
   @Override
   public RecordWriter<AvroWrapper<T>, NullWritable> getRecordWriter(FileSystem ignore, final JobConf job,
       final String name, Progressable prog) throws IOException {
@@ -75,17 +88,24 @@ public class AvroTrevniOutputFormat<T> extends FileOutputFormat<AvroWrapper<T>,
     if (!fs.mkdirs(dir))
       throw new IOException("Failed to create directory: " + dir);
     final long blockSize = fs.getDefaultBlockSize(dir);
+    final long memoryBudget = job.getLong(MEMORY_BUDGET, Long.MAX_VALUE);
 
     return new RecordWriter<AvroWrapper<T>, NullWritable>() {
       private int part = 0;
 
-      private AvroColumnWriter<T> writer = new AvroColumnWriter<>(schema, meta, ReflectData.get());
+      private AvroColumnWriter<T> writer = newWriter();
+
+      private AvroColumnWriter<T> newWriter() throws IOException {
+        return new AvroColumnWriter<T>(schema, meta, ReflectData.get()).setMemoryBudget(memoryBudget);
+      }
 
       private void flush() throws IOException {
         try (OutputStream out = fs.create(new Path(dir, "part-" + (part++) + EXT))) {
           writer.writeTo(out);
+        } finally {
+          writer.close();
         }
-        writer = new AvroColumnWriter<>(schema, meta, ReflectData.get());
+        writer = newWriter();
       }
 
       @Override
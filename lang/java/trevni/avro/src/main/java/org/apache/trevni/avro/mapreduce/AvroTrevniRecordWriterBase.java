@@ -33,6 +33,7 @@ import org.apache.hadoop.mapreduce.TaskAttemptContext;
 import org.apache.hadoop.mapreduce.lib.output.FileOutputFormat;
 import org.apache.trevni.ColumnFileMetaData;
 import org.apache.trevni.avro.AvroColumnWriter;
+import org.apache.trevni.avro.AvroTrevniOutputFormat;
 
 /**
  * Abstract base class for <code>RecordWriter</code>s that writes Trevni
@@ -75,6 +76,12 @@ public abstract class AvroTrevniRecordWriterBase<K, V, T> extends RecordWriter<K
   /** meta data to be stored in the output file. */
   protected ColumnFileMetaData meta;
 
+  /**
+   * Memory budget of the writer, see
+   * {@link AvroTrevniOutputFormat#setMemoryBudget(org.apache.hadoop.mapred.JobConf, long)}.
+   */
+  final long memoryBudget;
+
   /**
    * Constructor.
    * 
@@ -85,7 +92,8 @@ public abstract class AvroTrevniRecordWriterBase<K, V, T> extends RecordWriter<K
 
     schema = initSchema(context);
     meta = filterMetadata(context.getConfiguration());
-    writer = new AvroColumnWriter<>(schema, meta, ReflectData.get());
+    memoryBudget = context.getConfiguration().getLong(AvroTrevniOutputFormat.MEMORY_BUDGET, Long.MAX_VALUE);
+    writer = newWriter();
 
     Path outputPath = FileOutputFormat.getOutputPath(context);
 
@@ -112,8 +120,14 @@ public abstract class AvroTrevniRecordWriterBase<K, V, T> extends RecordWriter<K
   public void flush() throws IOException {
     try (OutputStream out = fs.create(new Path(dirPath, "part-" + (part++) + EXT))) {
       writer.writeTo(out);
+    } finally {
+      writer.close();
     }
-    writer = new AvroColumnWriter<>(schema, meta, ReflectData.get());
+    writer = newWriter();
+  }
+
+  private AvroColumnWriter<T> newWriter() throws IOException {
+    return new AvroColumnWriter<T>(schema, meta, ReflectData.get()).setMemoryBudget(memoryBudget);
   }
 
   /** {@inheritDoc} */
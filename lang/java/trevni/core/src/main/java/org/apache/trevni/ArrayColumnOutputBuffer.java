@@ -39,6 +39,8 @@ class ArrayColumnOutputBuffer extends ColumnOutputBuffer {
     assert this.length == 0;
     assert l >= 0;
     this.length = l;
+    if (l == 0)
+      addNull();
     if (l == runValue) {
       runLength++; // continue a run
       return;
@@ -48,6 +50,7 @@ class ArrayColumnOutputBuffer extends ColumnOutputBuffer {
       runLength = 1; // start a run
       runValue = l;
     } else {
+      flushValues();
       getBuffer().writeLength(l); // not a run
     }
   }
@@ -57,8 +60,9 @@ class ArrayColumnOutputBuffer extends ColumnOutputBuffer {
     assert length > 0;
     if (getMeta().getType() != ValueType.NULL) {
       flushRun();
-      getBuffer().writeValue(value, getMeta().getType());
+      encodeValue(value);
     }
+    addStatistics(value);
     length -= 1;
   }
 
@@ -71,7 +75,8 @@ class ArrayColumnOutputBuffer extends ColumnOutputBuffer {
   private void flushRun() throws IOException {
     if (runLength == 0) // not in run
       return;
-    else if (runLength == 1) // single value
+    flushValues();
+    if (runLength == 1) // single value
       getBuffer().writeLength(runValue);
     else // a run
       getBuffer().writeLength((3 - runValue) - (runLength << 1));
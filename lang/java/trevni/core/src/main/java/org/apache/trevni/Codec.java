@@ -18,7 +18,9 @@
 package org.apache.trevni;
 
 import java.io.IOException;
+import java.nio.Buffer;
 import java.nio.ByteBuffer;
+import java.util.zip.Deflater;
 
 /** Interface for compression codecs. */
 abstract class Codec {
@@ -27,22 +29,59 @@ abstract class Codec {
     String name = meta.getCodec();
     if (name == null || "null".equals(name))
       return new NullCodec();
-    else if ("deflate".equals(name))
-      return new DeflateCodec();
+    Integer level = meta.getCodecLevel();
+    if (level != null)
+      checkLevel(name, level);
+    if ("deflate".equals(name))
+      return new DeflateCodec(level == null ? Deflater.DEFAULT_COMPRESSION : level);
     else if ("snappy".equals(name))
       return new SnappyCodec();
     else if ("bzip2".equals(name))
       return new BZip2Codec();
+    else if ("zstandard".equals(name))
+      return new ZstandardCodec(level == null ? ZstandardCodec.DEFAULT_LEVEL : level);
     else
       throw new TrevniRuntimeException("Unknown codec: " + name);
   }
 
+  /**
+   * Check a compression level of a codec, or of either codec with levels if the
+   * codec is not yet known. Codecs without levels ignore them.
+   */
+  static void checkLevel(String name, int level) {
+    int max;
+    if ("deflate".equals(name))
+      max = 9;
+    else if ("zstandard".equals(name) || name == null)
+      max = ZstandardCodec.MAX_LEVEL;
+    else
+      return;
+    if (level < 1 || level > max)
+      throw new TrevniRuntimeException("Invalid codec level: " + level + " (1 to " + max + ")");
+  }
+
   /** Compress data */
   abstract ByteBuffer compress(ByteBuffer uncompressedData) throws IOException;
 
   /** Decompress data */
   abstract ByteBuffer decompress(ByteBuffer compressedData) throws IOException;
 
+  /**
+   * Decompress data of a known size, into <i>reuse</i> if it is large enough.
+   * The result never shares the array of the compressed data.
+   */
+  ByteBuffer decompress(ByteBuffer compressedData, int size, ByteBuffer reuse) throws IOException {
+    return decompress(compressedData);
+  }
+
+  /** Return <i>reuse</i> if it can hold <i>size</i> bytes, or a new buffer. */
+  protected static ByteBuffer ensureCapacity(ByteBuffer reuse, int size) {
+    ByteBuffer result = reuse != null && reuse.capacity() >= size ? reuse : ByteBuffer.allocate(size);
+    ((Buffer) result).clear();
+    ((Buffer) result).limit(size);
+    return result;
+  }
+
   // Codecs often reference the array inside a ByteBuffer. Compute the offset
   // to the start of data correctly in the case that our ByteBuffer
   // is a slice() of another.
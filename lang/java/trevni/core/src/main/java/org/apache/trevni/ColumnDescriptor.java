@@ -31,9 +31,14 @@ class ColumnDescriptor<T extends Comparable> {
   BlockDescriptor[] blocks;
 
   long[] blockStarts; // for random access
-  long[] firstRows; // for binary searches
+  long[] firstRows; // for binary searches; rows of the file, even if nested
   T[] firstValues; // for binary searches
 
+  int[] statsKinds; // per-block statistics, if any, see ColumnMetaData.STATS_KEY
+  Comparable<?>[] mins;
+  Comparable<?>[] maxs;
+  long[] nullCounts;
+
   public ColumnDescriptor(Input file, ColumnMetaData metaData) {
     this.file = file;
     this.metaData = metaData;
@@ -46,11 +51,22 @@ class ColumnDescriptor<T extends Comparable> {
     return block;
   }
 
+  /**
+   * Return the block holding the first value greater than or equal to a value:
+   * the last block starting with a smaller value, as a run of equal values may
+   * start before the block whose first value it is.
+   */
   public int findBlock(T value) {
-    int block = Arrays.binarySearch(firstValues, value);
-    if (block < 0)
-      block = -block - 2;
-    return block;
+    int low = 0;
+    int high = firstValues.length;
+    while (low < high) { // find the first block starting at or after value
+      int mid = (low + high) >>> 1;
+      if (ColumnPredicate.compare(firstValues[mid], value) < 0)
+        low = mid + 1;
+      else
+        high = mid;
+    }
+    return Math.max(low - 1, 0);
   }
 
   public int blockCount() {
@@ -97,4 +113,31 @@ class ColumnDescriptor<T extends Comparable> {
     this.blocks = blocks;
   }
 
+  /** Read per-block statistics. Returns false if the column has none. */
+  public boolean ensureStatsRead() throws IOException {
+    if (statsKinds != null)
+      return true;
+    byte[] bytes = metaData.get(ColumnMetaData.STATS_KEY);
+    if (bytes == null)
+      return false;
+    ensureBlocksRead();
+
+    InputBuffer in = new InputBuffer(new InputBytes(bytes));
+    int blockCount = blocks.length;
+    int[] kinds = new int[blockCount];
+    mins = new Comparable<?>[blockCount];
+    maxs = new Comparable<?>[blockCount];
+    nullCounts = new long[blockCount];
+    for (int i = 0; i < blockCount; i++) {
+      kinds[i] = in.readInt();
+      if (kinds[i] == ColumnOutputBuffer.STATS_RANGE) {
+        mins[i] = in.readValue(metaData.getType());
+        maxs[i] = in.readValue(metaData.getType());
+      }
+      nullCounts[i] = in.readLong();
+    }
+    this.statsKinds = kinds;
+    return true;
+  }
+
 }
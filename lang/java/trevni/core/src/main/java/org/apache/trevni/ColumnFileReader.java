@@ -147,6 +147,32 @@ public class ColumnFileReader implements Closeable {
     return new ColumnValues<>(columns[column]);
   }
 
+  /**
+   * Return the rows that may match all of the predicates, judging by the
+   * statistics of each column's blocks. Rows in blocks whose statistics show
+   * that a predicate cannot match are excluded, but not every row selected need
+   * match. Predicates on columns without statistics exclude no rows.
+   * <p>
+   * Predicates may name nested columns, e.g. a field of the records of an array.
+   * The blocks of every column hold whole rows of the file, whatever the number
+   * of values per row, so a row is excluded only when none of its values can
+   * match.
+   */
+  public RowSelection select(ColumnPredicate... predicates) throws IOException {
+    List<long[]> excluded = new ArrayList<>();
+    for (ColumnPredicate predicate : predicates) {
+      ColumnDescriptor<?> column = getColumn(predicate.getColumn());
+      if (!column.ensureStatsRead())
+        continue;
+      // firstRows count rows of the file, also for nested columns
+      for (int block = 0; block < column.blockCount(); block++)
+        if (!predicate.mightMatch(column.statsKinds[block], column.mins[block], column.maxs[block],
+            column.nullCounts[block], column.blocks[block].rowCount))
+          excluded.add(new long[] { column.firstRows[block], column.lastRow(block) });
+    }
+    return RowSelection.excluding(rowCount, excluded);
+  }
+
   @Override
   public void close() throws IOException {
     file.close();
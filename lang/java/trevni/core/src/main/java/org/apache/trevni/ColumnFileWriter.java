@@ -17,18 +17,30 @@
  */
 package org.apache.trevni;
 
+import java.io.Closeable;
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.util.Set;
 import java.util.HashSet;
 
 /**
  * Writes data to a column file. All data is buffered until
  * {@link #writeTo(File)} is called.
+ * <p>
+ * By default, the blocks of every column are held in memory. With a memory
+ * budget, see {@link #setMemoryBudget(long)}, finished blocks are instead
+ * spilled to a temporary file whenever the blocks in memory exceed the budget,
+ * and copied from there into place by {@link #writeTo(OutputStream)}. The
+ * writer should then be closed when done with, to delete the temporary file.
  */
-public class ColumnFileWriter {
+public class ColumnFileWriter implements Closeable {
 
   static final byte[] MAGIC_0 = new byte[] { 'T', 'r', 'v', 0 };
   static final byte[] MAGIC_1 = new byte[] { 'T', 'r', 'v', 1 };
@@ -41,6 +53,14 @@ public class ColumnFileWriter {
   private int columnCount;
   private long size;
 
+  private long memoryBudget = Long.MAX_VALUE;
+  private File spillDirectory;
+  private long buffered; // size of the blocks held in memory
+  private File spillFile;
+  private FileChannel spill;
+  private long spillSize;
+  private ByteBuffer copyBuffer;
+
   /** Construct given metadata for each column in the file. */
   public ColumnFileWriter(ColumnFileMetaData fileMeta, ColumnMetaData... columnMeta) throws IOException {
     checkColumns(columnMeta);
@@ -68,15 +88,86 @@ public class ColumnFileWriter {
     }
   }
 
-  void incrementSize(int n) {
+  /**
+   * Set the number of bytes of finished blocks that may be held in memory before
+   * they are spilled to a temporary file. The buffers of the blocks being
+   * filled, up to 64KB per column, come in addition.
+   */
+  public ColumnFileWriter setMemoryBudget(long bytes) {
+    if (bytes < 0)
+      throw new TrevniRuntimeException("Negative memory budget: " + bytes);
+    this.memoryBudget = bytes;
+    return this;
+  }
+
+  /** Return the memory budget, see {@link #setMemoryBudget(long)}. */
+  public long getMemoryBudget() {
+    return memoryBudget;
+  }
+
+  /**
+   * Set the directory of the temporary file blocks are spilled to. Defaults to
+   * the system's temporary directory.
+   */
+  public ColumnFileWriter setSpillDirectory(File directory) {
+    this.spillDirectory = directory;
+    return this;
+  }
+
+  void incrementSize(int n) throws IOException {
     size += n;
+    buffered += n;
+    if (buffered > memoryBudget) {
+      for (ColumnOutputBuffer column : columns)
+        column.spill();
+      buffered = 0;
+    }
+  }
+
+  /** Append block data to the spill file, returning its position there. */
+  long spill(byte[] data) throws IOException {
+    if (spill == null) {
+      spillFile = File.createTempFile("trevni-", ".spill", spillDirectory);
+      spill = new RandomAccessFile(spillFile, "rw").getChannel();
+    }
+    long position = spillSize;
+    ByteBuffer buffer = ByteBuffer.wrap(data);
+    while (buffer.hasRemaining())
+      spillSize += spill.write(buffer, spillSize);
+    return position;
+  }
+
+  /** Copy block data from the spill file to a stream. */
+  void copySpilled(long position, int length, OutputStream out) throws IOException {
+    if (copyBuffer == null)
+      copyBuffer = ByteBuffer.allocate(OutputBuffer.BLOCK_SIZE);
+    while (length > 0) {
+      ((Buffer) copyBuffer).clear();
+      ((Buffer) copyBuffer).limit(Math.min(length, copyBuffer.capacity()));
+      int n = spill.read(copyBuffer, position);
+      if (n < 0)
+        throw new EOFException("Spill file truncated: " + spillFile);
+      out.write(copyBuffer.array(), 0, n);
+      position += n;
+      length -= n;
+    }
+  }
+
+  /** Delete the temporary file blocks were spilled to, if any. */
+  @Override
+  public void close() throws IOException {
+    if (spill != null) {
+      spill.close();
+      spill = null;
+      if (!spillFile.delete())
+        throw new IOException("Could not delete spill file: " + spillFile);
+    }
   }
 
   /**
    * Return the approximate size of the file that will be written. Tries to
-   * slightly over-estimate. Indicates both the size in memory of the buffered
-   * data as well as the size of the file that will be written by
-   * {@link #writeTo(OutputStream)}.
+   * slightly over-estimate. Unless a memory budget is set, this is also the size
+   * in memory of the buffered data.
    */
   public long sizeEstimate() {
     return size;
@@ -140,6 +231,9 @@ public class ColumnFileWriter {
 
   /** Write all rows added to the named output stream. */
   public void writeTo(OutputStream out) throws IOException {
+    for (ColumnOutputBuffer column : columns)
+      column.writeStatistics(); // before column metadata is written
+
     writeHeader(out);
 
     for (int column = 0; column < columnCount; column++)
@@ -18,6 +18,7 @@
 package org.apache.trevni;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.ArrayList;
 
@@ -29,6 +30,8 @@ public class ColumnMetaData extends MetaData<ColumnMetaData> {
   static final String VALUES_KEY = RESERVED_KEY_PREFIX + "values";
   static final String PARENT_KEY = RESERVED_KEY_PREFIX + "parent";
   static final String ARRAY_KEY = RESERVED_KEY_PREFIX + "array";
+  static final String STATS_KEY = RESERVED_KEY_PREFIX + "stats";
+  static final String ENCODING_KEY = RESERVED_KEY_PREFIX + "encoding";
 
   // cache these values for better performance
   private String name;
@@ -115,6 +118,32 @@ public class ColumnMetaData extends MetaData<ColumnMetaData> {
     return setReservedBoolean(ARRAY_KEY, isArray);
   }
 
+  /**
+   * Set how values are encoded within blocks, before compression:
+   * <ul>
+   * <li>"plain", the default, in the encoding of their type;</li>
+   * <li>"dictionary", as indexes into a dictionary per block, for columns with
+   * few distinct values of any type but boolean;</li>
+   * <li>"rle", as runs of equal values, for columns of any type;</li>
+   * <li>"delta", as the differences between successive values, for sorted
+   * int, long, fixed32 and fixed64 columns.</li>
+   * </ul>
+   */
+  public ColumnMetaData setEncoding(String encoding) {
+    ValueEncoder.check(encoding, type);
+    if (ValueEncoder.PLAIN.equals(encoding)) {
+      remove(ENCODING_KEY);
+      return this;
+    }
+    return setReserved(ENCODING_KEY, encoding);
+  }
+
+  /** Return how values are encoded within blocks. */
+  public String getEncoding() {
+    byte[] encoding = get(ENCODING_KEY);
+    return encoding == null ? ValueEncoder.PLAIN : new String(encoding, StandardCharsets.UTF_8);
+  }
+
   /** Get whether this column has an index of blocks by value. */
   public boolean hasIndexValues() {
     return getBoolean(VALUES_KEY);
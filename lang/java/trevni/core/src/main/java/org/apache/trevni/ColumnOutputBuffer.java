@@ -20,6 +20,7 @@ package org.apache.trevni;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -28,23 +29,57 @@ class ColumnOutputBuffer {
   private ColumnMetaData meta;
   private Codec codec;
   private Checksum checksum;
+  private ValueEncoder encoder;
   private OutputBuffer buffer;
   private List<BlockDescriptor> blockDescriptors;
-  private List<byte[]> blockData;
+  private List<byte[]> blockData; // null for blocks spilled by the writer
+  private List<Long> spillPositions; // positions of spilled blocks
+  private int unspilled; // the first block still held in memory
   private List<byte[]> firstValues;
   private int rowCount;
   private long size = 4; // room for block count
 
+  // statistics for the current block, see ColumnMetaData.STATS_KEY
+  static final int STATS_UNKNOWN = 0;
+  static final int STATS_RANGE = 1;
+  static final int STATS_EMPTY = 2;
+  static final int MAX_STATS_LENGTH = 256; // bytes; longer values are not recorded
+  private OutputBuffer stats = new OutputBuffer();
+  private boolean ranged;
+  private boolean hasValues;
+  private Comparable<?> min;
+  private Comparable<?> max;
+  private long nullCount;
+
   public ColumnOutputBuffer(ColumnFileWriter writer, ColumnMetaData meta) throws IOException {
     this.writer = writer;
     this.meta = meta;
     this.codec = Codec.get(meta);
     this.checksum = Checksum.get(meta);
+    this.encoder = ValueEncoder.get(meta);
     this.buffer = new OutputBuffer();
     this.blockDescriptors = new ArrayList<>();
     this.blockData = new ArrayList<>();
+    this.spillPositions = new ArrayList<>();
     if (meta.hasIndexValues())
       this.firstValues = new ArrayList<>();
+    this.ranged = isRanged(meta.getType());
+  }
+
+  private static boolean isRanged(ValueType type) {
+    switch (type) {
+    case INT:
+    case LONG:
+    case FIXED32:
+    case FIXED64:
+    case FLOAT:
+    case DOUBLE:
+    case STRING:
+    case BYTES:
+      return true;
+    default:
+      return false;
+    }
   }
 
   public ColumnMetaData getMeta() {
@@ -65,9 +100,79 @@ class ColumnOutputBuffer {
   }
 
   public void writeValue(Object value) throws IOException {
-    buffer.writeValue(value, meta.getType());
-    if (meta.hasIndexValues() && rowCount == 0)
-      firstValues.add(buffer.toByteArray());
+    encoder.writeValue(value, buffer);
+    if (meta.hasIndexValues() && rowCount == 0) {
+      OutputBuffer first = new OutputBuffer(); // not encoded
+      first.writeValue(value, meta.getType());
+      firstValues.add(first.toByteArray());
+    }
+    addStatistics(value);
+  }
+
+  /** Encode a value into the current block. */
+  void encodeValue(Object value) throws IOException {
+    encoder.writeValue(value, buffer);
+  }
+
+  /** Write any values held back by the encoder, before a length is written. */
+  void flushValues() throws IOException {
+    encoder.flush(buffer);
+  }
+
+  /** Include a value in the statistics of the current block. */
+  void addStatistics(Object value) {
+    hasValues = true;
+    if (!ranged)
+      return;
+    Comparable<?> v;
+    switch (meta.getType()) {
+    case STRING:
+      if (isTooLong((String) value)) {
+        ranged = false;
+        return;
+      }
+      v = (String) value;
+      break;
+    case BYTES:
+      ByteBuffer bytes = value instanceof ByteBuffer ? (ByteBuffer) value : ByteBuffer.wrap((byte[]) value);
+      if (bytes.remaining() > MAX_STATS_LENGTH) {
+        ranged = false;
+        return;
+      }
+      v = bytes;
+      break;
+    default:
+      v = (Comparable<?>) value;
+    }
+    if (min == null || ColumnPredicate.compare(v, min) < 0)
+      min = copy(v);
+    if (max == null || ColumnPredicate.compare(v, max) > 0)
+      max = copy(v);
+  }
+
+  // true if longer than MAX_STATS_LENGTH in UTF-8; as a char takes one to three
+  // bytes, most strings need not be encoded to tell
+  private static boolean isTooLong(String value) {
+    int length = value.length();
+    if (length <= MAX_STATS_LENGTH / 3)
+      return false;
+    if (length > MAX_STATS_LENGTH)
+      return true;
+    return value.getBytes(StandardCharsets.UTF_8).length > MAX_STATS_LENGTH;
+  }
+
+  private static Comparable<?> copy(Comparable<?> value) {
+    if (!(value instanceof ByteBuffer))
+      return value;
+    ByteBuffer bytes = (ByteBuffer) value;
+    byte[] copy = new byte[bytes.remaining()];
+    bytes.duplicate().get(copy);
+    return ByteBuffer.wrap(copy);
+  }
+
+  /** Count a row with no values in the statistics of the current block. */
+  void addNull() {
+    nullCount++;
   }
 
   public void endRow() throws IOException {
@@ -77,15 +182,16 @@ class ColumnOutputBuffer {
   void flushBuffer() throws IOException {
     if (rowCount == 0)
       return;
-    ByteBuffer raw = buffer.asByteBuffer();
+    ByteBuffer raw = encoder.finishBlock(buffer).asByteBuffer();
     ByteBuffer c = codec.compress(raw);
 
     blockDescriptors.add(new BlockDescriptor(rowCount, raw.remaining(), c.remaining()));
 
     ByteBuffer data = ByteBuffer.allocate(c.remaining() + checksum.size());
-    data.put(c);
+    data.put(c.duplicate()); // c may be raw, whose checksum follows
     data.put(checksum.compute(raw));
     blockData.add(data.array());
+    spillPositions.add(-1L);
 
     int sizeIncrement = (4 * 3) // descriptor
         + (firstValues != null // firstValue
@@ -96,10 +202,38 @@ class ColumnOutputBuffer {
     writer.incrementSize(sizeIncrement);
     size += sizeIncrement;
 
+    flushStatistics();
+
     buffer = new OutputBuffer();
     rowCount = 0;
   }
 
+  private void flushStatistics() throws IOException {
+    if (!hasValues) {
+      stats.writeInt(STATS_EMPTY);
+    } else if (min != null && ranged) {
+      stats.writeInt(STATS_RANGE);
+      stats.writeValue(min, meta.getType());
+      stats.writeValue(max, meta.getType());
+    } else {
+      stats.writeInt(STATS_UNKNOWN);
+    }
+    // elements of a parent's arrays are not rows, so their nulls are not counted
+    stats.writeLong(meta.getParent() == null ? nullCount : -1);
+
+    ranged = isRanged(meta.getType());
+    hasValues = false;
+    min = null;
+    max = null;
+    nullCount = 0;
+  }
+
+  /** Flush the current block and add the statistics of all blocks to the metadata. */
+  void writeStatistics() throws IOException {
+    flushBuffer();
+    meta.put(ColumnMetaData.STATS_KEY, stats.toByteArray());
+  }
+
   public long size() throws IOException {
     flushBuffer();
     return size;
@@ -115,8 +249,22 @@ class ColumnOutputBuffer {
     }
     header.writeTo(out);
 
-    for (byte[] data : blockData)
-      out.write(data);
+    for (int i = 0; i < blockData.size(); i++) {
+      byte[] data = blockData.get(i);
+      if (data != null)
+        out.write(data);
+      else
+        writer.copySpilled(spillPositions.get(i), blockDescriptors.get(i).compressedSize + checksum.size(), out);
+    }
+  }
+
+  /** Moves the data of the blocks held in memory to the writer's spill file. */
+  void spill() throws IOException {
+    for (int i = unspilled; i < blockData.size(); i++) {
+      spillPositions.set(i, writer.spill(blockData.get(i)));
+      blockData.set(i, null);
+    }
+    unspilled = blockData.size();
   }
 
 }
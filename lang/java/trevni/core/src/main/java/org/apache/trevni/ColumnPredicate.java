@@ -0,0 +1,162 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.trevni;
+
+/**
+ * A condition on the values of a column, used to skip blocks whose statistics
+ * show that none of their rows can match. See
+ * {@link ColumnFileReader#select(ColumnPredicate...)}.
+ *
+ * <p>
+ * Values compared against must be of the class that the column's values are
+ * read as, e.g., {@link Integer} for <i>int</i> and <i>fixed32</i> columns or
+ * {@link java.nio.ByteBuffer} for <i>bytes</i> columns. A row of an array
+ * column matches if any of its values matches, and it is null if it has no
+ * values.
+ */
+public class ColumnPredicate {
+  private enum Op {
+    EQ, LT, LE, GT, GE, BETWEEN, IS_NULL, NOT_NULL
+  }
+
+  private final String column;
+  private final Op op;
+  private final Comparable<?> low;
+  private final Comparable<?> high;
+
+  private ColumnPredicate(String column, Op op, Comparable<?> low, Comparable<?> high) {
+    this.column = column;
+    this.op = op;
+    this.low = low;
+    this.high = high;
+  }
+
+  /** Values equal to <i>value</i>. */
+  public static ColumnPredicate eq(String column, Comparable<?> value) {
+    return new ColumnPredicate(column, Op.EQ, value, value);
+  }
+
+  /** Values less than <i>value</i>. */
+  public static ColumnPredicate lt(String column, Comparable<?> value) {
+    return new ColumnPredicate(column, Op.LT, null, value);
+  }
+
+  /** Values less than or equal to <i>value</i>. */
+  public static ColumnPredicate le(String column, Comparable<?> value) {
+    return new ColumnPredicate(column, Op.LE, null, value);
+  }
+
+  /** Values greater than <i>value</i>. */
+  public static ColumnPredicate gt(String column, Comparable<?> value) {
+    return new ColumnPredicate(column, Op.GT, value, null);
+  }
+
+  /** Values greater than or equal to <i>value</i>. */
+  public static ColumnPredicate ge(String column, Comparable<?> value) {
+    return new ColumnPredicate(column, Op.GE, value, null);
+  }
+
+  /** Values from <i>low</i> to <i>high</i>, inclusive. */
+  public static ColumnPredicate between(String column, Comparable<?> low, Comparable<?> high) {
+    return new ColumnPredicate(column, Op.BETWEEN, low, high);
+  }
+
+  /** Rows with no value. */
+  public static ColumnPredicate isNull(String column) {
+    return new ColumnPredicate(column, Op.IS_NULL, null, null);
+  }
+
+  /** Rows with a value. */
+  public static ColumnPredicate notNull(String column) {
+    return new ColumnPredicate(column, Op.NOT_NULL, null, null);
+  }
+
+  /** Return the name of the column this applies to. */
+  public String getColumn() {
+    return column;
+  }
+
+  /** Return true if a value, or null for none, matches. */
+  public boolean test(Comparable<?> value) {
+    switch (op) {
+    case IS_NULL:
+      return value == null;
+    case NOT_NULL:
+      return value != null;
+    default:
+      return value != null && inRange(value, value);
+    }
+  }
+
+  /** Return false if no row of a block with the given statistics can match. */
+  boolean mightMatch(int kind, Comparable<?> min, Comparable<?> max, long nullCount, long rowCount) {
+    switch (op) {
+    case IS_NULL:
+      return nullCount != 0;
+    case NOT_NULL:
+      return kind != ColumnOutputBuffer.STATS_EMPTY && (nullCount < 0 || nullCount < rowCount);
+    default:
+      if (kind == ColumnOutputBuffer.STATS_EMPTY)
+        return false;
+      if (kind != ColumnOutputBuffer.STATS_RANGE)
+        return true;
+      return inRange(min, max);
+    }
+  }
+
+  // true if a value from min to max, inclusive, might match
+  private boolean inRange(Comparable<?> min, Comparable<?> max) {
+    switch (op) {
+    case LT:
+      return compare(min, high) < 0;
+    case GT:
+      return compare(max, low) > 0;
+    case LE:
+      return compare(min, high) <= 0;
+    case GE:
+      return compare(max, low) >= 0;
+    default: // EQ, BETWEEN
+      return compare(min, high) <= 0 && compare(max, low) >= 0;
+    }
+  }
+
+  /** Compare values of the same column, whose class is not known statically. */
+  @SuppressWarnings("unchecked")
+  static int compare(Comparable<?> a, Comparable<?> b) {
+    return ((Comparable<Object>) a).compareTo(b);
+  }
+
+  @Override
+  public String toString() {
+    switch (op) {
+    case IS_NULL:
+    case NOT_NULL:
+      return column + " " + op;
+    case LT:
+    case LE:
+      return column + " " + op + " " + high;
+    case GT:
+    case GE:
+    case EQ:
+      return column + " " + op + " " + low;
+    default:
+      return column + " " + op + " " + low + " " + high;
+    }
+  }
+
+}
@@ -20,29 +20,38 @@ package org.apache.trevni;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.util.Iterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 
 /** An iterator over column values. */
 public class ColumnValues<T extends Comparable> implements Iterator<T>, Iterable<T> {
 
   private final ColumnDescriptor column;
-  private final ValueType type;
-  private final Codec codec;
-  private final Checksum checksum;
-  private final InputBuffer in;
+  private final ValueDecoder decoder;
+  private final BlockReader reader;
 
   private InputBuffer values;
+  private ByteBuffer data; // of the current block
+  private ByteBuffer spare; // reused for the next block read ahead
   private int block = -1;
   private long row = 0;
   private T previous;
 
   private int arrayLength;
 
+  // blocks read ahead on another thread, with their own reader, since codecs
+  // and checksums may not be thread-safe
+  private Executor executor;
+  private BlockReader prefetchReader;
+  private CompletableFuture<ByteBuffer> prefetched;
+  private int prefetchedBlock = -1;
+  private RowSelection selection; // rows to be read, or null for all
+
   ColumnValues(ColumnDescriptor column) throws IOException {
     this.column = column;
-    this.type = column.metaData.getType();
-    this.codec = Codec.get(column.metaData);
-    this.checksum = Checksum.get(column.metaData);
-    this.in = new InputBuffer(column.file);
+    this.decoder = ValueDecoder.get(column.metaData);
+    this.reader = new BlockReader();
 
     column.ensureBlocksRead();
   }
@@ -52,32 +61,51 @@ public class ColumnValues<T extends Comparable> implements Iterator<T>, Iterable
     return row;
   }
 
-  /** Seek to the named row. */
+  /**
+   * Seek to the named row. Array columns may only be sought if they have no
+   * children, and columns with a parent may not be.
+   */
   public void seek(long r) throws IOException {
+    ColumnMetaData meta = column.metaData;
+    if (meta.getParent() != null || !meta.getChildren().isEmpty())
+      throw new TrevniRuntimeException("Cannot seek nested column: " + meta.getName());
     if (r < row || r >= column.lastRow(block)) // not in current block
       startBlock(column.findBlock(r)); // seek to block start
     while (r > row && hasNext()) { // skip within block
-      values.skipValue(type);
+      if (meta.isArray()) {
+        for (int i = values.readLength(); i > 0; i--)
+          decoder.skipValue(values);
+      } else {
+        decoder.skipValue(values);
+      }
       row++;
     }
+    arrayLength = 0;
     previous = null;
   }
 
-  /** Seek to the named value. */
+  /**
+   * Seek to the first row whose value is greater than or equal to the named
+   * value. Values must be sorted.
+   */
   public void seek(T v) throws IOException {
     if (!column.metaData.hasIndexValues())
       throw new TrevniRuntimeException("Column does not have value index: " + column.metaData.getName());
 
     if (previous == null // not in current block?
-        || previous.compareTo(v) > 0
-        || (block != column.blockCount() - 1 && column.firstValues[block + 1].compareTo(v) <= 0))
+        || previous.compareTo(v) >= 0
+        || (block != column.blockCount() - 1 && column.firstValues[block + 1].compareTo(v) < 0))
       startBlock(column.findBlock(v)); // seek to block start
 
     while (hasNext()) { // scan block
+      if (row >= column.lastRow(block))
+        startBlock(block + 1); // so that the position saved is in this block
       long savedPosition = values.tell();
       T savedPrevious = previous;
+      decoder.mark();
       if (next().compareTo(v) >= 0) {
         values.seek(savedPosition);
+        decoder.reset();
         previous = savedPrevious;
         row--;
         return;
@@ -85,18 +113,118 @@ public class ColumnValues<T extends Comparable> implements Iterator<T>, Iterable
     }
   }
 
+  /**
+   * Expert: Read and decompress the block after the current one on an executor
+   * while values of the current block are read, so that columns may be
+   * decompressed in parallel. A null executor disables this.
+   */
+  public void setExecutor(Executor executor) throws IOException {
+    awaitPrefetch(-1);
+    this.executor = executor;
+    if (executor != null && prefetchReader == null)
+      this.prefetchReader = new BlockReader();
+    prefetch(nextBlock());
+  }
+
+  /**
+   * Expert: Only read ahead the blocks holding rows of a selection, when rows
+   * not selected are passed over with {@link #seek(long)}. Null, the default,
+   * reads ahead every block.
+   */
+  public void setSelection(RowSelection selection) throws IOException {
+    this.selection = selection;
+    if (prefetched != null && prefetchedBlock != nextBlock()) {
+      awaitPrefetch(-1);
+      prefetch(nextBlock());
+    }
+  }
+
+  // the block to be read after the current one, or -1 if none
+  private int nextBlock() {
+    if (selection == null)
+      return block + 1;
+    long next = selection.nextRow(column.lastRow(block));
+    return next < 0 ? -1 : column.findBlock(next);
+  }
+
+  private void prefetch(int block) {
+    if (executor == null || block < 0 || block >= column.blockCount())
+      return;
+    prefetchedBlock = block;
+    ByteBuffer reuse = spare;
+    spare = null;
+    prefetched = CompletableFuture.supplyAsync(() -> {
+      try {
+        return prefetchReader.read(block, reuse);
+      } catch (IOException e) {
+        throw new CompletionException(e);
+      }
+    }, executor);
+  }
+
+  // return the data of the block being read ahead if it is the one named,
+  // waiting for it, or else drop it and return null
+  private ByteBuffer awaitPrefetch(int block) throws IOException {
+    if (prefetched == null)
+      return null;
+    CompletableFuture<ByteBuffer> future = prefetched;
+    prefetched = null;
+    if (prefetchedBlock != block) { // not needed: don't wait for it
+      if (!future.isDone() && future.cancel(false))
+        prefetchReader = new BlockReader(); // the old one may still be reading
+      else if (!future.isCompletedExceptionally())
+        spare = future.getNow(null);
+      return null;
+    }
+    try {
+      return future.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof IOException)
+        throw (IOException) e.getCause();
+      throw new TrevniRuntimeException(e.getCause());
+    }
+  }
+
+  /** Reads and decompresses blocks, reusing its buffer for compressed data. */
+  private class BlockReader {
+    private final InputBuffer in = new InputBuffer(column.file);
+    private final Codec codec = Codec.get(column.metaData);
+    private final Checksum checksum = Checksum.get(column.metaData);
+    private byte[] raw = new byte[0];
+
+    BlockReader() throws IOException {
+    }
+
+    /** Read a block, decompressing into <i>reuse</i> if it is large enough. */
+    ByteBuffer read(int block, ByteBuffer reuse) throws IOException {
+      BlockDescriptor descriptor = column.blocks[block];
+      int end = descriptor.compressedSize;
+      int length = end + checksum.size();
+      if (raw.length < length)
+        raw = new byte[length];
+      in.seek(column.blockStarts[block]);
+      in.readFully(raw, 0, length);
+      ByteBuffer data = codec.decompress(ByteBuffer.wrap(raw, 0, end), descriptor.uncompressedSize, reuse);
+      if (!checksum.compute(data).equals(ByteBuffer.wrap(raw, end, checksum.size())))
+        throw new IOException("Checksums mismatch.");
+      return data;
+    }
+  }
+
   private void startBlock(int block) throws IOException {
     this.block = block;
     this.row = column.firstRows[block];
 
-    in.seek(column.blockStarts[block]);
-    int end = column.blocks[block].compressedSize;
-    byte[] raw = new byte[end + checksum.size()];
-    in.readFully(raw);
-    ByteBuffer data = codec.decompress(ByteBuffer.wrap(raw, 0, end));
-    if (!checksum.compute(data).equals(ByteBuffer.wrap(raw, end, checksum.size())))
-      throw new IOException("Checksums mismatch.");
+    ByteBuffer next = awaitPrefetch(block);
+    if (next == null) {
+      next = reader.read(block, data); // the current block is no longer needed
+    } else {
+      spare = data;
+    }
+    data = next;
+    prefetch(nextBlock());
     values = new InputBuffer(new InputBytes(data));
+    decoder.startBlock(values);
   }
 
   @Override
@@ -145,7 +273,7 @@ public class ColumnValues<T extends Comparable> implements Iterator<T>, Iterable
   /** Expert: Returns the next value in a column. */
   public T nextValue() throws IOException {
     arrayLength--;
-    return previous = values.readValue(type);
+    return previous = decoder.readValue(values);
   }
 
   @Override
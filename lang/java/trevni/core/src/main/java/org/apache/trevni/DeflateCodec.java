@@ -31,6 +31,11 @@ class DeflateCodec extends Codec {
   private ByteArrayOutputStream outputBuffer;
   private Deflater deflater;
   private Inflater inflater;
+  private final int level;
+
+  DeflateCodec(int level) {
+    this.level = level;
+  }
 
   @Override
   ByteBuffer compress(ByteBuffer data) throws IOException {
@@ -59,7 +64,7 @@ class DeflateCodec extends Codec {
 
   private Deflater getDeflater() {
     if (null == deflater)
-      deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+      deflater = new Deflater(level, true);
     deflater.reset();
     return deflater;
   }
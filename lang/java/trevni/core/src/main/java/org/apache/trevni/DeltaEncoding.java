@@ -0,0 +1,95 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.trevni;
+
+import java.io.IOException;
+
+/**
+ * Each value is written as the difference from the preceding value in its
+ * block, as a variable-length int or long. Sorted or slowly changing values
+ * then take a byte or two each.
+ */
+class DeltaEncoding {
+
+  private DeltaEncoding() {
+  }
+
+  static class Encoder extends ValueEncoder {
+    private long previous;
+
+    Encoder(ValueType type) {
+      super(type);
+    }
+
+    @Override
+    void writeValue(Object value, OutputBuffer out) throws IOException {
+      if (type == ValueType.INT || type == ValueType.FIXED32) {
+        int v = (Integer) value;
+        out.writeInt(v - (int) previous);
+        previous = v;
+      } else {
+        long v = (Long) value;
+        out.writeLong(v - previous);
+        previous = v;
+      }
+    }
+
+    @Override
+    OutputBuffer finishBlock(OutputBuffer values) throws IOException {
+      previous = 0;
+      return values;
+    }
+  }
+
+  static class Decoder extends ValueDecoder {
+    private long previous;
+    private long mark;
+
+    Decoder(ValueType type) {
+      super(type);
+    }
+
+    @Override
+    void startBlock(InputBuffer in) throws IOException {
+      previous = 0;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    <T extends Comparable<?>> T readValue(InputBuffer in) throws IOException {
+      if (type == ValueType.INT || type == ValueType.FIXED32) {
+        int v = (int) previous + in.readInt();
+        previous = v;
+        return (T) Integer.valueOf(v);
+      }
+      previous += in.readLong();
+      return (T) Long.valueOf(previous);
+    }
+
+    @Override
+    void mark() {
+      mark = previous;
+    }
+
+    @Override
+    void reset() {
+      previous = mark;
+    }
+  }
+
+}
@@ -0,0 +1,104 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.trevni;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Each block starts with a dictionary of distinct values, and each value is
+ * written as an int: one more than its index in the dictionary, or zero
+ * followed by the value itself once the dictionary is full.
+ */
+class DictionaryEncoding {
+
+  private DictionaryEncoding() {
+  }
+
+  static class Encoder extends ValueEncoder {
+    private final Map<Object, Integer> ids = new HashMap<>();
+    private OutputBuffer dictionary = new OutputBuffer();
+
+    Encoder(ValueType type) {
+      super(type);
+    }
+
+    @Override
+    void writeValue(Object value, OutputBuffer out) throws IOException {
+      Object key = value instanceof byte[] ? ByteBuffer.wrap((byte[]) value) : value;
+      Integer id = ids.get(key);
+      if (id == null && !dictionary.isFull()) {
+        id = ids.size();
+        ids.put(copy(value), id);
+        dictionary.writeValue(value, type);
+      }
+      if (id == null) {
+        out.writeInt(0);
+        out.writeValue(value, type);
+      } else {
+        out.writeInt(id + 1);
+      }
+    }
+
+    @Override
+    OutputBuffer finishBlock(OutputBuffer values) throws IOException {
+      OutputBuffer block = new OutputBuffer();
+      block.writeInt(ids.size());
+      dictionary.writeTo(block);
+      values.writeTo(block);
+      ids.clear();
+      dictionary = new OutputBuffer();
+      return block;
+    }
+  }
+
+  static class Decoder extends ValueDecoder {
+    private Object[] dictionary;
+
+    Decoder(ValueType type) {
+      super(type);
+    }
+
+    @Override
+    void startBlock(InputBuffer in) throws IOException {
+      int size = in.readInt();
+      if (size < 0)
+        throw new TrevniRuntimeException("Malformed dictionary size: " + size);
+      dictionary = new Object[size];
+      for (int i = 0; i < size; i++)
+        dictionary[i] = in.readValue(type);
+    }
+
+    @Override
+    <T extends Comparable<?>> T readValue(InputBuffer in) throws IOException {
+      int id = in.readInt();
+      if (id == 0)
+        return in.readValue(type);
+      return share(dictionary[id - 1]);
+    }
+
+    @Override
+    void skipValue(InputBuffer in) throws IOException {
+      if (in.readInt() == 0)
+        in.skipValue(type);
+    }
+  }
+
+}
@@ -28,6 +28,7 @@ public class MetaData<T extends MetaData> extends LinkedHashMap<String, byte[]>
   static final String RESERVED_KEY_PREFIX = "trevni.";
 
   static final String CODEC_KEY = RESERVED_KEY_PREFIX + "codec";
+  static final String CODEC_LEVEL_KEY = RESERVED_KEY_PREFIX + "codec.level";
   static final String CHECKSUM_KEY = RESERVED_KEY_PREFIX + "checksum";
 
   private MetaData<?> defaults;
@@ -43,10 +44,28 @@ public class MetaData<T extends MetaData> extends LinkedHashMap<String, byte[]>
 
   /** Set the compression codec name. */
   public T setCodec(String codec) {
+    Integer level = getCodecLevel();
+    if (level != null)
+      Codec.checkLevel(codec, level);
     setReserved(CODEC_KEY, codec);
     return (T) this;
   }
 
+  /** Return the compression level of the codec, or null for its default. */
+  public Integer getCodecLevel() {
+    String level = getString(CODEC_LEVEL_KEY);
+    return level == null ? null : Integer.valueOf(level);
+  }
+
+  /**
+   * Set the compression level of the codec, for the "deflate" (1 to 9) and
+   * "zstandard" (1 to 22) codecs.
+   */
+  public T setCodecLevel(int level) {
+    Codec.checkLevel(getCodec(), level);
+    return setReserved(CODEC_LEVEL_KEY, Integer.toString(level));
+  }
+
   /** Return the checksum algorithm name. */
   public String getChecksum() {
     return getString(CHECKSUM_KEY);
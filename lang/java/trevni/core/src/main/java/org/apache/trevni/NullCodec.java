@@ -18,6 +18,7 @@
 package org.apache.trevni;
 
 import java.io.IOException;
+import java.nio.Buffer;
 import java.nio.ByteBuffer;
 
 /** Implements "null" (pass through) codec. */
@@ -33,4 +34,12 @@ final class NullCodec extends Codec {
     return data;
   }
 
+  @Override
+  ByteBuffer decompress(ByteBuffer data, int size, ByteBuffer reuse) throws IOException {
+    ByteBuffer result = ensureCapacity(reuse, data.remaining());
+    result.put(data.duplicate());
+    ((Buffer) result).flip();
+    return result;
+  }
+
 }
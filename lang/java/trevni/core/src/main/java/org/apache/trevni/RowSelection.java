@@ -0,0 +1,107 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.trevni;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The rows of a file that may match a set of predicates, as sorted, disjoint
+ * ranges of row numbers. See {@link ColumnFileReader#select(ColumnPredicate...)}.
+ */
+public class RowSelection {
+  private final long[] starts; // inclusive
+  private final long[] ends; // exclusive
+
+  private RowSelection(long[] starts, long[] ends) {
+    this.starts = starts;
+    this.ends = ends;
+  }
+
+  /** Select all rows except the given, possibly overlapping, [start, end) ranges. */
+  static RowSelection excluding(long rowCount, List<long[]> excluded) {
+    excluded.sort((a, b) -> Long.compare(a[0], b[0]));
+    List<long[]> ranges = new ArrayList<>();
+    long start = 0;
+    for (long[] range : excluded) {
+      if (range[0] > start)
+        ranges.add(new long[] { start, range[0] });
+      start = Math.max(start, range[1]);
+    }
+    if (start < rowCount)
+      ranges.add(new long[] { start, rowCount });
+
+    long[] starts = new long[ranges.size()];
+    long[] ends = new long[ranges.size()];
+    for (int i = 0; i < starts.length; i++) {
+      starts[i] = ranges.get(i)[0];
+      ends[i] = ranges.get(i)[1];
+    }
+    return new RowSelection(starts, ends);
+  }
+
+  /** Return the number of ranges of rows. */
+  public int getRangeCount() {
+    return starts.length;
+  }
+
+  /** Return the first row of a range. */
+  public long getRangeStart(int range) {
+    return starts[range];
+  }
+
+  /** Return the row after the last row of a range. */
+  public long getRangeEnd(int range) {
+    return ends[range];
+  }
+
+  /** Return the number of rows selected. */
+  public long getRowCount() {
+    long count = 0;
+    for (int i = 0; i < starts.length; i++)
+      count += ends[i] - starts[i];
+    return count;
+  }
+
+  /** Return true if a row is selected. */
+  public boolean contains(long row) {
+    return nextRow(row) == row;
+  }
+
+  /** Return the first selected row at or after a row, or -1 if there is none. */
+  public long nextRow(long row) {
+    int range = Arrays.binarySearch(ends, row);
+    range = range < 0 ? -range - 1 : range + 1; // first range ending after row
+    if (range >= ends.length)
+      return -1;
+    return Math.max(row, starts[range]);
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder result = new StringBuilder("[");
+    for (int i = 0; i < starts.length; i++) {
+      if (i > 0)
+        result.append(", ");
+      result.append(starts[i]).append("-").append(ends[i]);
+    }
+    return result.append("]").toString();
+  }
+
+}
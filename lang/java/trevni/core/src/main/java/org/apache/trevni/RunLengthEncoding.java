@@ -0,0 +1,116 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.trevni;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Runs of equal values are written as an int count followed by the value. For
+ * booleans the count and the value are combined as <code>count*2+value</code>.
+ * Runs end before each length of an array column.
+ */
+class RunLengthEncoding {
+
+  private RunLengthEncoding() {
+  }
+
+  static class Encoder extends ValueEncoder {
+    private Object runValue;
+    private int runLength;
+
+    Encoder(ValueType type) {
+      super(type);
+    }
+
+    @Override
+    void writeValue(Object value, OutputBuffer out) throws IOException {
+      if (value instanceof byte[])
+        value = ByteBuffer.wrap((byte[]) value);
+      if (runLength > 0 && runValue.equals(value)) {
+        runLength++; // continue a run
+        return;
+      }
+      flush(out);
+      runValue = copy(value);
+      runLength = 1;
+    }
+
+    @Override
+    void flush(OutputBuffer out) throws IOException {
+      if (runLength == 0)
+        return;
+      if (type == ValueType.BOOLEAN) {
+        out.writeInt((runLength << 1) | ((Boolean) runValue ? 1 : 0));
+      } else {
+        out.writeInt(runLength);
+        out.writeValue(runValue, type);
+      }
+      runValue = null;
+      runLength = 0;
+    }
+  }
+
+  static class Decoder extends ValueDecoder {
+    private Object runValue;
+    private int runLength; // remaining in run
+    private Object markValue;
+    private int markLength;
+
+    Decoder(ValueType type) {
+      super(type);
+    }
+
+    @Override
+    void startBlock(InputBuffer in) throws IOException {
+      runValue = null;
+      runLength = 0;
+    }
+
+    @Override
+    <T extends Comparable<?>> T readValue(InputBuffer in) throws IOException {
+      if (runLength == 0) {
+        if (type == ValueType.BOOLEAN) {
+          int run = in.readInt();
+          runLength = run >>> 1;
+          runValue = (run & 1) != 0;
+        } else {
+          runLength = in.readInt();
+          runValue = in.readValue(type);
+        }
+        if (runLength <= 0)
+          throw new TrevniRuntimeException("Malformed run length: " + runLength);
+      }
+      runLength--;
+      return share(runValue);
+    }
+
+    @Override
+    void mark() {
+      markValue = runValue;
+      markLength = runLength;
+    }
+
+    @Override
+    void reset() {
+      runValue = markValue;
+      runLength = markLength;
+    }
+  }
+
+}
@@ -43,4 +43,13 @@ final class SnappyCodec extends Codec {
     return out;
   }
 
+  @Override
+  ByteBuffer decompress(ByteBuffer in, int size, ByteBuffer reuse) throws IOException {
+    int offset = computeOffset(in);
+    ByteBuffer out = ensureCapacity(reuse, Snappy.uncompressedLength(in.array(), offset, in.remaining()));
+    size = Snappy.uncompress(in.array(), offset, in.remaining(), out.array(), 0);
+    ((Buffer) out).limit(size);
+    return out;
+  }
+
 }
@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.trevni;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/** Decodes the values of a column within each block. See {@link ValueEncoder}. */
+abstract class ValueDecoder {
+
+  public static ValueDecoder get(ColumnMetaData meta) {
+    String name = meta.getEncoding();
+    ValueType type = meta.getType();
+    ValueEncoder.check(name, type);
+    if (ValueEncoder.PLAIN.equals(name))
+      return new Plain(type);
+    else if (ValueEncoder.DICTIONARY.equals(name))
+      return new DictionaryEncoding.Decoder(type);
+    else if (ValueEncoder.RUN_LENGTH.equals(name))
+      return new RunLengthEncoding.Decoder(type);
+    else
+      return new DeltaEncoding.Decoder(type);
+  }
+
+  final ValueType type;
+
+  ValueDecoder(ValueType type) {
+    this.type = type;
+  }
+
+  /** Called at the start of each block, before its values are read. */
+  void startBlock(InputBuffer in) throws IOException {
+  }
+
+  /** Decode a value. */
+  abstract <T extends Comparable<?>> T readValue(InputBuffer in) throws IOException;
+
+  /** Skip a value. */
+  void skipValue(InputBuffer in) throws IOException {
+    readValue(in);
+  }
+
+  /** Save the state of decoding, to be restored by {@link #reset()}. */
+  void mark() {
+  }
+
+  /** Restore the state saved by {@link #mark()}. */
+  void reset() {
+  }
+
+  /** Return a value that is shared by several rows. */
+  @SuppressWarnings("unchecked")
+  static <T extends Comparable<?>> T share(Object value) {
+    if (value instanceof ByteBuffer)
+      return (T) ((ByteBuffer) value).duplicate();
+    return (T) value;
+  }
+
+  /** Values read in their type's encoding. */
+  static class Plain extends ValueDecoder {
+    Plain(ValueType type) {
+      super(type);
+    }
+
+    @Override
+    <T extends Comparable<?>> T readValue(InputBuffer in) throws IOException {
+      return in.readValue(type);
+    }
+
+    @Override
+    void skipValue(InputBuffer in) throws IOException {
+      in.skipValue(type);
+    }
+  }
+
+}
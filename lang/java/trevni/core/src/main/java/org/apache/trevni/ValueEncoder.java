@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.trevni;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Encodes the values of a column within each block. See
+ * {@link ColumnMetaData#setEncoding(String)}.
+ */
+abstract class ValueEncoder {
+
+  static final String PLAIN = "plain";
+  static final String DICTIONARY = "dictionary";
+  static final String RUN_LENGTH = "rle";
+  static final String DELTA = "delta";
+
+  public static ValueEncoder get(ColumnMetaData meta) {
+    String name = meta.getEncoding();
+    ValueType type = meta.getType();
+    check(name, type);
+    if (PLAIN.equals(name))
+      return new Plain(type);
+    else if (DICTIONARY.equals(name))
+      return new DictionaryEncoding.Encoder(type);
+    else if (RUN_LENGTH.equals(name))
+      return new RunLengthEncoding.Encoder(type);
+    else
+      return new DeltaEncoding.Encoder(type);
+  }
+
+  /** Throw if an encoding is unknown or cannot encode a type. */
+  static void check(String name, ValueType type) {
+    boolean supported;
+    if (PLAIN.equals(name))
+      supported = true;
+    else if (DICTIONARY.equals(name))
+      supported = type != ValueType.NULL && type != ValueType.BOOLEAN;
+    else if (RUN_LENGTH.equals(name))
+      supported = type != ValueType.NULL;
+    else if (DELTA.equals(name))
+      supported = type == ValueType.INT || type == ValueType.LONG || type == ValueType.FIXED32
+          || type == ValueType.FIXED64;
+    else
+      throw new TrevniRuntimeException("Unknown encoding: " + name);
+    if (!supported)
+      throw new TrevniRuntimeException("Encoding " + name + " does not support type: " + type);
+  }
+
+  final ValueType type;
+
+  ValueEncoder(ValueType type) {
+    this.type = type;
+  }
+
+  /** Return a value that may be kept after the caller changes it. */
+  static Object copy(Object value) {
+    ByteBuffer bytes;
+    if (value instanceof byte[])
+      bytes = ByteBuffer.wrap((byte[]) value);
+    else if (value instanceof ByteBuffer)
+      bytes = ((ByteBuffer) value).duplicate();
+    else
+      return value;
+    byte[] copy = new byte[bytes.remaining()];
+    bytes.get(copy);
+    return ByteBuffer.wrap(copy);
+  }
+
+  /** Encode a value. */
+  abstract void writeValue(Object value, OutputBuffer out) throws IOException;
+
+  /** Write any values held back. Called before a length is written. */
+  void flush(OutputBuffer out) throws IOException {
+  }
+
+  /**
+   * Return the data of a block given its values, and reset for the next block.
+   */
+  OutputBuffer finishBlock(OutputBuffer values) throws IOException {
+    flush(values);
+    return values;
+  }
+
+  /** Values written in their type's encoding. */
+  static class Plain extends ValueEncoder {
+    Plain(ValueType type) {
+      super(type);
+    }
+
+    @Override
+    void writeValue(Object value, OutputBuffer out) throws IOException {
+      out.writeValue(value, type);
+    }
+  }
+
+}
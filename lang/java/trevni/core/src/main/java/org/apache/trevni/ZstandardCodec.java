@@ -0,0 +1,71 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.trevni;
+
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+
+import com.github.luben.zstd.Zstd;
+
+/**
+ * Implements <a href="https://facebook.github.io/zstd/">Zstandard</a>
+ * compression, writing each block as a single frame.
+ */
+final class ZstandardCodec extends Codec {
+  static final int DEFAULT_LEVEL = 3;
+  static final int MAX_LEVEL = 22;
+
+  private final int level;
+
+  ZstandardCodec(int level) {
+    this.level = level;
+  }
+
+  @Override
+  ByteBuffer compress(ByteBuffer in) throws IOException {
+    ByteBuffer out = ByteBuffer.allocate((int) Zstd.compressBound(in.remaining()));
+    long size = Zstd.compressByteArray(out.array(), 0, out.capacity(), in.array(), computeOffset(in), in.remaining(),
+        level);
+    ((Buffer) out).limit(checkSize(size));
+    return out;
+  }
+
+  @Override
+  ByteBuffer decompress(ByteBuffer in) throws IOException {
+    long size = Zstd.decompressedSize(in.array(), computeOffset(in), in.remaining());
+    if (size < 0 || size > Integer.MAX_VALUE)
+      throw new IOException("Invalid Zstandard frame size: " + size);
+    return decompress(in, (int) size, null);
+  }
+
+  @Override
+  ByteBuffer decompress(ByteBuffer in, int size, ByteBuffer reuse) throws IOException {
+    ByteBuffer out = ensureCapacity(reuse, size);
+    long n = Zstd.decompressByteArray(out.array(), 0, size, in.array(), computeOffset(in), in.remaining());
+    ((Buffer) out).limit(checkSize(n));
+    return out;
+  }
+
+  private static int checkSize(long size) throws IOException {
+    if (Zstd.isError(size))
+      throw new IOException("Zstandard error: " + Zstd.getErrorName(size));
+    return (int) size;
+  }
+
+}
@@ -0,0 +1,184 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.trevni;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+
+@RunWith(Parameterized.class)
+public class TestCodecs {
+  private static final int COUNT = 50000;
+
+  @Parameters(name = "{0} {1}")
+  public static Collection<Object[]> codecs() {
+    List<Object[]> result = new ArrayList<>();
+    for (String codec : new String[] { "null", "deflate", "snappy", "bzip2", "zstandard" })
+      for (String checksum : new String[] { "null", "crc32" })
+        result.add(new Object[] { codec, checksum });
+    return result;
+  }
+
+  @Rule
+  public TemporaryFolder temp = new TemporaryFolder();
+
+  private final String codec;
+  private final String checksum;
+
+  public TestCodecs(String codec, String checksum) {
+    this.codec = codec;
+    this.checksum = checksum;
+  }
+
+  private static ByteBuffer data(int size) {
+    Random random = new Random(42);
+    byte[] bytes = new byte[size];
+    for (int i = 0; i < size; i++)
+      bytes[i] = (byte) random.nextInt(16); // compressible
+    return ByteBuffer.wrap(bytes);
+  }
+
+  @Test
+  public void testCompressRoundTrip() throws IOException {
+    Codec c = Codec.get(new ColumnFileMetaData().setCodec(codec));
+    ByteBuffer data = data(100000);
+    ByteBuffer compressed = c.compress(data.duplicate());
+    assertEquals(data, c.decompress(compressed.duplicate()));
+
+    // never decompressed into the array of the compressed data, and into a
+    // buffer to reuse if large enough, by codecs that decompress blocks of a
+    // known size
+    boolean reuses = !"deflate".equals(codec) && !"bzip2".equals(codec);
+    for (ByteBuffer reuse : new ByteBuffer[] { null, ByteBuffer.allocate(10), ByteBuffer.allocate(200000) }) {
+      ByteBuffer result = c.decompress(compressed.duplicate(), data.remaining(), reuse);
+      assertEquals(data, result);
+      assertNotSame(compressed.array(), result.array());
+      if (reuses && reuse != null && reuse.capacity() >= data.remaining())
+        assertSame(reuse.array(), result.array());
+    }
+  }
+
+  private File write(int level) throws IOException {
+    ColumnFileMetaData meta = new ColumnFileMetaData().setCodec(codec).setChecksum(checksum);
+    if (level != 0)
+      meta.setCodecLevel(level);
+    File file = temp.newFile();
+    Random random = new Random(42);
+    try (ColumnFileWriter writer = new ColumnFileWriter(meta, new ColumnMetaData("l", ValueType.LONG),
+        new ColumnMetaData("s", ValueType.STRING))) {
+      for (int i = 0; i < COUNT; i++)
+        writer.writeRow((long) random.nextInt(1000), "s" + random.nextInt(1000));
+      writer.writeTo(file);
+    }
+    return file;
+  }
+
+  private void assertReads(File file) throws IOException {
+    Random random = new Random(42);
+    try (ColumnFileReader reader = new ColumnFileReader(file)) {
+      assertEquals(codec, reader.getMetaData().getCodec());
+      assertEquals(checksum, reader.getMetaData().getChecksum());
+      ColumnValues<Long> l = reader.getValues("l");
+      ColumnValues<String> s = reader.getValues("s");
+      for (int i = 0; i < COUNT; i++) {
+        assertEquals(random.nextInt(1000), (long) l.next());
+        assertEquals("s" + random.nextInt(1000), s.next());
+      }
+      assertFalse(l.hasNext());
+    }
+  }
+
+  @Test
+  public void testFileRoundTrip() throws IOException {
+    assertReads(write(0));
+  }
+
+  @Test
+  public void testLevels() throws IOException {
+    if (!"deflate".equals(codec) && !"zstandard".equals(codec))
+      return; // no levels
+    File fast = write(1);
+    File small = write(9);
+    assertReads(fast);
+    assertReads(small);
+    assertTrue(small.length() <= fast.length());
+  }
+
+  @Test
+  public void testInvalidLevels() {
+    int max = "deflate".equals(codec) ? 9 : "zstandard".equals(codec) ? 22 : 0;
+    if (max == 0)
+      return; // no levels
+    for (int level : new int[] { -1, 0, max + 1 }) {
+      try {
+        new ColumnFileMetaData().setCodec(codec).setCodecLevel(level);
+        fail("level " + level + " accepted");
+      } catch (TrevniRuntimeException e) {
+        // expected
+      }
+    }
+    assertEquals(max, (int) new ColumnFileMetaData().setCodecLevel(max).setCodec(codec).getCodecLevel());
+    if ("deflate".equals(codec))
+      return;
+    try { // a level set before the codec is checked with it
+      new ColumnFileMetaData().setCodecLevel(max).setCodec("deflate");
+      fail("level " + max + " accepted for deflate");
+    } catch (TrevniRuntimeException e) {
+      // expected
+    }
+  }
+
+  @Test
+  public void testChecksumMismatch() throws IOException {
+    if (!"null".equals(codec) || !"crc32".equals(checksum))
+      return; // only raw data can be changed without the codec noticing
+    File file = write(0);
+    try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+      long position = raf.length() - 5; // in the data of the last block
+      raf.seek(position);
+      int b = raf.read();
+      raf.seek(position);
+      raf.write(b ^ 0xff);
+    }
+    try {
+      assertReads(file);
+      fail("corruption not detected");
+    } catch (TrevniRuntimeException e) {
+      assertEquals("Checksums mismatch.", e.getCause().getMessage());
+    }
+  }
+}
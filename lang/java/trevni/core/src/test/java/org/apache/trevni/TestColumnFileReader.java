@@ -0,0 +1,163 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.trevni;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class TestColumnFileReader {
+  private static final int COUNT = 50000;
+
+  @ClassRule
+  public static TemporaryFolder temp = new TemporaryFolder();
+
+  private static File file;
+  private static List<int[]> items = new ArrayList<>(); // the x values of each row
+
+  /**
+   * Rows of an ascending id, a string, and an array of records with an int
+   * field: like an Avro schema with a field "items" of records with a field "x".
+   */
+  @BeforeClass
+  public static void writeFile() throws IOException {
+    ColumnMetaData array = new ColumnMetaData("items[]", ValueType.NULL).isArray(true);
+    ColumnMetaData x = new ColumnMetaData("items[]#x", ValueType.INT).setParent(array);
+    Random random = new Random(42);
+    try (ColumnFileWriter writer = new ColumnFileWriter(new ColumnFileMetaData(),
+        new ColumnMetaData("id", ValueType.LONG), new ColumnMetaData("s", ValueType.STRING), array, x)) {
+      for (int i = 0; i < COUNT; i++) {
+        // many elements in some rows, so that the blocks of "items[]#x" hold
+        // more elements than rows
+        int[] values = new int[i % 100 == 0 ? 200 : random.nextInt(3)];
+        for (int j = 0; j < values.length; j++)
+          values[j] = i + random.nextInt(10);
+        items.add(values);
+
+        writer.startRow();
+        writer.writeValue((long) i, 0);
+        writer.writeValue("s" + (i % 1000), 1);
+        writer.writeLength(values.length, 2);
+        for (int value : values) {
+          writer.writeValue(null, 2);
+          writer.writeValue(value, 3);
+        }
+        writer.endRow();
+      }
+      file = temp.newFile();
+      writer.writeTo(file);
+    }
+  }
+
+  @Test
+  public void testSelectTopLevel() throws IOException {
+    try (ColumnFileReader reader = new ColumnFileReader(file)) {
+      RowSelection all = reader.select();
+      assertEquals(1, all.getRangeCount());
+      assertEquals(COUNT, all.getRowCount());
+
+      RowSelection one = reader.select(ColumnPredicate.eq("id", 12345L));
+      assertTrue(one.contains(12345));
+      assertTrue(one.getRowCount() < COUNT / 2);
+      assertEquals(-1, one.nextRow(one.getRangeEnd(one.getRangeCount() - 1)));
+      assertEquals(one.getRangeStart(0), one.nextRow(0));
+
+      RowSelection none = reader.select(ColumnPredicate.lt("id", 0L));
+      assertEquals(0, none.getRowCount());
+      assertEquals(-1, none.nextRow(0));
+
+      RowSelection range = reader.select(ColumnPredicate.between("id", 20000L, 30000L));
+      for (long row = 20000; row <= 30000; row++)
+        assertTrue(range.contains(row));
+      assertFalse(range.contains(COUNT - 1));
+
+      // a row must be in the selection of each predicate, and every block of
+      // strings may hold "s7"
+      RowSelection both = reader.select(ColumnPredicate.between("id", 20000L, 30000L), ColumnPredicate.eq("s", "s7"));
+      assertEquals(range.getRowCount(), both.getRowCount());
+      RowSelection empty = reader.select(ColumnPredicate.ge("id", COUNT - 1L), ColumnPredicate.le("id", 0L));
+      assertEquals(0, empty.getRowCount());
+    }
+  }
+
+  @Test
+  public void testSelectNested() throws IOException {
+    try (ColumnFileReader reader = new ColumnFileReader(file)) {
+      Random random = new Random(7);
+      boolean excludedAny = false;
+      for (int n = 0; n < 50; n++) {
+        int value = random.nextInt(COUNT);
+        RowSelection selection = reader.select(ColumnPredicate.eq("items[]#x", value));
+        excludedAny |= selection.getRowCount() < COUNT;
+        for (int row = 0; row < COUNT; row++)
+          for (int x : items.get(row))
+            if (x == value)
+              assertTrue(value + " in row " + row, selection.contains(row));
+      }
+      assertTrue(excludedAny);
+
+      // rows with an empty array
+      RowSelection empty = reader.select(ColumnPredicate.isNull("items[]"));
+      for (int row = 0; row < COUNT; row++)
+        if (items.get(row).length == 0)
+          assertTrue(empty.contains(row));
+    }
+  }
+
+  private static RowSelection selectString(String value, String longest) throws IOException {
+    File file = temp.newFile();
+    try (ColumnFileWriter writer = new ColumnFileWriter(new ColumnFileMetaData(),
+        new ColumnMetaData("s", ValueType.STRING))) {
+      writer.writeRow("a");
+      writer.writeRow(longest);
+      writer.writeTo(file);
+    }
+    try (ColumnFileReader reader = new ColumnFileReader(file)) {
+      return reader.select(ColumnPredicate.eq("s", value));
+    }
+  }
+
+  @Test
+  public void testLongStringStatistics() throws IOException {
+    StringBuilder ascii = new StringBuilder();
+    StringBuilder accented = new StringBuilder();
+    for (int i = 0; i < 128; i++) {
+      ascii.append("bb");
+      accented.append('\u00e9'); // two bytes in UTF-8
+    }
+    // 256 bytes are recorded, so the block can be excluded
+    assertEquals(0, selectString("c", ascii.toString()).getRowCount());
+    assertEquals(0, selectString("\u00ea", accented.toString()).getRowCount());
+    // but not longer values, even of no more than 256 chars
+    ascii.append('b');
+    accented.append('\u00e9');
+    assertEquals(2, selectString("c", ascii.toString()).getRowCount());
+    assertEquals(2, selectString("\u00ea", accented.toString()).getRowCount());
+  }
+}
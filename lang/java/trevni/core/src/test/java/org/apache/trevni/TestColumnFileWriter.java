@@ -0,0 +1,96 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.trevni;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Random;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class TestColumnFileWriter {
+  private static final int COUNT = 30000;
+
+  @Rule
+  public TemporaryFolder temp = new TemporaryFolder();
+
+  private static byte[] write(long memoryBudget, File spillDirectory) throws IOException {
+    ColumnFileMetaData meta = new ColumnFileMetaData().setCodec("deflate").setChecksum("crc32");
+    ColumnMetaData array = new ColumnMetaData("a", ValueType.INT).isArray(true);
+    Random random = new Random(42);
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (ColumnFileWriter writer = new ColumnFileWriter(meta, new ColumnMetaData("l", ValueType.LONG),
+        new ColumnMetaData("s", ValueType.STRING), array)) {
+      writer.setMemoryBudget(memoryBudget).setSpillDirectory(spillDirectory);
+      for (int i = 0; i < COUNT; i++) {
+        writer.startRow();
+        writer.writeValue(random.nextLong(), 0);
+        writer.writeValue("s" + random.nextInt(1000), 1);
+        int length = random.nextInt(4);
+        writer.writeLength(length, 2);
+        for (int j = 0; j < length; j++)
+          writer.writeValue(random.nextInt(), 2);
+        writer.endRow();
+      }
+      writer.writeTo(out);
+    }
+    return out.toByteArray();
+  }
+
+  @Test
+  public void testSpilledEqualsUnbounded() throws IOException {
+    File spillDirectory = temp.newFolder();
+    byte[] expected = write(Long.MAX_VALUE, spillDirectory);
+    assertEquals(0, spillDirectory.list().length);
+    for (long budget : new long[] { 0, 1, 64 * 1024, 256 * 1024 }) {
+      assertArrayEquals("budget " + budget, expected, write(budget, spillDirectory));
+      assertEquals("spill file not deleted", 0, spillDirectory.list().length);
+    }
+  }
+
+  @Test
+  public void testSpilledReadBack() throws IOException {
+    File file = temp.newFile();
+    Files.write(file.toPath(), write(0, temp.newFolder()));
+    Random random = new Random(42);
+    try (ColumnFileReader reader = new ColumnFileReader(file)) {
+      assertEquals(COUNT, reader.getRowCount());
+      ColumnValues<Long> l = reader.getValues("l");
+      ColumnValues<String> s = reader.getValues("s");
+      ColumnValues<Integer> a = reader.getValues("a");
+      for (int i = 0; i < COUNT; i++) {
+        l.startRow();
+        assertEquals(random.nextLong(), (long) l.nextValue());
+        s.startRow();
+        assertEquals("s" + random.nextInt(1000), s.nextValue());
+        a.startRow();
+        int length = random.nextInt(4);
+        assertEquals(length, a.nextLength());
+        for (int j = 0; j < length; j++)
+          assertEquals(random.nextInt(), (int) a.nextValue());
+      }
+    }
+  }
+}
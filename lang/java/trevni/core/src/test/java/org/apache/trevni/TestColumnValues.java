@@ -0,0 +1,182 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.trevni;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class TestColumnValues {
+  private static final int COUNT = 100000;
+
+  @ClassRule
+  public static TemporaryFolder temp = new TemporaryFolder();
+
+  private static File file;
+  private static ExecutorService pool;
+
+  @BeforeClass
+  public static void writeFile() throws IOException {
+    Random random = new Random(42);
+    try (ColumnFileWriter writer = new ColumnFileWriter(new ColumnFileMetaData().setCodec("deflate"),
+        new ColumnMetaData("id", ValueType.LONG), new ColumnMetaData("s", ValueType.STRING),
+        new ColumnMetaData("a", ValueType.INT).isArray(true))) {
+      for (int i = 0; i < COUNT; i++) {
+        writer.startRow();
+        writer.writeValue((long) i, 0);
+        writer.writeValue("s" + random.nextInt(), 1);
+        int length = random.nextInt(3);
+        writer.writeLength(length, 2);
+        for (int j = 0; j < length; j++)
+          writer.writeValue(random.nextInt(), 2);
+        writer.endRow();
+      }
+      file = temp.newFile();
+      writer.writeTo(file);
+    }
+    pool = Executors.newFixedThreadPool(2);
+  }
+
+  @AfterClass
+  public static void shutdown() {
+    pool.shutdown();
+  }
+
+  /** Read every column, seeking to some rows, as strings. */
+  private static List<String> read(Executor executor) throws IOException {
+    List<String> result = new ArrayList<>();
+    Random random = new Random(7);
+    try (ColumnFileReader reader = new ColumnFileReader(file)) {
+      List<ColumnValues<Comparable>> columns = new ArrayList<>();
+      for (String name : new String[] { "id", "s", "a" }) {
+        ColumnValues<Comparable> values = reader.getValues(name);
+        values.setExecutor(executor);
+        columns.add(values);
+      }
+      long row = 0;
+      while (row < COUNT) {
+        if (random.nextInt(1000) == 0) { // seek, sometimes backwards
+          row = random.nextInt(COUNT);
+          for (ColumnValues<Comparable> values : columns)
+            values.seek(row);
+          result.add("seek " + row);
+        }
+        for (ColumnValues<Comparable> values : columns) {
+          values.startRow();
+          if (values == columns.get(2)) {
+            int length = values.nextLength();
+            result.add("length " + length);
+            for (int i = 0; i < length; i++)
+              result.add(values.nextValue().toString());
+          } else {
+            result.add(values.nextValue().toString());
+          }
+        }
+        row++;
+      }
+    }
+    return result;
+  }
+
+  @Test
+  public void testPrefetchEqualsSequential() throws IOException {
+    List<String> expected = read(null);
+    assertEquals(expected, read(Runnable::run));
+    assertEquals(expected, read(pool));
+  }
+
+  /** Input that records the positions read. */
+  private static class RecordingInput implements Input {
+    private final Input in;
+    private final Set<Long> positions = Collections.synchronizedSet(new TreeSet<>());
+
+    RecordingInput(Input in) {
+      this.in = in;
+    }
+
+    @Override
+    public long length() throws IOException {
+      return in.length();
+    }
+
+    @Override
+    public int read(long position, byte[] b, int start, int len) throws IOException {
+      positions.add(position);
+      return in.read(position, b, start, len);
+    }
+
+    @Override
+    public void close() throws IOException {
+      in.close();
+    }
+  }
+
+  /** Read the selected rows of a column, returning the positions read. */
+  private static Set<Long> readSelected(Executor executor, boolean hint, ColumnPredicate predicate)
+      throws IOException {
+    RecordingInput input = new RecordingInput(new InputFile(file));
+    try (ColumnFileReader reader = new ColumnFileReader(input)) {
+      RowSelection selection = reader.select(predicate);
+      ColumnValues<Long> values = reader.getValues("id");
+      if (hint)
+        values.setSelection(selection);
+      values.setExecutor(executor);
+      for (long row = selection.nextRow(0); row >= 0; row = selection.nextRow(row + 1)) {
+        if (row != values.getRow())
+          values.seek(row);
+        values.startRow();
+        assertEquals(row, (long) values.nextValue());
+      }
+    }
+    return input.positions;
+  }
+
+  @Test
+  public void testPrefetchOnlySelected() throws IOException {
+    // rows at the start, and rows in the middle, of blocks not selected
+    ColumnPredicate start = ColumnPredicate.lt("id", 1000L);
+    ColumnPredicate middle = ColumnPredicate.between("id", 60000L, 61000L);
+    for (ColumnPredicate p : new ColumnPredicate[] { start, middle }) {
+      Set<Long> expected = readSelected(null, false, p);
+      assertEquals(expected, readSelected(Runnable::run, true, p));
+      assertEquals(expected, readSelected(pool, true, p));
+      // without the selection, the block after each range is read ahead
+      Set<Long> unhinted = readSelected(Runnable::run, false, p);
+      assertTrue(unhinted.containsAll(expected));
+      assertFalse(unhinted.equals(expected));
+    }
+  }
+}
@@ -0,0 +1,214 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.trevni;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+
+@RunWith(Parameterized.class)
+public class TestValueEncodings {
+  private static final int COUNT = 100000;
+
+  private static final ValueType[] TYPES = { ValueType.INT, ValueType.LONG, ValueType.FIXED32, ValueType.FIXED64,
+      ValueType.FLOAT, ValueType.DOUBLE, ValueType.STRING, ValueType.BYTES };
+
+  @Parameters(name = "{0} {1}")
+  public static Collection<Object[]> encodings() {
+    List<Object[]> result = new ArrayList<>();
+    for (String encoding : new String[] { ValueEncoder.PLAIN, ValueEncoder.DICTIONARY, ValueEncoder.RUN_LENGTH,
+        ValueEncoder.DELTA })
+      for (ValueType type : TYPES) {
+        try {
+          ValueEncoder.check(encoding, type);
+        } catch (TrevniRuntimeException e) {
+          continue; // not supported
+        }
+        result.add(new Object[] { encoding, type });
+      }
+    return result;
+  }
+
+  @ClassRule
+  public static TemporaryFolder temp = new TemporaryFolder();
+
+  private static final Map<String, File> FILES = new HashMap<>(); // by encoding and type
+
+  private final String encoding;
+  private final ValueType type;
+
+  public TestValueEncodings(String encoding, ValueType type) {
+    this.encoding = encoding;
+    this.type = type;
+  }
+
+  /** Ascending, in runs of three, with gaps: the n-th value is 2 * (n / 3). */
+  private Comparable value(int n) {
+    int v = 2 * (n / 3);
+    switch (type) {
+    case INT:
+    case FIXED32:
+      return v - COUNT; // negative values too
+    case LONG:
+    case FIXED64:
+      return (long) v << 20;
+    case FLOAT:
+      return (float) v;
+    case DOUBLE:
+      return v / 8.0;
+    case STRING:
+      return String.format("%08d", v);
+    case BYTES:
+      return ByteBuffer.wrap(String.format("%08d", v).getBytes(StandardCharsets.UTF_8));
+    default:
+      throw new IllegalArgumentException(type.toString());
+    }
+  }
+
+  private static int length(int row) {
+    return row % 4;
+  }
+
+  /**
+   * Return a file with a column of values with an index, and an array column with
+   * {@link #length(int)} values per row.
+   */
+  private File write() throws IOException {
+    File file = FILES.get(encoding + type);
+    if (file == null) {
+      file = temp.newFile();
+      write(file);
+      FILES.put(encoding + type, file);
+    }
+    return file;
+  }
+
+  private void write(File file) throws IOException {
+    ColumnMetaData values = new ColumnMetaData("v", type).setEncoding(encoding).hasIndexValues(true);
+    ColumnMetaData array = new ColumnMetaData("a", type).setEncoding(encoding).isArray(true);
+    try (ColumnFileWriter writer = new ColumnFileWriter(new ColumnFileMetaData().setCodec("null"), values, array)) {
+      for (int row = 0; row < COUNT; row++) {
+        writer.startRow();
+        writer.writeValue(value(row), 0);
+        writer.writeLength(length(row), 1);
+        for (int i = 0; i < length(row); i++)
+          writer.writeValue(value(row + i), 1);
+        writer.endRow();
+      }
+      writer.writeTo(file);
+    }
+  }
+
+  private void assertArrayRow(ColumnValues<Comparable> array, int row) throws IOException {
+    array.startRow();
+    assertEquals(length(row), array.nextLength());
+    for (int i = 0; i < length(row); i++)
+      assertEquals(value(row + i), array.nextValue());
+  }
+
+  @Test
+  public void testRoundTrip() throws IOException {
+    try (ColumnFileReader reader = new ColumnFileReader(write())) {
+      assertEquals(encoding, reader.getColumnMetaData("v").getEncoding());
+      ColumnValues<Comparable> values = reader.getValues("v");
+      ColumnValues<Comparable> array = reader.getValues("a");
+      for (int row = 0; row < COUNT; row++) {
+        assertEquals(value(row), values.next());
+        assertArrayRow(array, row);
+      }
+      assertFalse(values.hasNext());
+      assertFalse(array.hasNext());
+    }
+  }
+
+  @Test
+  public void testSeekRow() throws IOException {
+    Random random = new Random(42);
+    try (ColumnFileReader reader = new ColumnFileReader(write())) {
+      ColumnValues<Comparable> values = reader.getValues("v");
+      ColumnValues<Comparable> array = reader.getValues("a");
+      for (int i = 0; i < 50; i++) {
+        int row = random.nextInt(COUNT);
+        values.seek(row);
+        assertEquals(row, values.getRow());
+        assertEquals(value(row), values.next());
+        array.seek(row);
+        assertArrayRow(array, row);
+      }
+    }
+  }
+
+  @Test
+  public void testSeekValue() throws IOException {
+    Random random = new Random(42);
+    try (ColumnFileReader reader = new ColumnFileReader(write())) {
+      ColumnValues<Comparable> values = reader.getValues("v");
+      // every run, in order, including those continuing into another block
+      for (int row = 0; row < COUNT; row += 3) {
+        values.seek(value(row));
+        assertEquals(row, values.getRow());
+      }
+      for (int i = 0; i < 50; i++) {
+        int row = random.nextInt(COUNT) / 3 * 3; // the first of a run
+        values.seek(value(row));
+        assertEquals(row, values.getRow());
+        assertEquals(value(row), values.next());
+        assertEquals(value(row + 1), values.next());
+
+        // the gap before a run: seeks to its start
+        if (row > 0 && type != ValueType.BYTES && type != ValueType.STRING) {
+          values.seek(between(value(row - 1), value(row)));
+          assertEquals(row, values.getRow());
+          assertEquals(value(row), values.next());
+        }
+      }
+    }
+  }
+
+  private Comparable between(Comparable low, Comparable high) {
+    switch (type) {
+    case INT:
+    case FIXED32:
+      return ((Integer) low + (Integer) high) / 2;
+    case LONG:
+    case FIXED64:
+      return ((Long) low + (Long) high) / 2;
+    case FLOAT:
+      return ((Float) low + (Float) high) / 2;
+    default:
+      return ((Double) low + (Double) high) / 2;
+    }
+  }
+}